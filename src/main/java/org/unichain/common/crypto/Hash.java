@@ -19,13 +19,13 @@
 package org.unichain.common.crypto;
 
 import lombok.extern.slf4j.Slf4j;
+import org.unichain.common.crypto.cryptohash.DigestEngine;
+import org.unichain.common.crypto.cryptohash.Keccak256;
+import org.unichain.common.crypto.cryptohash.Keccak512;
 import org.unichain.common.crypto.jce.UnichainCastleProvider;
 import org.unichain.core.Wallet;
 import org.unichain.core.capsule.utils.RLP;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.security.Provider;
 import java.security.Security;
 
 import static java.util.Arrays.copyOfRange;
@@ -34,47 +34,35 @@ import static org.unichain.common.utils.ByteUtil.EMPTY_BYTE_ARRAY;
 @Slf4j(topic = "crypto")
 public class Hash {
 
-  private static final Provider CRYPTO_PROVIDER;
-
-  private static final String HASH_256_ALGORITHM_NAME;
-  private static final String HASH_512_ALGORITHM_NAME;
-
   public static final byte[] EMPTY_TRIE_HASH;
 
+  // engines are kept per thread instead of looked up from the provider on every call,
+  // digest() leaves them reset for the next one
+  private static final ThreadLocal<DigestEngine> KECCAK_256 =
+      ThreadLocal.withInitial(Keccak256::new);
+  private static final ThreadLocal<DigestEngine> KECCAK_512 =
+      ThreadLocal.withInitial(Keccak512::new);
+
   static {
     Security.addProvider(UnichainCastleProvider.getInstance());
-    CRYPTO_PROVIDER = Security.getProvider("SC");
-    HASH_256_ALGORITHM_NAME = "UNICHAIN-KECCAK-256";
-    HASH_512_ALGORITHM_NAME = "UNICHAIN-KECCAK-512";
     EMPTY_TRIE_HASH = sha3(RLP.encodeElement(EMPTY_BYTE_ARRAY));
   }
 
-  public static byte[] sha3(byte[] input) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+  private static DigestEngine engine(ThreadLocal<DigestEngine> engines) {
+    DigestEngine digest = engines.get();
+    digest.reset();
+    return digest;
+  }
 
+  public static byte[] sha3(byte[] input) {
+    return engine(KECCAK_256).digest(input);
   }
 
   public static byte[] sha3(byte[] input1, byte[] input2) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input1, 0, input1.length);
-      digest.update(input2, 0, input2.length);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+    DigestEngine digest = engine(KECCAK_256);
+    digest.update(input1, 0, input1.length);
+    digest.update(input2, 0, input2.length);
+    return digest.digest();
   }
 
   /**
@@ -86,29 +74,16 @@ public class Hash {
    * @return - keccak hash of the chunk
    */
   public static byte[] sha3(byte[] input, int start, int length) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input, start, length);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
+    if (start < 0 || length < 0 || start > input.length - length) {
+      throw new IllegalArgumentException("Bad arguments");
     }
+    DigestEngine digest = engine(KECCAK_256);
+    digest.update(input, start, length);
+    return digest.digest();
   }
 
   public static byte[] sha512(byte[] input) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_512_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+    return engine(KECCAK_512).digest(input);
   }
 
   /**
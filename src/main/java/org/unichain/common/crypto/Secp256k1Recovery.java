@@ -0,0 +1,133 @@
+package org.unichain.common.crypto;
+
+import org.spongycastle.asn1.x9.X9ECParameters;
+import org.spongycastle.crypto.ec.CustomNamedCurves;
+import org.spongycastle.math.ec.ECAlgorithms;
+import org.spongycastle.math.ec.ECCurve;
+import org.spongycastle.math.ec.ECPoint;
+
+import java.math.BigInteger;
+
+/**
+ * Public key recovery on the specialised secp256k1 curve: fixed width field arithmetic, GLV
+ * endomorphism and wNAF tables for the generator that are built once and kept on it.
+ *
+ * Results are the same 65 byte encodings {@link ECKey#recoverPubBytesFromSignature} gave on the
+ * generic curve. The cofactor of secp256k1 is one, so every decoded R already has order n and
+ * the nR == infinity check is left out.
+ */
+final class Secp256k1Recovery {
+
+  private static final X9ECParameters PARAMS = CustomNamedCurves.getByName("secp256k1");
+  private static final ECCurve CURVE = PARAMS.getCurve();
+  private static final ECPoint G = PARAMS.getG();
+  private static final BigInteger N = PARAMS.getN();
+  private static final BigInteger P = CURVE.getField().getCharacteristic();
+  private static final int FIELD_BYTES = (P.bitLength() + 7) / 8;
+
+  static {
+    // the generator tables are attached to G on first use, build them here instead
+    ECAlgorithms.sumOfTwoMultiplies(G, N.subtract(BigInteger.ONE), G, N.subtract(BigInteger.ONE));
+  }
+
+  private Secp256k1Recovery() {
+  }
+
+  /**
+   * @return the uncompressed public key, or null if this recId gives no point
+   */
+  static byte[] recover(int recId, BigInteger r, BigInteger s, byte[] messageHash) {
+    ECPoint R = decodeR(recId, r);
+    if (R == null) {
+      return null;
+    }
+    return sumOfMultiplies(R, r.modInverse(N), s, messageHash).getEncoded(false);
+  }
+
+  /**
+   * Recovers a batch of keys, sharing one inversion mod n for the r values and one field
+   * inversion to bring all the results to affine coordinates. A negative recId skips its entry.
+   *
+   * @return the uncompressed public keys in input order, null where recovery failed
+   */
+  static byte[][] recoverAll(int[] recIds, BigInteger[] r, BigInteger[] s,
+      byte[][] messageHashes) {
+    int len = recIds.length;
+    ECPoint[] R = new ECPoint[len];
+    for (int i = 0; i < len; i++) {
+      if (recIds[i] < 0 || r[i].mod(N).signum() == 0) {
+        continue;
+      }
+      try {
+        R[i] = decodeR(recIds[i], r[i]);
+      } catch (IllegalArgumentException e) {
+        // x is not on the curve, same as the single recovery throwing
+      }
+    }
+
+    BigInteger[] rInv = invertAll(r, R);
+    ECPoint[] q = new ECPoint[len];
+    int count = 0;
+    int[] index = new int[len];
+    for (int i = 0; i < len; i++) {
+      if (R[i] != null) {
+        q[count] = sumOfMultiplies(R[i], rInv[i], s[i], messageHashes[i]);
+        index[count++] = i;
+      }
+    }
+    CURVE.normalizeAll(q, 0, count, null);
+
+    byte[][] keys = new byte[len][];
+    for (int i = 0; i < count; i++) {
+      keys[index[i]] = q[i].getEncoded(false);
+    }
+    return keys;
+  }
+
+  private static ECPoint decodeR(int recId, BigInteger r) {
+    BigInteger x = r.add(BigInteger.valueOf((long) recId / 2).multiply(N));
+    if (x.compareTo(P) >= 0) {
+      return null;
+    }
+    byte[] encoded = new byte[FIELD_BYTES + 1];
+    encoded[0] = (byte) ((recId & 1) == 1 ? 0x03 : 0x02);
+    byte[] xBytes = x.toByteArray();
+    int length = Math.min(xBytes.length, FIELD_BYTES);
+    System.arraycopy(xBytes, xBytes.length - length, encoded, encoded.length - length, length);
+    return CURVE.decodePoint(encoded);
+  }
+
+  // Q = r^-1 (sR - eG), as r^-1 s * R + r^-1 (-e) * G
+  private static ECPoint sumOfMultiplies(ECPoint R, BigInteger rInv, BigInteger s,
+      byte[] messageHash) {
+    BigInteger e = new BigInteger(1, messageHash);
+    BigInteger eInvrInv = rInv.multiply(BigInteger.ZERO.subtract(e).mod(N)).mod(N);
+    BigInteger srInv = rInv.multiply(s).mod(N);
+    return ECAlgorithms.sumOfTwoMultiplies(G, eInvrInv, R, srInv);
+  }
+
+  // Montgomery's trick over the entries that still have a point
+  private static BigInteger[] invertAll(BigInteger[] r, ECPoint[] R) {
+    int len = r.length;
+    BigInteger[] prefix = new BigInteger[len];
+    BigInteger acc = BigInteger.ONE;
+    for (int i = 0; i < len; i++) {
+      if (R[i] != null) {
+        acc = acc.multiply(r[i]).mod(N);
+      }
+      prefix[i] = acc;
+    }
+
+    BigInteger[] inverses = new BigInteger[len];
+    BigInteger inv = acc.modInverse(N);
+    for (int i = len - 1; i >= 0; i--) {
+      if (R[i] == null) {
+        continue;
+      }
+      BigInteger before = i == 0 ? BigInteger.ONE : prefix[i - 1];
+      inverses[i] = inv.multiply(before).mod(N);
+      inv = inv.multiply(r[i]).mod(N);
+    }
+    return inverses;
+  }
+}
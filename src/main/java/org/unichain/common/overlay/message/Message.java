@@ -1,10 +1,10 @@
 package org.unichain.common.overlay.message;
 
 import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.MessageLite;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import lombok.Setter;
-import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.ReflectionUtils;
@@ -40,7 +40,7 @@ public abstract class Message {
   }
 
   public ByteBuf getSendData() {
-    return Unpooled.wrappedBuffer(ArrayUtils.add(this.getData(), 0, type));
+    return Unpooled.wrappedBuffer(new byte[]{type}, this.getData());
   }
 
   public Sha256Hash getMessageId() {
@@ -80,7 +80,18 @@ public abstract class Message {
   }
 
   public static void compareBytes(byte[] src, byte[] dest) throws P2pException {
-    if (src.length != dest.length) {
+    compareBytes(src, dest.length);
+  }
+
+  /**
+   * same check against a parsed message, from its memoized size instead of serializing it again.
+   */
+  public static void compareBytes(byte[] src, MessageLite dest) throws P2pException {
+    compareBytes(src, dest.getSerializedSize());
+  }
+
+  private static void compareBytes(byte[] src, int destLength) throws P2pException {
+    if (src.length != destLength) {
       throw new P2pException(PROTOBUF_ERROR, PROTOBUF_ERROR.getDesc());
     }
   }
@@ -100,6 +111,16 @@ public abstract class Message {
     return codedInputStream;
   }
 
+  /**
+   * for a message body the message keeps and never changes: bytes fields of what is parsed
+   * share the body array instead of being copied out of it.
+   */
+  public static CodedInputStream getAliasedCodedInputStream(byte[] data) {
+    CodedInputStream codedInputStream = getCodedInputStream(data);
+    codedInputStream.enableAliasing(true);
+    return codedInputStream;
+  }
+
   public static boolean isFilter() {
     return manager.getDynamicPropertiesStore().getAllowProtoFilterNum() == 1;
   }
@@ -24,10 +24,8 @@ public class MessageCodec extends ByteToMessageDecoder {
   protected void decode(ChannelHandlerContext ctx, ByteBuf buffer, List<Object> out)
       throws Exception {
     int length = buffer.readableBytes();
-    byte[] encoded = new byte[length];
-    buffer.readBytes(encoded);
     try {
-      Message msg = createMessage(encoded);
+      Message msg = createMessage(buffer, length);
       channel.getNodeStatistics().tcpFlow.add(length);
       out.add(msg);
     } catch (Exception e) {
@@ -39,15 +37,18 @@ public class MessageCodec extends ByteToMessageDecoder {
     this.channel = channel;
   }
 
-  private Message createMessage(byte[] encoded) throws Exception {
-    byte type = encoded[0];
+  // the body is copied out of the frame once, straight into the array the message keeps
+  private Message createMessage(ByteBuf buffer, int length) throws Exception {
+    byte type = buffer.readByte();
+    byte[] packed = new byte[length - 1];
+    buffer.readBytes(packed);
     if (MessageTypes.inP2pRange(type)) {
-      return p2pMessageFactory.create(encoded);
+      return p2pMessageFactory.create(type, packed);
     }
     if (MessageTypes.inUnichainRange(type)) {
-      return unichainMessageFactory.create(encoded);
+      return unichainMessageFactory.create(type, packed);
     }
-    throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE, "type=" + encoded[0]);
+    throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE, "type=" + type);
   }
 
 }
\ No newline at end of file
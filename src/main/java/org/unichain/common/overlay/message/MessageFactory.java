@@ -19,4 +19,10 @@ public abstract class MessageFactory {
 
   protected abstract Message create(byte[] data) throws Exception;
 
+  /**
+   * @param type the type byte that leads an encoded message
+   * @param packed the rest of the encoded message
+   */
+  protected abstract Message create(byte type, byte[] packed) throws Exception;
+
 }
@@ -9,33 +9,46 @@ import org.unichain.common.overlay.message.Message;
 import org.unichain.common.overlay.message.PingMessage;
 import org.unichain.common.overlay.message.PongMessage;
 import org.unichain.core.net.message.InventoryMessage;
+import org.unichain.core.net.message.TransactionMessage;
 import org.unichain.core.net.message.TransactionsMessage;
 import org.unichain.protos.Protocol.Inventory.InventoryType;
 import org.unichain.protos.Protocol.ReasonCode;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j(topic = "net")
 @Component
 @Scope("prototype")
 public class MessageQueue {
 
+  // queued bytes above which transaction inventories to this peer are dropped, the peer is not
+  // reading and other peers announce the same transactions
+  private static final long MAX_QUEUED_BYTES = 16L * 1024 * 1024;
+
   private volatile boolean sendMsgFlag = false;
 
   private volatile long sendTime;
 
   private volatile long sendPing;
 
-  private Thread sendMsgThread;
-
   private Channel channel;
 
   private ChannelHandlerContext ctx = null;
 
   private Queue<MessageRoundtrip> requestQueue = new ConcurrentLinkedQueue<>();
 
-  private BlockingQueue<Message> msgQueue = new LinkedBlockingQueue<>();
+  // by priority: blocks and control messages, transactions, transaction inventories
+  private final List<Queue<Message>> msgQueues = Arrays.asList(
+      new ConcurrentLinkedQueue<>(), new ConcurrentLinkedQueue<>(), new ConcurrentLinkedQueue<>());
+
+  private final AtomicLong queuedBytes = new AtomicLong();
+
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
 
   private static ScheduledExecutorService sendTimer = Executors.
       newSingleThreadScheduledExecutor(r -> new Thread(r, "sendTimer"));
@@ -59,27 +72,14 @@ public class MessageQueue {
       }
     }, 10, 10, TimeUnit.MILLISECONDS);
 
-    sendMsgThread = new Thread(() -> {
-      while (sendMsgFlag) {
-        try {
-          if (msgQueue.isEmpty()) {
-            Thread.sleep(10);
-            continue;
-          }
-          Message msg = msgQueue.take();
-          ctx.writeAndFlush(msg.getSendData()).addListener((ChannelFutureListener) future -> {
-            if (!future.isSuccess() && !channel.isDisconnect()) {
-              logger.error("Fail send to {}, {}", ctx.channel().remoteAddress(), msg);
-            }
-          });
-        } catch (Exception e) {
-          logger.error("Fail send to {}, error info: {}", ctx.channel().remoteAddress(),
-              e.getMessage());
-        }
-      }
-    });
-    sendMsgThread.setName("sendMsgThread-" + ctx.channel().remoteAddress());
-    sendMsgThread.start();
+    scheduleDrain();
+  }
+
+  /**
+   * called when the channel can take writes again.
+   */
+  public void channelWritable() {
+    scheduleDrain();
   }
 
   public void setChannel(Channel channel) {
@@ -94,6 +94,13 @@ public class MessageQueue {
       }
       sendPing = now;
     }
+    int priority = priority(msg);
+    if (msg.getAnswerMessage() == null && priority == msgQueues.size() - 1
+        && queuedBytes.get() > MAX_QUEUED_BYTES) {
+      logger.debug("Drop {} to {}, {} bytes queued", msg.getType(),
+          ctx.channel().remoteAddress(), queuedBytes.get());
+      return false;
+    }
     if (needToLog(msg)) {
       logger.info("Send to {}, {} ", ctx.channel().remoteAddress(), msg);
     }
@@ -102,7 +109,9 @@ public class MessageQueue {
     if (msg.getAnswerMessage() != null) {
       requestQueue.add(new MessageRoundtrip(msg));
     } else {
-      msgQueue.offer(msg);
+      queuedBytes.addAndGet(sizeOf(msg));
+      msgQueues.get(priority).offer(msg);
+      scheduleDrain();
     }
     return true;
   }
@@ -128,14 +137,6 @@ public class MessageQueue {
       sendTask.cancel(false);
       sendTask = null;
     }
-    if (sendMsgThread != null) {
-      try {
-        sendMsgThread.join(20);
-        sendMsgThread = null;
-      } catch (Exception e) {
-        logger.warn("Join send thread failed, peer {}", ctx.channel().remoteAddress());
-      }
-    }
   }
 
   private boolean needToLog(Message msg) {
@@ -153,6 +154,66 @@ public class MessageQueue {
     return true;
   }
 
+  private static int priority(Message msg) {
+    if (msg instanceof TransactionMessage || msg instanceof TransactionsMessage) {
+      return 1;
+    }
+    if (msg instanceof InventoryMessage
+        && ((InventoryMessage) msg).getInventoryType().equals(InventoryType.UNW)) {
+      return 2;
+    }
+    return 0;
+  }
+
+  private static long sizeOf(Message msg) {
+    return msg.getData() == null ? 1 : msg.getData().length + 1;
+  }
+
+  private void scheduleDrain() {
+    if (ctx != null && sendMsgFlag && drainScheduled.compareAndSet(false, true)) {
+      ctx.executor().execute(this::drain);
+    }
+  }
+
+  /**
+   * runs on the channel's event loop: writes what the channel takes, highest priority first, and
+   * flushes once for all of it. The rest waits for {@link #channelWritable()}.
+   */
+  private void drain() {
+    drainScheduled.set(false);
+    boolean written = false;
+    try {
+      Message msg;
+      while (sendMsgFlag && ctx.channel().isWritable() && (msg = poll()) != null) {
+        queuedBytes.addAndGet(-sizeOf(msg));
+        Message sent = msg;
+        ctx.write(msg.getSendData()).addListener((ChannelFutureListener) future -> {
+          if (!future.isSuccess() && !channel.isDisconnect()) {
+            logger.error("Fail send to {}, {}", ctx.channel().remoteAddress(), sent);
+          }
+        });
+        written = true;
+      }
+    } catch (Exception e) {
+      logger.error("Fail send to {}, error info: {}", ctx.channel().remoteAddress(),
+          e.getMessage());
+    } finally {
+      if (written) {
+        ctx.flush();
+      }
+    }
+  }
+
+  private Message poll() {
+    for (Queue<Message> queue : msgQueues) {
+      Message msg = queue.poll();
+      if (msg != null) {
+        return msg;
+      }
+    }
+    return null;
+  }
+
   private void send() {
     MessageRoundtrip rt = requestQueue.peek();
     if (!sendMsgFlag || rt == null) {
@@ -83,6 +83,14 @@ public class P2pHandler extends SimpleChannelInboundHandler<P2pMessage> {
     }
   }
 
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    if (ctx.channel().isWritable()) {
+      msgQueue.channelWritable();
+    }
+    super.channelWritabilityChanged(ctx);
+  }
+
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
     channel.processException(cause);
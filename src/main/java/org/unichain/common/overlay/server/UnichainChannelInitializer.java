@@ -1,5 +1,6 @@
 package org.unichain.common.overlay.server;
 
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
@@ -42,6 +43,8 @@ public class UnichainChannelInitializer extends ChannelInitializer<NioSocketChan
       ch.config().setRecvByteBufAllocator(new FixedRecvByteBufAllocator(256 * 1024));
       ch.config().setOption(ChannelOption.SO_RCVBUF, 256 * 1024);
       ch.config().setOption(ChannelOption.SO_BACKLOG, 1024);
+      // frames are sliced out of pooled buffers, message bodies are the only copies made
+      ch.config().setAllocator(PooledByteBufAllocator.DEFAULT);
 
       // be aware of channel closing
       ch.closeFuture().addListener((ChannelFutureListener) future -> {
@@ -281,15 +281,10 @@ public class DataWord implements Comparable<DataWord> {
     this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
   }
 
-  // TODO: mul can be done in more efficient way
-  // TODO:     with shift left shift right trick
-  // TODO      without BigInteger quick hack
   public void mul(DataWord word) {
-    BigInteger result = value().multiply(word.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    this.data = UInt256.toBytes(UInt256.mul(UInt256.of(data), UInt256.of(word.data)));
   }
 
-  // TODO: improve with no BigInteger
   public void div(DataWord word) {
 
     if (word.isZero()) {
@@ -297,11 +292,17 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
+    long[] a = UInt256.of(data);
+    long[] b = UInt256.of(word.data);
+    if (UInt256.fitsLong(a) && UInt256.fitsLong(b)) {
+      this.data = UInt256.toBytes(UInt256.ofLong(Long.divideUnsigned(a[3], b[3])));
+      return;
+    }
+
     BigInteger result = value().divide(word.value());
     this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
   }
 
-  // TODO: improve with no BigInteger
   public void sDiv(DataWord word) {
 
     if (word.isZero()) {
@@ -309,23 +310,27 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
+    long[] a = UInt256.of(data);
+    long[] b = UInt256.of(word.data);
+    // MIN_VALUE / -1 does not fit a long
+    if (isSignedLong(data, a) && isSignedLong(word.data, b)
+        && !(a[3] == Long.MIN_VALUE && b[3] == -1)) {
+      this.data = UInt256.toBytes(UInt256.ofSignedLong(a[3] / b[3]));
+      return;
+    }
+
     BigInteger result = sValue().divide(word.sValue());
     this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
   }
 
-  // TODO: improve with no BigInteger
   public void sub(DataWord word) {
-    BigInteger result = value().subtract(word.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    this.data = UInt256.toBytes(UInt256.sub(UInt256.of(data), UInt256.of(word.data)));
   }
 
-  // TODO: improve with no BigInteger
   public void exp(DataWord word) {
-    BigInteger result = value().modPow(word.value(), _2_256);
-    this.data = ByteUtil.copyToArray(result);
+    this.data = UInt256.toBytes(UInt256.exp(UInt256.of(data), UInt256.of(word.data)));
   }
 
-  // TODO: improve with no BigInteger
   public void mod(DataWord word) {
 
     if (word.isZero()) {
@@ -333,6 +338,13 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
+    long[] a = UInt256.of(data);
+    long[] b = UInt256.of(word.data);
+    if (UInt256.fitsLong(a) && UInt256.fitsLong(b)) {
+      this.data = UInt256.toBytes(UInt256.ofLong(Long.remainderUnsigned(a[3], b[3])));
+      return;
+    }
+
     BigInteger result = value().mod(word.value());
     this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
   }
@@ -344,6 +356,14 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
+    long[] a = UInt256.of(data);
+    long[] b = UInt256.of(word.data);
+    // the remainder takes the sign of the dividend, as java's
+    if (isSignedLong(data, a) && isSignedLong(word.data, b)) {
+      this.data = UInt256.toBytes(UInt256.ofSignedLong(a[3] % b[3]));
+      return;
+    }
+
     BigInteger result = sValue().abs().mod(word.sValue().abs());
     result = (sValue().signum() == -1) ? result.negate() : result;
 
@@ -371,6 +391,11 @@ public class DataWord implements Comparable<DataWord> {
     this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
   }
 
+  // an empty word has no sign bit, sValue() of it throws and so must the signed ops
+  private static boolean isSignedLong(byte[] bytes, long[] limbs) {
+    return bytes.length == WORD_SIZE && UInt256.fitsSignedLong(limbs);
+  }
+
   @JsonValue
   @Override
   public String toString() {
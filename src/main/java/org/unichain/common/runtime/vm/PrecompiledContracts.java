@@ -763,9 +763,9 @@ public class PrecompiledContracts {
       byte[] res = new byte[WORD_SIZE];
       if (isConstantCall()) {
         //for static call not use thread pool to avoid potential effect
+        byte[][] recovered = recoverAddrsBySign(signatures, hash);
         for (int i = 0; i < cnt; i++) {
-          if (DataWord
-              .equalAddressByteArray(addresses[i], recoverAddrBySign(signatures[i], hash))) {
+          if (DataWord.equalAddressByteArray(addresses[i], recovered[i])) {
             res[i] = 1;
           }
         }
@@ -827,6 +827,49 @@ public class PrecompiledContracts {
     return out;
   }
 
+  /**
+   * {@link #recoverAddrBySign} for many signatures of one hash, recovered as one batch.
+   */
+  private static byte[][] recoverAddrsBySign(byte[][] signs, byte[] hash) {
+    int cnt = signs.length;
+    byte[][] out = new byte[cnt][];
+    List<Integer> indexes = new ArrayList<>(cnt);
+    List<ECKey.ECDSASignature> signatures = new ArrayList<>(cnt);
+    for (int i = 0; i < cnt; i++) {
+      byte[] sign = signs[i];
+      if (ArrayUtils.isEmpty(sign) || sign.length < 65) {
+        out[i] = new byte[0];
+        continue;
+      }
+      byte v = sign[64];
+      if (v < 27) {
+        v += 27;
+      }
+      ECKey.ECDSASignature signature = ECKey.ECDSASignature.fromComponents(
+          Arrays.copyOfRange(sign, 0, 32), Arrays.copyOfRange(sign, 32, 64), v);
+      if (signature.validateComponents()) {
+        indexes.add(i);
+        signatures.add(signature);
+      }
+    }
+    if (signatures.isEmpty()) {
+      return out;
+    }
+
+    byte[][] hashes = new byte[signatures.size()][];
+    Arrays.fill(hashes, hash);
+    try {
+      byte[][] recovered = ECKey.signaturesToAddresses(hashes,
+          signatures.toArray(new ECKey.ECDSASignature[0]));
+      for (int i = 0; i < recovered.length; i++) {
+        out[indexes.get(i)] = recovered[i];
+      }
+    } catch (Throwable any) {
+      logger.info("ECRecover error", any.getMessage());
+    }
+    return out;
+  }
+
   private static byte[][] extractBytes32Array(DataWord[] words, int offset) {
     int len = words[offset].intValueSafe();
     byte[][] bytes32Array = new byte[len][];
@@ -0,0 +1,150 @@
+package org.unichain.common.runtime.vm;
+
+/**
+ * Unsigned 256-bit arithmetic on four longs, most significant first like the bytes of a
+ * DataWord. Results wrap around 2^256 the same way the BigInteger paths masked them.
+ */
+final class UInt256 {
+
+  static final int LIMBS = 4;
+
+  private static final long LOW_MASK = 0xFFFFFFFFL;
+
+  private UInt256() {
+  }
+
+  /**
+   * big-endian bytes, right aligned when shorter than a word.
+   */
+  static long[] of(byte[] data) {
+    long[] r = new long[LIMBS];
+    int end = data.length;
+    for (int limb = LIMBS - 1; limb >= 0 && end > 0; limb--) {
+      long v = 0;
+      int start = Math.max(0, end - 8);
+      for (int i = start; i < end; i++) {
+        v = (v << 8) | (data[i] & 0xFF);
+      }
+      r[limb] = v;
+      end = start;
+    }
+    return r;
+  }
+
+  static byte[] toBytes(long[] a) {
+    byte[] r = new byte[DataWord.WORD_SIZE];
+    for (int limb = 0; limb < LIMBS; limb++) {
+      long v = a[limb];
+      for (int i = 7; i >= 0; i--) {
+        r[limb * 8 + i] = (byte) v;
+        v >>>= 8;
+      }
+    }
+    return r;
+  }
+
+  static boolean isZero(long[] a) {
+    return (a[0] | a[1] | a[2] | a[3]) == 0;
+  }
+
+  /**
+   * @return true if the value fits in 64 unsigned bits
+   */
+  static boolean fitsLong(long[] a) {
+    return (a[0] | a[1] | a[2]) == 0;
+  }
+
+  /**
+   * @return true if the two's complement value fits in a signed long
+   */
+  static boolean fitsSignedLong(long[] a) {
+    long ext = a[3] >> 63;
+    return a[0] == ext && a[1] == ext && a[2] == ext;
+  }
+
+  static long[] ofLong(long v) {
+    return new long[]{0, 0, 0, v};
+  }
+
+  static long[] ofSignedLong(long v) {
+    long ext = v >> 63;
+    return new long[]{ext, ext, ext, v};
+  }
+
+  static long[] sub(long[] a, long[] b) {
+    long[] r = new long[LIMBS];
+    long borrow = 0;
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      long d = a[i] - b[i] - borrow;
+      // borrow out when a < b + borrow, unsigned
+      borrow = (Long.compareUnsigned(a[i], b[i]) < 0
+          || (borrow != 0 && a[i] == b[i])) ? 1 : 0;
+      r[i] = d;
+    }
+    return r;
+  }
+
+  /**
+   * low 256 bits of a * b.
+   */
+  static long[] mul(long[] a, long[] b) {
+    long[] r = new long[LIMBS];
+    // i and j count limbs from the least significant one
+    for (int i = 0; i < LIMBS; i++) {
+      long x = a[LIMBS - 1 - i];
+      if (x == 0) {
+        continue;
+      }
+      long carry = 0;
+      for (int j = 0; i + j < LIMBS; j++) {
+        long y = b[LIMBS - 1 - j];
+        int k = LIMBS - 1 - (i + j);
+        long lo = x * y;
+        long hi = multiplyHigh(x, y);
+        long s = r[k] + lo;
+        if (Long.compareUnsigned(s, lo) < 0) {
+          hi++;
+        }
+        long t = s + carry;
+        if (Long.compareUnsigned(t, carry) < 0) {
+          hi++;
+        }
+        r[k] = t;
+        carry = hi;
+      }
+    }
+    return r;
+  }
+
+  /**
+   * base ^ exponent mod 2^256, by squaring from the most significant exponent bit.
+   */
+  static long[] exp(long[] base, long[] exponent) {
+    long[] r = ofLong(1);
+    boolean started = false;
+    for (int limb = 0; limb < LIMBS; limb++) {
+      for (int bit = 63; bit >= 0; bit--) {
+        if (started) {
+          r = mul(r, r);
+        }
+        if (((exponent[limb] >>> bit) & 1) != 0) {
+          r = started ? mul(r, base) : base.clone();
+          started = true;
+        }
+      }
+    }
+    return r;
+  }
+
+  // high 64 bits of the unsigned 128-bit product
+  private static long multiplyHigh(long x, long y) {
+    long x0 = x & LOW_MASK;
+    long x1 = x >>> 32;
+    long y0 = y & LOW_MASK;
+    long y1 = y >>> 32;
+    long w0 = x0 * y0;
+    long t = x1 * y0 + (w0 >>> 32);
+    long w1 = (t & LOW_MASK) + x0 * y1;
+    return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+  }
+}
@@ -15,7 +15,6 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.unichain.common.crypto.Hash.sha3;
 import static org.unichain.common.runtime.utils.MUtil.convertToUnichainAddress;
 import static org.unichain.common.runtime.vm.OpCode.*;
 import static org.unichain.common.utils.ByteUtil.EMPTY_BYTE_ARRAY;
@@ -671,10 +670,8 @@ public class VM {
         case SHA3: {
           DataWord memOffsetData = program.stackPop();
           DataWord lengthData = program.stackPop();
-          byte[] buffer = program
-              .memoryChunk(memOffsetData.intValueSafe(), lengthData.intValueSafe());
-
-          byte[] encoded = sha3(buffer);
+          byte[] encoded = program
+              .memorySha3(memOffsetData.intValueSafe(), lengthData.intValueSafe());
           DataWord word = new DataWord(encoded);
 
           if (logger.isDebugEnabled()) {
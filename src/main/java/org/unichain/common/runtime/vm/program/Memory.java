@@ -21,21 +21,27 @@ import org.unichain.common.runtime.vm.DataWord;
 import org.unichain.common.runtime.vm.program.listener.ProgramListener;
 import org.unichain.common.runtime.vm.program.listener.ProgramListenerAware;
 
+import org.unichain.common.crypto.Hash;
+
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
 import static java.lang.Math.ceil;
-import static java.lang.Math.min;
 import static java.lang.String.format;
 import static org.unichain.common.utils.ByteUtil.EMPTY_BYTE_ARRAY;
 import static org.unichain.common.utils.ByteUtil.oneByteToHexString;
 
+/**
+ * One contiguous array grown in whole chunks, so any address is a direct index and a range
+ * is a single copy.
+ */
 public class Memory implements ProgramListenerAware {
 
   private static final int CHUNK_SIZE = 1024;
   private static final int WORD_SIZE = 32;
 
-  private List<byte[]> chunks = new LinkedList<>();
+  private byte[] data = EMPTY_BYTE_ARRAY;
   private int softSize;
   private ProgramListener programListener;
 
@@ -50,27 +56,19 @@ public class Memory implements ProgramListenerAware {
     }
 
     extend(address, size);
-    byte[] data = new byte[size];
-
-    int chunkIndex = address / CHUNK_SIZE;
-    int chunkOffset = address % CHUNK_SIZE;
-
-    int toGrab = data.length;
-    int start = 0;
-
-    while (toGrab > 0) {
-      int copied = grabMax(chunkIndex, chunkOffset, toGrab, data, start);
-
-      // read next chunk from the start
-      ++chunkIndex;
-      chunkOffset = 0;
+    return Arrays.copyOfRange(data, address, address + size);
+  }
 
-      // mark remind
-      toGrab -= copied;
-      start += copied;
+  /**
+   * sha3 of a range, hashed where it lies instead of on a copy.
+   */
+  public byte[] sha3(int address, int size) {
+    if (size <= 0) {
+      return Hash.sha3(EMPTY_BYTE_ARRAY);
     }
 
-    return data;
+    extend(address, size);
+    return Hash.sha3(data, address, size);
   }
 
   public void write(int address, byte[] data, int dataSize, boolean limited) {
@@ -83,9 +81,6 @@ public class Memory implements ProgramListenerAware {
       extend(address, dataSize);
     }
 
-    int chunkIndex = address / CHUNK_SIZE;
-    int chunkOffset = address % CHUNK_SIZE;
-
     int toCapture = 0;
     if (limited) {
       toCapture = (address + dataSize > softSize) ? softSize - address : dataSize;
@@ -93,17 +88,8 @@ public class Memory implements ProgramListenerAware {
       toCapture = dataSize;
     }
 
-    int start = 0;
-    while (toCapture > 0) {
-      int captured = captureMax(chunkIndex, chunkOffset, toCapture, data, start);
-
-      // capture next chunk
-      ++chunkIndex;
-      chunkOffset = 0;
-
-      // mark remind
-      toCapture -= captured;
-      start += captured;
+    if (toCapture > 0) {
+      System.arraycopy(data, 0, this.data, address, toCapture);
     }
 
     if (programListener != null) {
@@ -146,12 +132,7 @@ public class Memory implements ProgramListenerAware {
   // just access expecting all data valid
   public byte readByte(int address) {
 
-    int chunkIndex = address / CHUNK_SIZE;
-    int chunkOffset = address % CHUNK_SIZE;
-
-    byte[] chunk = chunks.get(chunkIndex);
-
-    return chunk[chunkOffset];
+    return data[address];
   }
 
   @Override
@@ -192,35 +173,22 @@ public class Memory implements ProgramListenerAware {
   }
 
   public int internalSize() {
-    return chunks.size() * CHUNK_SIZE;
+    return data.length;
   }
 
   public List<byte[]> getChunks() {
-    return new LinkedList<>(chunks);
-  }
-
-  private int captureMax(int chunkIndex, int chunkOffset, int size, byte[] src, int srcPos) {
-
-    byte[] chunk = chunks.get(chunkIndex);
-    int toCapture = min(size, chunk.length - chunkOffset);
-
-    System.arraycopy(src, srcPos, chunk, chunkOffset, toCapture);
-    return toCapture;
-  }
-
-  private int grabMax(int chunkIndex, int chunkOffset, int size, byte[] dest, int destPos) {
-
-    byte[] chunk = chunks.get(chunkIndex);
-    int toGrab = min(size, chunk.length - chunkOffset);
-
-    System.arraycopy(chunk, chunkOffset, dest, destPos, toGrab);
-
-    return toGrab;
+    List<byte[]> chunks = new LinkedList<>();
+    for (int i = 0; i < data.length; i += CHUNK_SIZE) {
+      chunks.add(Arrays.copyOfRange(data, i, i + CHUNK_SIZE));
+    }
+    return chunks;
   }
 
+  // grows by at least half the current size, so repeated expansion copies O(n) bytes in total
   private void addChunks(int num) {
-    for (int i = 0; i < num; ++i) {
-      chunks.add(new byte[CHUNK_SIZE]);
-    }
+    long needed = (long) data.length + (long) num * CHUNK_SIZE;
+    long grown = (long) data.length + data.length / CHUNK_SIZE / 2 * CHUNK_SIZE;
+    long capacity = Math.max(needed, Math.min(grown, Integer.MAX_VALUE));
+    data = Arrays.copyOf(data, Math.toIntExact(capacity));
   }
 }
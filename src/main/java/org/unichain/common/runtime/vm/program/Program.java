@@ -109,6 +109,8 @@ public class Program {
   private boolean stopped;
 
   private ProgramPrecompile programPrecompile;
+  // sha3 of ops when they are deployed code, keys the shared jump dest analysis
+  private byte[] codeHash;
 
   private final VMConfig config;
 
@@ -154,11 +156,15 @@ public class Program {
 
   public ProgramPrecompile getProgramPrecompile() {
     if (programPrecompile == null) {
-      programPrecompile = ProgramPrecompile.compile(ops);
+      programPrecompile = ProgramPrecompile.compile(codeHash, ops);
     }
     return programPrecompile;
   }
 
+  public void setCodeHash(byte[] codeHash) {
+    this.codeHash = codeHash;
+  }
+
   public int getCallDeep() {
     return invoke.getCallDeep();
   }
@@ -362,6 +368,10 @@ public class Program {
     return memory.read(offset, size);
   }
 
+  public byte[] memorySha3(int offset, int size) {
+    return memory.sha3(offset, size);
+  }
+
   /**
    * . Allocates extra memory in the program for a specified size, calculated from a given offset
    *
@@ -675,6 +685,8 @@ public class Program {
 
     byte[] programCode =
         accountCapsule != null ? getContractState().getCode(codeAddress) : EMPTY_BYTE_ARRAY;
+    ContractCapsule codeContract =
+        isNotEmpty(programCode) ? getContractState().getContract(codeAddress) : null;
 
     // only for unw, not for token
     long contextBalance = 0L;
@@ -738,6 +750,9 @@ public class Program {
       VM vm = new VM(config);
       Program program = new Program(programCode, programInvoke, internalTx, config,
           this.blockCap);
+      if (codeContract != null) {
+        program.setCodeHash(codeContract.getCodeHash());
+      }
       program.setRootTransactionId(this.rootTransactionId);
       vm.play(program);
       callResult = program.getResult();
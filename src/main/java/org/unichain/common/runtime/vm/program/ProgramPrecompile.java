@@ -17,13 +17,18 @@
  */
 package org.unichain.common.runtime.vm.program;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import lombok.extern.slf4j.Slf4j;
 import org.unichain.common.runtime.config.VMConfig;
 import org.unichain.common.runtime.vm.DataWord;
 import org.unichain.common.runtime.vm.OpCode;
+import org.unichain.common.utils.ByteUtil;
+import org.unichain.core.db.ByteArrayWrapper;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.BitSet;
+import java.util.concurrent.ExecutionException;
 
 
 @Slf4j(topic = "VM")
@@ -32,10 +37,37 @@ import java.util.Set;
  */
 public class ProgramPrecompile {
 
-  private Set<Integer> jumpdest = new HashSet<>();
+  // bytes of deployed code whose analysis is kept, weighed by code length
+  private static final long MAX_CACHED_CODE = 64L * 1024 * 1024;
+
+  // deployed code never changes under its hash, so its analysis is shared by every call
+  private static final Cache<ByteArrayWrapper, ProgramPrecompile> cache = CacheBuilder.newBuilder()
+      .maximumWeight(MAX_CACHED_CODE)
+      .weigher((ByteArrayWrapper k, ProgramPrecompile v) -> v.codeLength)
+      .build();
+
+  private final BitSet jumpdest = new BitSet();
+  private int codeLength;
+
+  /**
+   * @param codeHash sha3 of ops as kept on the contract, null or empty when not known
+   */
+  public static ProgramPrecompile compile(byte[] codeHash, byte[] ops) {
+    if (ByteUtil.isNullOrZeroArray(codeHash)) {
+      return compile(ops);
+    }
+
+    try {
+      return cache.get(new ByteArrayWrapper(codeHash), () -> compile(ops));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      logger.warn("jump dest analysis cache error", e);
+      return compile(ops);
+    }
+  }
 
   public static ProgramPrecompile compile(byte[] ops) {
     ProgramPrecompile ret = new ProgramPrecompile();
+    ret.codeLength = ops.length;
     for (int i = 0; i < ops.length; ++i) {
 
       OpCode op = OpCode.code(ops[i]);
@@ -44,8 +76,8 @@ public class ProgramPrecompile {
       }
 
       if (op.equals(OpCode.JUMPDEST)) {
-        logger.debug("JUMPDEST:" + i);
-        ret.jumpdest.add(i);
+        logger.debug("JUMPDEST:{}", i);
+        ret.jumpdest.set(i);
       }
 
       if (op.asInt() >= OpCode.PUSH1.asInt() && op.asInt() <= OpCode.PUSH32.asInt()) {
@@ -89,6 +121,6 @@ public class ProgramPrecompile {
   }
 
   public boolean hasJumpDest(int pc) {
-    return jumpdest.contains(pc);
+    return pc >= 0 && jumpdest.get(pc);
   }
 }
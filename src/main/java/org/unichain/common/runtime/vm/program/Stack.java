@@ -21,33 +21,74 @@ import org.unichain.common.runtime.vm.DataWord;
 import org.unichain.common.runtime.vm.program.listener.ProgramListener;
 import org.unichain.common.runtime.vm.program.listener.ProgramListenerAware;
 
+import java.util.Arrays;
+import java.util.EmptyStackException;
 import java.util.Objects;
 
-public class Stack extends java.util.Stack<DataWord> implements ProgramListenerAware {
+/**
+ * Operand stack of one program. Only its own thread touches it, so it is a plain array
+ * sized for the 1024 items limit that Program checks before every push.
+ */
+public class Stack implements ProgramListenerAware {
+
+  private static final int CAPACITY = 1024;
 
-  private static final long serialVersionUID = 1;
+  private DataWord[] items = new DataWord[CAPACITY];
+  private int size = 0;
 
-  private transient ProgramListener programListener;
+  private ProgramListener programListener;
 
   @Override
   public void setProgramListener(ProgramListener listener) {
     this.programListener = listener;
   }
 
-  @Override
-  public synchronized DataWord pop() {
+  public DataWord pop() {
     if (programListener != null) {
       programListener.onStackPop();
     }
-    return super.pop();
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    DataWord item = items[--size];
+    items[size] = null;
+    return item;
   }
 
-  @Override
   public DataWord push(DataWord item) {
     if (programListener != null) {
       programListener.onStackPush(item);
     }
-    return super.push(item);
+    if (size == items.length) {
+      items = Arrays.copyOf(items, size * 2);
+    }
+    items[size++] = item;
+    return item;
+  }
+
+  public DataWord peek() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    return items[size - 1];
+  }
+
+  /**
+   * @param index from the bottom of the stack, as in java.util.Stack
+   */
+  public DataWord get(int index) {
+    if (index < 0 || index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return items[index];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
   }
 
   public void swap(int from, int to) {
@@ -55,8 +96,9 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
       if (programListener != null) {
         programListener.onStackSwap(from, to);
       }
-      DataWord tmp = get(from);
-      set(from, set(to, tmp));
+      DataWord tmp = items[from];
+      items[from] = items[to];
+      items[to] = tmp;
     }
   }
 
@@ -75,16 +117,25 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
     if (o.getClass() != this.getClass()) {
       return false;
     }
-    if (!super.equals(o)) {
+    Stack dataWords = (Stack) o;
+    if (size != dataWords.size) {
       return false;
     }
-    Stack dataWords = (Stack) o;
+    for (int i = 0; i < size; i++) {
+      if (!Objects.equals(items[i], dataWords.items[i])) {
+        return false;
+      }
+    }
     return Objects.equals(programListener, dataWords.programListener);
   }
 
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), programListener);
+    int hash = 1;
+    for (int i = 0; i < size; i++) {
+      hash = 31 * hash + Objects.hashCode(items[i]);
+    }
+    return Objects.hash(hash, programListener);
   }
 }
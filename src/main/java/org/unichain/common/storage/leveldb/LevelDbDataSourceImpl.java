@@ -17,6 +17,7 @@ package org.unichain.common.storage.leveldb;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.UnsignedBytes;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -355,6 +356,32 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
   }
 
+  /**
+   * entries with key in [from, to), in key order.
+   */
+  public Map<byte[], byte[]> getRange(byte[] from, byte[] to, long limit) {
+    if (limit <= 0) {
+      return Collections.emptyMap();
+    }
+    resetDbLock.readLock().lock();
+    try (DBIterator iterator = database.iterator()) {
+      Map<byte[], byte[]> result = new LinkedHashMap<>();
+      long i = 0;
+      for (iterator.seek(from); iterator.hasNext() && i++ < limit; iterator.next()) {
+        Entry<byte[], byte[]> entry = iterator.peekNext();
+        if (UnsignedBytes.lexicographicalComparator().compare(entry.getKey(), to) >= 0) {
+          break;
+        }
+        result.put(entry.getKey(), entry.getValue());
+      }
+      return result;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
   public Set<byte[]> getValuesPrev(byte[] key, long limit) {
     if (limit <= 0) {
       return Sets.newHashSet();
@@ -2,6 +2,7 @@ package org.unichain.common.storage.leveldb;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.UnsignedBytes;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -411,6 +412,32 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
   }
 
+  /**
+   * entries with key in [from, to), in key order.
+   */
+  public Map<byte[], byte[]> getRange(byte[] from, byte[] to, long limit) {
+    if (quitIfNotAlive()) {
+      return Collections.emptyMap();
+    }
+    if (limit <= 0) {
+      return Collections.emptyMap();
+    }
+    resetDbLock.readLock().lock();
+    try (RocksIterator iter = database.newIterator()) {
+      Map<byte[], byte[]> result = new LinkedHashMap<>();
+      long i = 0;
+      for (iter.seek(from); iter.isValid() && i < limit; iter.next(), i++) {
+        if (UnsignedBytes.lexicographicalComparator().compare(iter.key(), to) >= 0) {
+          break;
+        }
+        result.put(iter.key(), iter.value());
+      }
+      return result;
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
   public Set<byte[]> getlatestValues(long limit) {
     if (quitIfNotAlive()) {
       return null;
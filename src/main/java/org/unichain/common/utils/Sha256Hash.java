@@ -151,6 +151,16 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
     return wrap(hashTwice(contents));
   }
 
+  // one digest per thread for the static helpers, newDigest() still hands out fresh instances
+  private static final ThreadLocal<MessageDigest> SHA_256 =
+      ThreadLocal.withInitial(Sha256Hash::newDigest);
+
+  private static MessageDigest digest() {
+    MessageDigest digest = SHA_256.get();
+    digest.reset();
+    return digest;
+  }
+
   /**
    * Returns a new SHA-256 MessageDigest instance. This is a convenience method which wraps the
    * checked exception that can never occur with a RuntimeException.
@@ -184,11 +194,21 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    * @return the hash (in big-endian order)
    */
   public static byte[] hash(byte[] input, int offset, int length) {
-    MessageDigest digest = newDigest();
+    MessageDigest digest = digest();
     digest.update(input, offset, length);
     return digest.digest();
   }
 
+  /**
+   * Calculates the SHA-256 hash of the two byte arrays concatenated.
+   */
+  public static byte[] hash(byte[] input1, byte[] input2) {
+    MessageDigest digest = digest();
+    digest.update(input1);
+    digest.update(input2);
+    return digest.digest();
+  }
+
   /**
    * Calculates the SHA-256 hash of the given bytes, and then hashes the resulting hash again.
    *
@@ -208,7 +228,7 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    * @return the double-hash (in big-endian order)
    */
   public static byte[] hashTwice(byte[] input, int offset, int length) {
-    MessageDigest digest = newDigest();
+    MessageDigest digest = digest();
     digest.update(input, offset, length);
     return digest.digest(digest.digest());
   }
@@ -219,7 +239,7 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    */
   public static byte[] hashTwice(byte[] input1, int offset1, int length1,
       byte[] input2, int offset2, int length2) {
-    MessageDigest digest = newDigest();
+    MessageDigest digest = digest();
     digest.update(input1, offset1, length1);
     digest.update(input2, offset2, length2);
     return digest.digest(digest.digest());
@@ -869,6 +869,11 @@ public class Wallet {
         .setValue(dbManager.getDynamicPropertiesStore().getWitness55PayPerBlock())
         .build());
 
+    builder.addChainParameter(Protocol.ChainParameters.ChainParameter.newBuilder()
+        .setKey("getAllowNewRewardAlgorithm")
+        .setValue(dbManager.getDynamicPropertiesStore().allowNewRewardAlgorithm() ? 1 : 0)
+        .build());
+
     return builder.build();
   }
 
@@ -900,12 +905,11 @@ public class Wallet {
       return null;
     }
 
-    List<AssetIssueCapsule> assetIssueCapsuleList = dbManager.getAssetIssueStoreFinal().getAllAssetIssues();
+    List<AssetIssueCapsule> assetIssueCapsuleList = dbManager.getAssetIssueStoreFinal()
+        .getAssetIssuesByOwner(accountAddress);
 
     AssetIssueList.Builder builder = AssetIssueList.newBuilder();
-    assetIssueCapsuleList.stream()
-        .filter(assetIssueCapsule -> assetIssueCapsule.getOwnerAddress().equals(accountAddress))
-        .forEach(issueCapsule -> builder.addAssetIssue(issueCapsule.getInstance()));
+    assetIssueCapsuleList.forEach(issueCapsule -> builder.addAssetIssue(issueCapsule.getInstance()));
     return builder.build();
   }
 
@@ -1026,13 +1030,10 @@ public class Wallet {
       return assetIssueCapsule != null ? assetIssueCapsule.getInstance() : null;
     } else {
       // get asset issue by name from new DB
-      List<AssetIssueCapsule> assetIssueCapsuleList = dbManager.getAssetIssueV2Store().getAllAssetIssues();
+      List<AssetIssueCapsule> assetIssueCapsuleList = dbManager.getAssetIssueV2Store().getAssetIssuesByName(assetName);
       AssetIssueList.Builder builder = AssetIssueList.newBuilder();
-      assetIssueCapsuleList
-          .stream()
-          .filter(assetIssueCapsule -> assetIssueCapsule.getName().equals(assetName))
-          .forEach(
-              issueCapsule -> builder.addAssetIssue(issueCapsule.getInstance()));
+      assetIssueCapsuleList.forEach(
+          issueCapsule -> builder.addAssetIssue(issueCapsule.getInstance()));
 
       // check count
       if (builder.getAssetIssueCount() > 1) {
@@ -1068,12 +1069,11 @@ public class Wallet {
       return null;
     }
 
-    List<AssetIssueCapsule> assetIssueCapsuleList = dbManager.getAssetIssueStoreFinal().getAllAssetIssues();
+    List<AssetIssueCapsule> assetIssueCapsuleList = dbManager.getAssetIssueStoreFinal()
+        .getAssetIssuesByName(assetName);
 
     AssetIssueList.Builder builder = AssetIssueList.newBuilder();
-    assetIssueCapsuleList.stream()
-        .filter(assetIssueCapsule -> assetIssueCapsule.getName().equals(assetName))
-        .forEach(issueCapsule -> builder.addAssetIssue(issueCapsule.getInstance()));
+    assetIssueCapsuleList.forEach(issueCapsule -> builder.addAssetIssue(issueCapsule.getInstance()));
 
     return builder.build();
   }
@@ -1495,20 +1495,12 @@ public class Wallet {
       if(end >= summary.getTotalDeal())
         end = summary.getTotalDeal();
 
-      //load sublist from [start -> end)
+      //load sublist from [start -> end), pages follow the expire day, not the order deals were added
       var tokenStore = dbManager.getFutureTokenStore();
-      var tmpTickKeyBs = summary.getLowerTick();
-      int index = 0;
-      while (true){
-        var tmpTick = tokenStore.get(tmpTickKeyBs.toByteArray());
-        if(index >= start && index < end)
-        {
-          deals.add(tmpTick.getInstance());
-        }
-        if(index >= end)
-          break;
-        tmpTickKeyBs = tmpTick.getNextTick();
-        index ++;
+      var tickKeys = dbManager.getFutureTokenIndexStore().getTickKeys(query.getOwnerAddress().toByteArray(),
+              stringAsBytesUppercase(query.getTokenName()), start, end - start);
+      for (var tickKey : tickKeys) {
+        deals.add(tokenStore.get(tickKey).getInstance());
       }
     }
 
@@ -1573,19 +1565,11 @@ public class Wallet {
       if(end >= summary.getTotalDeal())
         end = (int)summary.getTotalDeal();
 
+      //pages follow the expire day, not the order deals were added
       var futureStore = dbManager.getFutureTransferStore();
-      var tmpTickKeyBs = summary.getLowerTick();
-      int index = 0;
-      while (true){
-        var tmpTick = futureStore.get(tmpTickKeyBs.toByteArray());
-        if(index >= start && index < end)
-        {
-          deals.add(tmpTick.getInstance());
-        }
-        if(index >= end)
-          break;
-        tmpTickKeyBs = tmpTick.getNextTick();
-        index ++;
+      var tickKeys = dbManager.getFutureTransferIndexStore().getTickKeys(query.getOwnerAddress().toByteArray(), start, end - start);
+      for (var tickKey : tickKeys) {
+        deals.add(futureStore.get(tickKey).getInstance());
       }
     }
 
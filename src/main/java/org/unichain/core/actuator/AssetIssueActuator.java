@@ -69,10 +69,10 @@ public class AssetIssueActuator extends AbstractActuator {
 
       if (dbManager.getDynamicPropertiesStore().getAllowSameTokenName() == 0) {
         assetIssueCapsuleV2.setPrecision(0);
-        dbManager.getAssetIssueStore().put(assetIssueCapsule.createDbKey(), assetIssueCapsule);
-        dbManager.getAssetIssueV2Store().put(assetIssueCapsuleV2.createDbV2Key(), assetIssueCapsuleV2);
+        dbManager.getAssetIssueStore().create(assetIssueCapsule.createDbKey(), assetIssueCapsule);
+        dbManager.getAssetIssueV2Store().create(assetIssueCapsuleV2.createDbV2Key(), assetIssueCapsuleV2);
       } else {
-        dbManager.getAssetIssueV2Store().put(assetIssueCapsuleV2.createDbV2Key(), assetIssueCapsuleV2);
+        dbManager.getAssetIssueV2Store().create(assetIssueCapsuleV2.createDbV2Key(), assetIssueCapsuleV2);
       }
 
       chargeFee(ownerAddress, fee);
@@ -69,6 +69,7 @@ public class TokenCreateActuatorV3 extends AbstractActuator {
       capsule.setLatestOperationTime(dbManager.getHeadBlockTimeStamp());
       capsule.setOriginFeePool(ctx.getFeePool());
       dbManager.getTokenPoolStore().put(capsule.createDbKey(), capsule);
+      dbManager.getTokenNameIndexStore().add(capsule.createDbKey());
 
       var accountCapsule = dbManager.getAccountStore().get(ownerAddress);
       accountCapsule.addToken(capsule.createDbKey(), capsule.getTotalSupply());
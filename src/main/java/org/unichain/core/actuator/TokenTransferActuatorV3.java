@@ -226,6 +226,7 @@ public class TokenTransferActuatorV3 extends AbstractActuator {
               .clearPrevTick()
               .build();
       tokenStore.put(tickKey, new FutureTokenCapsule(tick));
+      dbManager.getFutureTokenIndexStore().put(toAddress, tokenKey, tickDay, tickKey);
 
       //save summary
       summary = Protocol.FutureTokenSummaryV2.newBuilder()
@@ -264,6 +265,7 @@ public class TokenTransferActuatorV3 extends AbstractActuator {
               .clearPrevTick()
               .build();
       tokenStore.put(tickKey, new FutureTokenCapsule(newHead));
+      dbManager.getFutureTokenIndexStore().put(toAddress, tokenKey, tickDay, tickKey);
 
       //save summary
       summary = summary.toBuilder()
@@ -291,6 +293,7 @@ public class TokenTransferActuatorV3 extends AbstractActuator {
               .setPrevTick(oldTailKeyBs)
               .build();
       tokenStore.put(tickKey, new FutureTokenCapsule(newTail));
+      dbManager.getFutureTokenIndexStore().put(toAddress, tokenKey, tickDay, tickKey);
 
       //save old tail
       var oldTail = tokenStore.get(oldTailKeyBs.toByteArray());
@@ -327,6 +330,7 @@ public class TokenTransferActuatorV3 extends AbstractActuator {
                 .setNextTick(oldNextTickKey)
                 .build();
         tokenStore.put(tickKey, new FutureTokenCapsule(newTick));
+        dbManager.getFutureTokenIndexStore().put(toAddress, tokenKey, tickDay, tickKey);
 
         //save prev tick
         searchTick.setNextTick(ByteString.copyFrom(tickKey));
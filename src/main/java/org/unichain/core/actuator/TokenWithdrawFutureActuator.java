@@ -139,6 +139,7 @@ public class TokenWithdrawFutureActuator extends AbstractActuator {
         withdrawDeal ++;
         //delete
         tokenStore.delete(tmpTickKeyBs.toByteArray());
+        dbManager.getFutureTokenIndexStore().delete(ownerAddress, tokenKey, tmpTick.getExpireTime());
         tmpTickKeyBs = tmpTick.getNextTick();
       }
       else
@@ -148,6 +148,7 @@ public class TokenWithdrawFutureActuatorV3 extends AbstractActuator {
           withdrawAmount += tmpTick.getBalance();
           withdrawDeal ++;
           tokenStore.delete(tmpTickKeyBs.toByteArray());
+          dbManager.getFutureTokenIndexStore().delete(ownerAddress, tokenKey, tmpTick.getExpireTime());
           tmpTickKeyBs = tmpTick.getNextTick();
           continue;
         }
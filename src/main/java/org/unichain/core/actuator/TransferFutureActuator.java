@@ -154,6 +154,7 @@ public class TransferFutureActuator extends AbstractActuator {
               .clearPrevTick()
               .build();
       futureStore.put(tickKey, new FutureTransferCapsule(tick));
+      dbManager.getFutureTransferIndexStore().put(toAddress, tickDay, tickKey);
 
       //save summary
       summary = Protocol.FutureSummary.newBuilder()
@@ -192,6 +193,7 @@ public class TransferFutureActuator extends AbstractActuator {
               .clearPrevTick()
               .build();
       futureStore.put(tickKey, new FutureTransferCapsule(newHead));
+      dbManager.getFutureTransferIndexStore().put(toAddress, tickDay, tickKey);
 
       //update summary
       summary = summary.toBuilder()
@@ -218,6 +220,7 @@ public class TransferFutureActuator extends AbstractActuator {
               .setPrevTick(oldTailKeyBs)
               .build();
       futureStore.put(tickKey, new FutureTransferCapsule(newTail));
+      dbManager.getFutureTransferIndexStore().put(toAddress, tickDay, tickKey);
 
       //update old tail
       var oldTail = futureStore.get(oldTailKeyBs.toByteArray());
@@ -256,6 +259,7 @@ public class TransferFutureActuator extends AbstractActuator {
                 .setNextTick(oldNextTickKey)
                 .build();
         futureStore.put(tickKey, new FutureTransferCapsule(newFuture));
+        dbManager.getFutureTransferIndexStore().put(toAddress, tickDay, tickKey);
 
         //update prev
 
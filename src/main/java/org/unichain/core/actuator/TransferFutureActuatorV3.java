@@ -156,6 +156,7 @@ public class TransferFutureActuatorV3 extends AbstractActuator {
               .clearPrevTick()
               .build();
       futureStore.put(tickKey, new FutureTransferCapsule(tick));
+      dbManager.getFutureTransferIndexStore().put(toAddress, tickDay, tickKey);
 
       //save summary
       summary = Protocol.FutureSummary.newBuilder()
@@ -194,6 +195,7 @@ public class TransferFutureActuatorV3 extends AbstractActuator {
               .clearPrevTick()
               .build();
       futureStore.put(tickKey, new FutureTransferCapsule(newHead));
+      dbManager.getFutureTransferIndexStore().put(toAddress, tickDay, tickKey);
 
       //save summary
       summary = summary.toBuilder()
@@ -220,6 +222,7 @@ public class TransferFutureActuatorV3 extends AbstractActuator {
               .setPrevTick(oldTailKeyBs)
               .build();
       futureStore.put(tickKey, new FutureTransferCapsule(newTail));
+      dbManager.getFutureTransferIndexStore().put(toAddress, tickDay, tickKey);
 
       //save old tail
       var oldTail = futureStore.get(oldTailKeyBs.toByteArray());
@@ -256,6 +259,7 @@ public class TransferFutureActuatorV3 extends AbstractActuator {
                 .setNextTick(oldNextTickKey)
                 .build();
         futureStore.put(tickKey, new FutureTransferCapsule(newTick));
+        dbManager.getFutureTransferIndexStore().put(toAddress, tickDay, tickKey);
 
         //save prev
         searchTick.setNextTick(ByteString.copyFrom(tickKey));
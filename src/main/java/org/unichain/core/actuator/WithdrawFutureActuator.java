@@ -122,6 +122,7 @@ public class WithdrawFutureActuator extends AbstractActuator {
                 withdrawAmount += tmpTick.getBalance();
                 withdrawDeal ++;
                 futureStore.delete(tmpTickKeyBs.toByteArray());
+                dbManager.getFutureTransferIndexStore().delete(ownerAddress, tmpTick.getExpireTime());
                 tmpTickKeyBs = tmpTick.getNextTick();
             }
             else
@@ -136,6 +136,7 @@ public class WithdrawFutureActuatorV3 extends AbstractActuator {
             withdrawAmount += tmpTick.getBalance();
             withdrawDeal ++;
             futureStore.delete(tmpTickKeyBs.toByteArray());
+            dbManager.getFutureTransferIndexStore().delete(ownerAddress, tmpTick.getExpireTime());
             tmpTickKeyBs = tmpTick.getNextTick();
             continue;
         }
@@ -26,7 +26,6 @@ import org.unichain.protos.Contract.AccountCreateContract;
 import org.unichain.protos.Contract.AccountUpdateContract;
 import org.unichain.protos.Protocol.*;
 import org.unichain.protos.Protocol.Account.AccountResource;
-import org.unichain.protos.Protocol.Account.Builder;
 import org.unichain.protos.Protocol.Account.Frozen;
 import org.unichain.protos.Protocol.Permission.PermissionType;
 
@@ -36,7 +35,13 @@ import java.util.Map;
 @Slf4j(topic = "capsule")
 public class AccountCapsule implements ProtoCapsule<Account>, Comparable<AccountCapsule> {
 
+  /**
+   * Mutators edit one live builder instead of copying the whole account, token and asset maps
+   * included, on every change. The built message and its encoding are made again on demand.
+   */
   private Account account;
+  private Account.Builder builder;
+  private byte[] data;
 
 
   @Override
@@ -168,28 +173,50 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public byte[] getData() {
-    return this.account.toByteArray();
+    if (data == null) {
+      data = getInstance().toByteArray();
+    }
+    return data.clone();
   }
 
   @Override
   public Account getInstance() {
-    return this.account;
+    if (account == null && builder != null) {
+      // the builder stays live, map fields copy themselves on the next write
+      account = builder.build();
+    }
+    return account;
+  }
+
+  private AccountOrBuilder current() {
+    return builder != null ? builder : account;
+  }
+
+  private Account.Builder builder() {
+    if (builder == null) {
+      builder = account.toBuilder();
+    }
+    account = null;
+    data = null;
+    return builder;
   }
 
   public void clearFutureToken(byte[] tokenKey){
-      this.account = this.account.toBuilder().removeTokenFuture(new String(tokenKey)).build();
+      builder().removeTokenFuture(new String(tokenKey));
   }
 
   public void clearFuture(){
-    this.account = this.account.toBuilder().clearFutureSupply().build();
+    builder().clearFutureSupply();
   }
 
   public void setInstance(Account account) {
     this.account = account;
+    this.builder = null;
+    this.data = null;
   }
 
   public ByteString getAddress() {
-    return this.account.getAddress();
+    return current().getAddress();
   }
 
   public byte[] createDbKey() {
@@ -201,15 +228,15 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public AccountType getType() {
-    return this.account.getType();
+    return current().getType();
   }
 
   public ByteString getAccountName() {
-    return this.account.getAccountName();
+    return current().getAccountName();
   }
 
   public ByteString getAccountId() {
-    return this.account.getAccountId();
+    return current().getAccountId();
   }
 
 
@@ -267,85 +294,82 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public void setDefaultWitnessPermission(Manager manager) {
-    Account.Builder builder = this.account.toBuilder();
+    Account.Builder builder = builder();
     Permission witness = createDefaultWitnessPermission(this.getAddress());
-    if (!this.account.hasOwnerPermission()) {
+    if (!current().hasOwnerPermission()) {
       Permission owner = createDefaultOwnerPermission(this.getAddress());
       builder.setOwnerPermission(owner);
     }
-    if (this.account.getActivePermissionCount() == 0) {
+    if (current().getActivePermissionCount() == 0) {
       Permission active = createDefaultActivePermission(this.getAddress(), manager);
       builder.addActivePermission(active);
     }
-    this.account = builder.setWitnessPermission(witness).build();
+    builder.setWitnessPermission(witness);
   }
 
   public byte[] getWitnessPermissionAddress() {
-    if (this.account.getWitnessPermission().getKeysCount() == 0) {
+    if (current().getWitnessPermission().getKeysCount() == 0) {
       return getAddress().toByteArray();
     } else {
-      return this.account.getWitnessPermission().getKeys(0).getAddress().toByteArray();
+      return current().getWitnessPermission().getKeys(0).getAddress().toByteArray();
     }
   }
 
   public long getBalance() {
-    return this.account.getBalance();
+    return current().getBalance();
   }
 
   public long getLatestOperationTime() {
-    return this.account.getLatestOprationTime();
+    return current().getLatestOprationTime();
   }
 
   public void setLatestOperationTime(long latest_time) {
-    this.account = this.account.toBuilder().setLatestOprationTime(latest_time).build();
+    builder().setLatestOprationTime(latest_time);
   }
 
   public long getLatestConsumeTime() {
-    return this.account.getLatestConsumeTime();
+    return current().getLatestConsumeTime();
   }
 
   public void setLatestConsumeTime(long latest_time) {
-    this.account = this.account.toBuilder().setLatestConsumeTime(latest_time).build();
+    builder().setLatestConsumeTime(latest_time);
   }
 
   public long getLatestConsumeFreeTime() {
-    return this.account.getLatestConsumeFreeTime();
+    return current().getLatestConsumeFreeTime();
   }
 
   public void setLatestConsumeFreeTime(long latest_time) {
-    this.account = this.account.toBuilder().setLatestConsumeFreeTime(latest_time).build();
+    builder().setLatestConsumeFreeTime(latest_time);
   }
 
   public void setBalance(long balance) {
-    this.account = this.account.toBuilder().setBalance(balance).build();
+    builder().setBalance(balance);
   }
 
   public void setFutureSummary(FutureSummary summary){
-    this.account = account.toBuilder()
-            .setFutureSupply(summary)
-            .build();
+    builder()
+            .setFutureSupply(summary);
   }
 
   public void addDelegatedFrozenBalanceForBandwidth(long balance) {
-    this.account = this.account.toBuilder().setDelegatedFrozenBalanceForBandwidth(
-        this.account.getDelegatedFrozenBalanceForBandwidth() + balance).build();
+    builder().setDelegatedFrozenBalanceForBandwidth(
+        current().getDelegatedFrozenBalanceForBandwidth() + balance);
   }
 
 
   public long getAcquiredDelegatedFrozenBalanceForBandwidth() {
-    return this.account.getAcquiredDelegatedFrozenBalanceForBandwidth();
+    return current().getAcquiredDelegatedFrozenBalanceForBandwidth();
   }
 
 
   public void setAcquiredDelegatedFrozenBalanceForBandwidth(long balance) {
-    this.account = this.account.toBuilder().setAcquiredDelegatedFrozenBalanceForBandwidth(balance)
-        .build();
+    builder().setAcquiredDelegatedFrozenBalanceForBandwidth(balance);
   }
 
   public void addAcquiredDelegatedFrozenBalanceForBandwidth(long balance) {
-    this.account = this.account.toBuilder().setAcquiredDelegatedFrozenBalanceForBandwidth(
-        this.account.getAcquiredDelegatedFrozenBalanceForBandwidth() + balance)
-        .build();
+    builder().setAcquiredDelegatedFrozenBalanceForBandwidth(
+        current().getAcquiredDelegatedFrozenBalanceForBandwidth() + balance);
   }
 
   public long getAcquiredDelegatedFrozenBalanceForEnergy() {
@@ -356,9 +380,8 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
     AccountResource newAccountResource = getAccountResource().toBuilder()
             .setAcquiredDelegatedFrozenBalanceForEnergy(balance).build();
 
-    this.account = this.account.toBuilder()
-            .setAccountResource(newAccountResource)
-            .build();
+    builder()
+            .setAccountResource(newAccountResource);
   }
 
   public long getDelegatedFrozenBalanceForEnergy() {
@@ -366,13 +389,12 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public long getDelegatedFrozenBalanceForBandwidth() {
-    return this.account.getDelegatedFrozenBalanceForBandwidth();
+    return current().getDelegatedFrozenBalanceForBandwidth();
   }
 
   public void setDelegatedFrozenBalanceForBandwidth(long balance) {
-    this.account = this.account.toBuilder()
-        .setDelegatedFrozenBalanceForBandwidth(balance)
-        .build();
+    builder()
+        .setDelegatedFrozenBalanceForBandwidth(balance);
   }
 
   public void addAcquiredDelegatedFrozenBalanceForEnergy(long balance) {
@@ -380,9 +402,8 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
         .setAcquiredDelegatedFrozenBalanceForEnergy(
             getAccountResource().getAcquiredDelegatedFrozenBalanceForEnergy() + balance).build();
 
-    this.account = this.account.toBuilder()
-        .setAccountResource(newAccountResource)
-        .build();
+    builder()
+        .setAccountResource(newAccountResource);
   }
 
   public void addDelegatedFrozenBalanceForEnergy(long balance) {
@@ -390,20 +411,19 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
         .setDelegatedFrozenBalanceForEnergy(
             getAccountResource().getDelegatedFrozenBalanceForEnergy() + balance).build();
 
-    this.account = this.account.toBuilder()
-        .setAccountResource(newAccountResource)
-        .build();
+    builder()
+        .setAccountResource(newAccountResource);
   }
 
 
   public void setAllowance(long allowance) {
-    this.account = this.account.toBuilder().setAllowance(allowance).build();
+    builder().setAllowance(allowance);
   }
 
 
   @Override
   public String toString() {
-    return this.account.toString();
+    return getInstance().toString();
   }
 
 
@@ -411,41 +431,36 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * set votes.
    */
   public void addVotes(ByteString voteAddress, long voteAdd) {
-    this.account = this.account.toBuilder()
-        .addVotes(Vote.newBuilder().setVoteAddress(voteAddress).setVoteCount(voteAdd).build())
-        .build();
+    builder()
+        .addVotes(Vote.newBuilder().setVoteAddress(voteAddress).setVoteCount(voteAdd).build());
   }
 
   public void clearAssetV2() {
-    this.account = this.account.toBuilder()
-        .clearAssetV2()
-        .build();
+    builder()
+        .clearAssetV2();
   }
 
   public void clearLatestAssetOperationTimeV2() {
-    this.account = this.account.toBuilder()
-        .clearLatestAssetOperationTimeV2()
-        .build();
+    builder()
+        .clearLatestAssetOperationTimeV2();
   }
 
   public void clearFreeAssetNetUsageV2() {
-    this.account = this.account.toBuilder()
-        .clearFreeAssetNetUsageV2()
-        .build();
+    builder()
+        .clearFreeAssetNetUsageV2();
   }
 
   public void clearVotes() {
-    this.account = this.account.toBuilder()
-        .clearVotes()
-        .build();
+    builder()
+        .clearVotes();
   }
 
   /**
    * get votes.
    */
   public List<Vote> getVotesList() {
-    if (this.account.getVotesList() != null) {
-      return this.account.getVotesList();
+    if (getInstance().getVotesList() != null) {
+      return getInstance().getVotesList();
     } else {
       return Lists.newArrayList();
     }
@@ -454,13 +469,13 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   //tp:Unichain_Power
   public long getUnichainPower() {
     long tp = 0;
-    for (int i = 0; i < account.getFrozenCount(); ++i) {
-      tp += account.getFrozen(i).getFrozenBalance();
+    for (int i = 0; i < current().getFrozenCount(); ++i) {
+      tp += current().getFrozen(i).getFrozenBalance();
     }
 
-    tp += account.getAccountResource().getFrozenBalanceForEnergy().getFrozenBalance();
-    tp += account.getDelegatedFrozenBalanceForBandwidth();
-    tp += account.getAccountResource().getDelegatedFrozenBalanceForEnergy();
+    tp += current().getAccountResource().getFrozenBalanceForEnergy().getFrozenBalance();
+    tp += current().getDelegatedFrozenBalanceForBandwidth();
+    tp += current().getAccountResource().getDelegatedFrozenBalanceForEnergy();
     return tp;
   }
 
@@ -468,7 +483,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * asset balance enough
    */
   public boolean assetBalanceEnough(byte[] key, long amount) {
-    Map<String, Long> assetMap = this.account.getAssetMap();
+    Map<String, Long> assetMap = current().getAssetMap();
     String nameKey = ByteArray.toStr(key);
     Long currentAmount = assetMap.get(nameKey);
 
@@ -480,12 +495,12 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
     String nameKey;
     Long currentAmount;
     if (manager.getDynamicPropertiesStore().getAllowSameTokenName() == 0) {
-      assetMap = this.account.getAssetMap();
+      assetMap = current().getAssetMap();
       nameKey = ByteArray.toStr(key);
       currentAmount = assetMap.get(nameKey);
     } else {
       String tokenID = ByteArray.toStr(key);
-      assetMap = this.account.getAssetV2Map();
+      assetMap = current().getAssetV2Map();
       currentAmount = assetMap.get(tokenID);
     }
 
@@ -497,12 +512,12 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * reduce asset amount.
    */
   public boolean reduceAssetAmount(byte[] key, long amount) {
-    Map<String, Long> assetMap = this.account.getAssetMap();
+    Map<String, Long> assetMap = current().getAssetMap();
     String nameKey = ByteArray.toStr(key);
     Long currentAmount = assetMap.get(nameKey);
     if (amount > 0 && null != currentAmount && amount <= currentAmount) {
-      this.account = this.account.toBuilder()
-          .putAsset(nameKey, Math.subtractExact(currentAmount, amount)).build();
+      builder()
+          .putAsset(nameKey, Math.subtractExact(currentAmount, amount));
       return true;
     }
 
@@ -515,28 +530,26 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   public boolean reduceAssetAmountV2(byte[] key, long amount, Manager manager) {
     //key is token name
     if (manager.getDynamicPropertiesStore().getAllowSameTokenName() == 0) {
-      Map<String, Long> assetMap = this.account.getAssetMap();
+      Map<String, Long> assetMap = current().getAssetMap();
       AssetIssueCapsule assetIssueCapsule = manager.getAssetIssueStore().get(key);
       String tokenID = assetIssueCapsule.getId();
       String nameKey = ByteArray.toStr(key);
       Long currentAmount = assetMap.get(nameKey);
       if (amount > 0 && null != currentAmount && amount <= currentAmount) {
-        this.account = this.account.toBuilder()
+        builder()
             .putAsset(nameKey, Math.subtractExact(currentAmount, amount))
-            .putAssetV2(tokenID, Math.subtractExact(currentAmount, amount))
-            .build();
+            .putAssetV2(tokenID, Math.subtractExact(currentAmount, amount));
         return true;
       }
     }
     //key is token id
     if (manager.getDynamicPropertiesStore().getAllowSameTokenName() == 1) {
       String tokenID = ByteArray.toStr(key);
-      Map<String, Long> assetMapV2 = this.account.getAssetV2Map();
+      Map<String, Long> assetMapV2 = current().getAssetV2Map();
       Long currentAmount = assetMapV2.get(tokenID);
       if (amount > 0 && null != currentAmount && amount <= currentAmount) {
-        this.account = this.account.toBuilder()
-            .putAssetV2(tokenID, Math.subtractExact(currentAmount, amount))
-            .build();
+        builder()
+            .putAssetV2(tokenID, Math.subtractExact(currentAmount, amount));
         return true;
       }
     }
@@ -548,14 +561,13 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * add asset amount.
    */
   public boolean addAssetAmount(byte[] key, long amount) {
-    Map<String, Long> assetMap = this.account.getAssetMap();
+    Map<String, Long> assetMap = current().getAssetMap();
     String nameKey = ByteArray.toStr(key);
     Long currentAmount = assetMap.get(nameKey);
     if (currentAmount == null) {
       currentAmount = 0L;
     }
-    this.account = this.account.toBuilder().putAsset(nameKey, Math.addExact(currentAmount, amount))
-        .build();
+    builder().putAsset(nameKey, Math.addExact(currentAmount, amount));
     return true;
   }
 
@@ -565,7 +577,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   public boolean addAssetAmountV2(byte[] key, long amount, Manager manager) {
     //key is token name
     if (manager.getDynamicPropertiesStore().getAllowSameTokenName() == 0) {
-      Map<String, Long> assetMap = this.account.getAssetMap();
+      Map<String, Long> assetMap = current().getAssetMap();
       AssetIssueCapsule assetIssueCapsule = manager.getAssetIssueStore().get(key);
       String tokenID = assetIssueCapsule.getId();
       String nameKey = ByteArray.toStr(key);
@@ -573,22 +585,20 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
       if (currentAmount == null) {
         currentAmount = 0L;
       }
-      this.account = this.account.toBuilder()
+      builder()
           .putAsset(nameKey, Math.addExact(currentAmount, amount))
-          .putAssetV2(tokenID, Math.addExact(currentAmount, amount))
-          .build();
+          .putAssetV2(tokenID, Math.addExact(currentAmount, amount));
     }
     //key is token id
     if (manager.getDynamicPropertiesStore().getAllowSameTokenName() == 1) {
       String tokenIDStr = ByteArray.toStr(key);
-      Map<String, Long> assetMapV2 = this.account.getAssetV2Map();
+      Map<String, Long> assetMapV2 = current().getAssetV2Map();
       Long currentAmount = assetMapV2.get(tokenIDStr);
       if (currentAmount == null) {
         currentAmount = 0L;
       }
-      this.account = this.account.toBuilder()
-          .putAssetV2(tokenIDStr, Math.addExact(currentAmount, amount))
-          .build();
+      builder()
+          .putAssetV2(tokenIDStr, Math.addExact(currentAmount, amount));
     }
     return true;
   }
@@ -597,27 +607,27 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * set account name
    */
   public void setAccountName(byte[] name) {
-    this.account = this.account.toBuilder().setAccountName(ByteString.copyFrom(name)).build();
+    builder().setAccountName(ByteString.copyFrom(name));
   }
 
   /**
    * set account id
    */
   public void setAccountId(byte[] id) {
-    this.account = this.account.toBuilder().setAccountId(ByteString.copyFrom(id)).build();
+    builder().setAccountId(ByteString.copyFrom(id));
   }
 
   /**
    * add asset.
    */
   public boolean addAsset(byte[] key, long value) {
-    Map<String, Long> assetMap = this.account.getAssetMap();
+    Map<String, Long> assetMap = current().getAssetMap();
     String nameKey = ByteArray.toStr(key);
     if (!assetMap.isEmpty() && assetMap.containsKey(nameKey)) {
       return false;
     }
 
-    this.account = this.account.toBuilder().putAsset(nameKey, value).build();
+    builder().putAsset(nameKey, value);
 
     return true;
   }
@@ -626,46 +636,44 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * add instant token
    */
   public boolean addToken(byte[] key, long value) {
-    Map<String, Long> tokenMap = this.account.getTokenMap();
+    Map<String, Long> tokenMap = current().getTokenMap();
     String nameKey = ByteArray.toStr(key);
     long totalValue = tokenMap.containsKey(nameKey) ? tokenMap.get(nameKey) + value : value;
-    this.account = this.account.toBuilder().putToken(nameKey, totalValue).build();
+    builder().putToken(nameKey, totalValue);
     return true;
   }
 
   public void addBalance(long value){
-    this.account = this.account.toBuilder().setBalance(account.getBalance() + value).build();
+    builder().setBalance(current().getBalance() + value);
   }
 
   public void removeFutureTokenSummary(byte[] tokenKey){
-      this.account = this.account.toBuilder()
-              .removeTokenFuture(new String(tokenKey))
-              .build();
+      builder()
+              .removeTokenFuture(new String(tokenKey));
   }
 
   /**
    * add token future
    */
   public boolean setFutureTokenSummary(FutureTokenSummaryV2 summary){
-      this.account = this.account.toBuilder()
-              .putTokenFuture(summary.getTokenName(), summary)
-              .build();
+      builder()
+              .putTokenFuture(summary.getTokenName(), summary);
       return true;
   }
 
   public FutureTokenSummaryV2 getFutureTokenSummary(String tokenName){
-    return account.getTokenFutureMap().get(tokenName);
+    return current().getTokenFutureMap().get(tokenName);
   }
 
   public FutureSummary getFutureSummary(){
-    return account.hasFutureSupply() ? account.getFutureSupply() : null;
+    return current().hasFutureSupply() ? current().getFutureSupply() : null;
   }
 
   /**
    * burn more token issued by this account
    */
   public boolean burnToken(byte[] key, long amount) {
-    Map<String, Long> tokenMap = this.account.getTokenMap();
+    Map<String, Long> tokenMap = current().getTokenMap();
     String nameKey = ByteArray.toStr(key);
     if (!tokenMap.containsKey(nameKey) || tokenMap.get(nameKey) < amount) {
       return false;
@@ -674,17 +682,17 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
     long remain = tokenMap.get(nameKey) - amount;
     if(remain > 0)
     {
-      this.account = this.account.toBuilder().putToken(nameKey, remain).build();
+      builder().putToken(nameKey, remain);
     }
     else
     {
-      this.account = this.account.toBuilder().removeToken(nameKey).build();
+      builder().removeToken(nameKey);
     }
     return true;
   }
 
   public long burnAllAvailableToken(byte[] key) {
-    Map<String, Long> tokenMap = this.account.getTokenMap();
+    Map<String, Long> tokenMap = current().getTokenMap();
     String nameKey = ByteArray.toStr(key);
     if (!tokenMap.containsKey(nameKey)) {
       logger.warn("missing token {}", nameKey);
@@ -692,7 +700,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
     }
     else {
       long available = tokenMap.get(nameKey);
-      this.account = this.account.toBuilder().removeToken(nameKey).build();
+      builder().removeToken(nameKey);
       return available;
     }
   }
@@ -701,21 +709,20 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * get token info by name
    */
   public Long getTokenAvailable(byte[] key) {
-    Map<String, Long> tokenMap = this.account.getTokenMap();
+    Map<String, Long> tokenMap = current().getTokenMap();
     String nameKey = ByteArray.toStr(key);
     return tokenMap.containsKey(nameKey) ? tokenMap.get(nameKey) : 0L;
   }
 
   public boolean addAssetV2(byte[] key, long value) {
     String tokenID = ByteArray.toStr(key);
-    Map<String, Long> assetV2Map = this.account.getAssetV2Map();
+    Map<String, Long> assetV2Map = current().getAssetV2Map();
     if (!assetV2Map.isEmpty() && assetV2Map.containsKey(tokenID)) {
       return false;
     }
 
-    this.account = this.account.toBuilder()
-        .putAssetV2(tokenID, value)
-        .build();
+    builder()
+        .putAssetV2(tokenID, value);
     return true;
   }
 
@@ -723,13 +730,13 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * add asset.
    */
   public boolean addAssetMapV2(Map<String, Long> assetMap) {
-    this.account = this.account.toBuilder().putAllAssetV2(assetMap).build();
+    builder().putAllAssetV2(assetMap);
     return true;
   }
 
 
   public Map<String, Long> getAssetMap() {
-    Map<String, Long> assetMap = this.account.getAssetMap();
+    Map<String, Long> assetMap = getInstance().getAssetMap();
     if (assetMap.isEmpty()) {
       assetMap = Maps.newHashMap();
     }
@@ -738,7 +745,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public Map<String, Long> getAssetMapV2() {
-    Map<String, Long> assetMap = this.account.getAssetV2Map();
+    Map<String, Long> assetMap = getInstance().getAssetV2Map();
     if (assetMap.isEmpty()) {
       assetMap = Maps.newHashMap();
     }
@@ -747,36 +754,36 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public boolean addAllLatestAssetOperationTimeV2(Map<String, Long> map) {
-    this.account = this.account.toBuilder().putAllLatestAssetOperationTimeV2(map).build();
+    builder().putAllLatestAssetOperationTimeV2(map);
     return true;
   }
 
   public Map<String, Long> getLatestAssetOperationTimeMap() {
-    return this.account.getLatestAssetOperationTimeMap();
+    return getInstance().getLatestAssetOperationTimeMap();
   }
 
   public Map<String, Long> getLatestAssetOperationTimeMapV2() {
-    return this.account.getLatestAssetOperationTimeV2Map();
+    return getInstance().getLatestAssetOperationTimeV2Map();
   }
 
   public long getLatestAssetOperationTime(String assetName) {
-    return this.account.getLatestAssetOperationTimeOrDefault(assetName, 0);
+    return current().getLatestAssetOperationTimeOrDefault(assetName, 0);
   }
 
   public long getLatestAssetOperationTimeV2(String assetName) {
-    return this.account.getLatestAssetOperationTimeV2OrDefault(assetName, 0);
+    return current().getLatestAssetOperationTimeV2OrDefault(assetName, 0);
   }
 
   public void putLatestAssetOperationTimeMap(String key, Long value) {
-    this.account = this.account.toBuilder().putLatestAssetOperationTime(key, value).build();
+    builder().putLatestAssetOperationTime(key, value);
   }
 
   public void putLatestAssetOperationTimeMapV2(String key, Long value) {
-    this.account = this.account.toBuilder().putLatestAssetOperationTimeV2(key, value).build();
+    builder().putLatestAssetOperationTimeV2(key, value);
   }
 
   public int getFrozenCount() {
-    return getInstance().getFrozenCount();
+    return current().getFrozenCount();
   }
 
   public List<Frozen> getFrozenList() {
@@ -795,7 +802,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public int getFrozenSupplyCount() {
-    return getInstance().getFrozenSupplyCount();
+    return current().getFrozenSupplyCount();
   }
 
   public List<Frozen> getFrozenSupplyList() {
@@ -810,45 +817,45 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public ByteString getAssetIssuedName() {
-    return getInstance().getAssetIssuedName();
+    return current().getAssetIssuedName();
   }
 
   public void setAssetIssuedName(byte[] nameKey) {
     ByteString assetIssuedName = ByteString.copyFrom(nameKey);
-    this.account = this.account.toBuilder().setAssetIssuedName(assetIssuedName).build();
+    builder().setAssetIssuedName(assetIssuedName);
   }
 
   public ByteString getAssetIssuedID() {
-    return getInstance().getAssetIssuedID();
+    return current().getAssetIssuedID();
   }
 
   public void setAssetIssuedID(byte[] id) {
     ByteString assetIssuedID = ByteString.copyFrom(id);
-    this.account = this.account.toBuilder().setAssetIssuedID(assetIssuedID).build();
+    builder().setAssetIssuedID(assetIssuedID);
   }
 
   public long getAllowance() {
-    return getInstance().getAllowance();
+    return current().getAllowance();
   }
 
   public long getLatestWithdrawTime() {
-    return getInstance().getLatestWithdrawTime();
+    return current().getLatestWithdrawTime();
   }
 
   public boolean getIsWitness() {
-    return getInstance().getIsWitness();
+    return current().getIsWitness();
   }
 
   public void setIsWitness(boolean isWitness) {
-    this.account = this.account.toBuilder().setIsWitness(isWitness).build();
+    builder().setIsWitness(isWitness);
   }
 
   public boolean getIsCommittee() {
-    return getInstance().getIsCommittee();
+    return current().getIsCommittee();
   }
 
   public void setIsCommittee(boolean isCommittee) {
-    this.account = this.account.toBuilder().setIsCommittee(isCommittee).build();
+    builder().setIsCommittee(isCommittee);
   }
 
   public void setFrozenForBandwidth(long frozenBalance, long expireTime) {
@@ -859,14 +866,9 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
 
     long frozenCount = getFrozenCount();
     if (frozenCount == 0) {
-      setInstance(getInstance().toBuilder()
-          .addFrozen(newFrozen)
-          .build());
+      builder().addFrozen(newFrozen);
     } else {
-      setInstance(getInstance().toBuilder()
-          .setFrozen(0, newFrozen)
-          .build()
-      );
+      builder().setFrozen(0, newFrozen);
     }
   }
 
@@ -878,29 +880,27 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
         .setExpireTime(expireTime)
         .build();
 
-    this.account = this.account.toBuilder()
-        .addFrozen(newFrozen)
-        .build();
+    builder()
+        .addFrozen(newFrozen);
   }
 
   //for test only
   public void setLatestWithdrawTime(long latestWithdrawTime) {
-    this.account = this.account.toBuilder()
-        .setLatestWithdrawTime(latestWithdrawTime)
-        .build();
+    builder()
+        .setLatestWithdrawTime(latestWithdrawTime);
   }
 
   public long getNetUsage() {
-    return this.account.getNetUsage();
+    return current().getNetUsage();
   }
 
   public void setNetUsage(long netUsage) {
-    this.account = this.account.toBuilder()
-        .setNetUsage(netUsage).build();
+    builder()
+        .setNetUsage(netUsage);
   }
 
   public AccountResource getAccountResource() {
-    return this.account.getAccountResource();
+    return current().getAccountResource();
   }
 
 
@@ -913,18 +913,17 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
     AccountResource newAccountResource = getAccountResource().toBuilder()
         .setFrozenBalanceForEnergy(newFrozenForEnergy).build();
 
-    this.account = this.account.toBuilder()
-        .setAccountResource(newAccountResource)
-        .build();
+    builder()
+        .setAccountResource(newAccountResource);
   }
 
 
   public long getEnergyFrozenBalance() {
-    return this.account.getAccountResource().getFrozenBalanceForEnergy().getFrozenBalance();
+    return current().getAccountResource().getFrozenBalanceForEnergy().getFrozenBalance();
   }
 
   public long getEnergyUsage() {
-    return this.account.getAccountResource().getEnergyUsage();
+    return current().getAccountResource().getEnergyUsage();
   }
 
   public long getAllFrozenBalanceForEnergy() {
@@ -933,79 +932,77 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
 
 
   public void setEnergyUsage(long energyUsage) {
-    this.account = this.account.toBuilder()
+    builder()
         .setAccountResource(
-            this.account.getAccountResource().toBuilder().setEnergyUsage(energyUsage).build())
-        .build();
+            current().getAccountResource().toBuilder().setEnergyUsage(energyUsage).build());
   }
 
   public void setLatestConsumeTimeForEnergy(long latest_time) {
-    this.account = this.account.toBuilder()
+    builder()
         .setAccountResource(
-            this.account.getAccountResource().toBuilder().setLatestConsumeTimeForEnergy(latest_time)
-                .build()).build();
+            current().getAccountResource().toBuilder().setLatestConsumeTimeForEnergy(latest_time)
+                .build());
   }
 
   public long getLatestConsumeTimeForEnergy() {
-    return this.account.getAccountResource().getLatestConsumeTimeForEnergy();
+    return current().getAccountResource().getLatestConsumeTimeForEnergy();
   }
 
   public long getFreeNetUsage() {
-    return this.account.getFreeNetUsage();
+    return current().getFreeNetUsage();
   }
 
   public void setFreeNetUsage(long freeNetUsage) {
-    this.account = this.account.toBuilder()
-        .setFreeNetUsage(freeNetUsage).build();
+    builder()
+        .setFreeNetUsage(freeNetUsage);
   }
 
 
   public boolean addAllFreeAssetNetUsageV2(Map<String, Long> map) {
-    this.account = this.account.toBuilder().putAllFreeAssetNetUsageV2(map).build();
+    builder().putAllFreeAssetNetUsageV2(map);
     return true;
   }
 
   public long getFreeAssetNetUsage(String assetName) {
-    return this.account.getFreeAssetNetUsageOrDefault(assetName, 0);
+    return current().getFreeAssetNetUsageOrDefault(assetName, 0);
   }
 
   public long getFreeAssetNetUsageV2(String assetName) {
-    return this.account.getFreeAssetNetUsageV2OrDefault(assetName, 0);
+    return current().getFreeAssetNetUsageV2OrDefault(assetName, 0);
   }
 
   public Map<String, Long> getAllFreeAssetNetUsage() {
-    return this.account.getFreeAssetNetUsageMap();
+    return getInstance().getFreeAssetNetUsageMap();
   }
 
   public Map<String, Long> getAllFreeAssetNetUsageV2() {
-    return this.account.getFreeAssetNetUsageV2Map();
+    return getInstance().getFreeAssetNetUsageV2Map();
   }
 
   public void putFreeAssetNetUsage(String s, long freeAssetNetUsage) {
-    this.account = this.account.toBuilder()
-        .putFreeAssetNetUsage(s, freeAssetNetUsage).build();
+    builder()
+        .putFreeAssetNetUsage(s, freeAssetNetUsage);
   }
 
   public void putFreeAssetNetUsageV2(String s, long freeAssetNetUsage) {
-    this.account = this.account.toBuilder()
-        .putFreeAssetNetUsageV2(s, freeAssetNetUsage).build();
+    builder()
+        .putFreeAssetNetUsageV2(s, freeAssetNetUsage);
   }
 
   public long getStorageLimit() {
-    return this.account.getAccountResource().getStorageLimit();
+    return current().getAccountResource().getStorageLimit();
   }
 
   public void setStorageLimit(long limit) {
-    AccountResource accountResource = this.account.getAccountResource();
+    AccountResource accountResource = current().getAccountResource();
     accountResource = accountResource.toBuilder().setStorageLimit(limit).build();
 
-    this.account = this.account.toBuilder()
-        .setAccountResource(accountResource)
-        .build();
+    builder()
+        .setAccountResource(accountResource);
   }
 
   public long getStorageUsage() {
-    return this.account.getAccountResource().getStorageUsage();
+    return current().getAccountResource().getStorageUsage();
   }
 
   public long getStorageLeft() {
@@ -1013,38 +1010,35 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public void setStorageUsage(long usage) {
-    AccountResource accountResource = this.account.getAccountResource();
+    AccountResource accountResource = current().getAccountResource();
     accountResource = accountResource.toBuilder().setStorageUsage(usage).build();
 
-    this.account = this.account.toBuilder()
-        .setAccountResource(accountResource)
-        .build();
+    builder()
+        .setAccountResource(accountResource);
   }
 
   public long getLatestExchangeStorageTime() {
-    return this.account.getAccountResource().getLatestExchangeStorageTime();
+    return current().getAccountResource().getLatestExchangeStorageTime();
   }
 
   public void setLatestExchangeStorageTime(long time) {
-    AccountResource accountResource = this.account.getAccountResource();
+    AccountResource accountResource = current().getAccountResource();
     accountResource = accountResource.toBuilder().setLatestExchangeStorageTime(time).build();
 
-    this.account = this.account.toBuilder()
-        .setAccountResource(accountResource)
-        .build();
+    builder()
+        .setAccountResource(accountResource);
   }
 
   public void addStorageUsage(long storageUsage) {
     if (storageUsage <= 0) {
       return;
     }
-    AccountResource accountResource = this.account.getAccountResource();
+    AccountResource accountResource = current().getAccountResource();
     accountResource = accountResource.toBuilder()
         .setStorageUsage(accountResource.getStorageUsage() + storageUsage).build();
 
-    this.account = this.account.toBuilder()
-        .setAccountResource(accountResource)
-        .build();
+    builder()
+        .setAccountResource(accountResource);
   }
 
   public static Permission getDefaultPermission(ByteString owner) {
@@ -1053,18 +1047,18 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
 
   public Permission getPermissionById(int id) {
     if (id == 0) {
-      if (this.account.hasOwnerPermission()) {
-        return this.account.getOwnerPermission();
+      if (current().hasOwnerPermission()) {
+        return current().getOwnerPermission();
       }
-      return getDefaultPermission(this.account.getAddress());
+      return getDefaultPermission(current().getAddress());
     }
     if (id == 1) {
-      if (this.account.hasWitnessPermission()) {
-        return this.account.getWitnessPermission();
+      if (current().hasWitnessPermission()) {
+        return current().getWitnessPermission();
       }
       return null;
     }
-    for (Permission permission : this.account.getActivePermissionList()) {
+    for (Permission permission : current().getActivePermissionList()) {
       if (id == permission.getId()) {
         return permission;
       }
@@ -1073,7 +1067,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public void updatePermissions(Permission owner, Permission witness, List<Permission> actives) {
-    Account.Builder builder = this.account.toBuilder();
+    Account.Builder builder = builder();
     owner = owner.toBuilder().setId(0).build();
     builder.setOwnerPermission(owner);
     if (builder.getIsWitness()) {
@@ -1085,20 +1079,17 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
       Permission permission = actives.get(i).toBuilder().setId(i + 2).build();
       builder.addActivePermission(permission);
     }
-    this.account = builder.build();
   }
 
   public void updateAccountType(AccountType accountType) {
-    this.account = this.account.toBuilder().setType(accountType).build();
+    builder().setType(accountType);
   }
 
   // just for vm create2 instruction
   public void clearDelegatedResource() {
-    Builder builder = account.toBuilder();
     AccountResource newAccountResource = getAccountResource().toBuilder()
         .setAcquiredDelegatedFrozenBalanceForEnergy(0L).build();
-    builder.setAccountResource(newAccountResource);
-    builder.setAcquiredDelegatedFrozenBalanceForBandwidth(0L);
-    this.account = builder.build();
+    builder().setAccountResource(newAccountResource)
+        .setAcquiredDelegatedFrozenBalanceForBandwidth(0L);
   }
 }
\ No newline at end of file
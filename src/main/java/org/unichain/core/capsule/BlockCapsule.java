@@ -40,7 +40,6 @@ import java.security.SignatureException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Vector;
 import java.util.stream.Collectors;
 
 @Slf4j(topic = "capsule")
@@ -262,12 +261,12 @@ public class BlockCapsule implements ProtoCapsule<Block> {
       return Sha256Hash.ZERO_HASH;
     }
 
-    Vector<Sha256Hash> ids = transactionsList.stream()
+    List<Sha256Hash> ids = transactionsList.stream()
         .map(TransactionCapsule::new)
         .map(TransactionCapsule::getMerkleHash)
-        .collect(Collectors.toCollection(Vector::new));
+        .collect(Collectors.toList());
 
-    return MerkleTree.getInstance().createTree(ids).getRoot().getHash();
+    return MerkleTree.computeRoot(ids);
   }
 
   public void setMerkleRoot() {
@@ -29,6 +29,7 @@ import org.unichain.common.runtime.vm.program.Program.*;
 import org.unichain.common.utils.ByteArray;
 import org.unichain.common.utils.Sha256Hash;
 import org.unichain.core.Wallet;
+import org.unichain.core.capsule.utils.SignatureRecoveryCache;
 import org.unichain.core.config.args.Args;
 import org.unichain.core.db.AccountStore;
 import org.unichain.core.db.Manager;
@@ -77,6 +78,22 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
 
   private static final ExecutorService executorService = Executors.newFixedThreadPool(Args.getInstance().getValidContractProtoThreadNum());
 
+  // encodings derived from the transaction, each kept with the instance it was computed from so
+  // that replacing the transaction (sign, setResult, setReference...) drops them
+  private volatile Memo<byte[]> data;
+  private volatile Memo<Sha256Hash> rawHash;
+
+  private static final class Memo<T> {
+
+    private final Object source;
+    private final T value;
+
+    private Memo(Object source, T value) {
+      this.source = source;
+      this.value = value;
+    }
+  }
+
   /**
    * constructor TransactionCapsule.
    */
@@ -165,6 +182,30 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
         .build();
   }
 
+  /**
+   * a capsule of the same transaction sharing its encodings, to be processed without touching
+   * this one and taken back with {@link #takeResult}.
+   */
+  public TransactionCapsule copy() {
+    TransactionCapsule copy = new TransactionCapsule(this.transaction);
+    copy.isVerified = this.isVerified;
+    copy.blockNum = this.blockNum;
+    copy.data = this.data;
+    copy.rawHash = this.rawHash;
+    return copy;
+  }
+
+  /**
+   * the transaction, result and trace the copy was left with by processing it.
+   */
+  public void takeResult(TransactionCapsule copy) {
+    this.transaction = copy.transaction;
+    this.isVerified = copy.isVerified;
+    this.unxTrace = copy.unxTrace;
+    this.data = copy.data;
+    this.rawHash = copy.rawHash;
+  }
+
   public void resetResult() {
     if (this.getInstance().getRetCount() > 0) {
       this.transaction = this.getInstance().toBuilder().clearRet().build();
@@ -230,12 +271,47 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   }
 
   public Sha256Hash getMerkleHash() {
-    byte[] transBytes = this.transaction.toByteArray();
-    return Sha256Hash.of(transBytes);
+    return Sha256Hash.of(encoded());
   }
 
   private Sha256Hash getRawHash() {
-    return Sha256Hash.of(this.transaction.getRawData().toByteArray());
+    raw rawData = this.transaction.getRawData();
+    Memo<Sha256Hash> memo = this.rawHash;
+    if (memo == null || memo.source != rawData) {
+      memo = new Memo<>(rawData, hashRawData(encoded()));
+      this.rawHash = memo;
+    }
+    return memo.value;
+  }
+
+  /**
+   * serialization of the current transaction, computed once per instance. Callers must not
+   * modify the array.
+   */
+  private byte[] encoded() {
+    Transaction current = this.transaction;
+    Memo<byte[]> memo = this.data;
+    if (memo == null || memo.source != current) {
+      memo = new Memo<>(current, current.toByteArray());
+      this.data = memo;
+    }
+    return memo.value;
+  }
+
+  // raw_data is field 1, so a serialized transaction starts with it: hash it in place
+  private static Sha256Hash hashRawData(byte[] encoded) {
+    try {
+      CodedInputStream input = CodedInputStream.newInstance(encoded);
+      int tag = input.readTag();
+      if (WireFormat.getTagFieldNumber(tag) != Transaction.RAW_DATA_FIELD_NUMBER
+          || WireFormat.getTagWireType(tag) != WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+        return Sha256Hash.of(new byte[0]);
+      }
+      int length = input.readRawVarint32();
+      return Sha256Hash.wrap(Sha256Hash.hash(encoded, input.getTotalBytesRead(), length));
+    } catch (IOException e) {
+      throw new IllegalStateException("Transaction serialization is not readable", e);
+    }
   }
 
   public void sign(byte[] privateKey) {
@@ -270,7 +346,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
         throw new SignatureFormatException("Signature size is " + sig.size());
       }
       String base64 = TransactionCapsule.getBase64FromByteString(sig);
-      byte[] address = ECKey.signatureToAddress(hash, base64);
+      byte[] address = SignatureRecoveryCache.signatureToAddress(hash, sig);
       long weight = getWeight(permission, address);
       if (weight == 0) {
         throw new PermissionException(
@@ -613,15 +689,15 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     if (clazz == null) {
       throw new P2pException(PROTOBUF_ERROR, PROTOBUF_ERROR.getDesc());
     }
-    com.google.protobuf.Message src = contractParameter.unpack(clazz);
+    byte[] src = contractParameter.unpack(clazz).toByteArray();
     com.google.protobuf.Message contractMessage = parse(clazz,
-        Message.getCodedInputStream(src.toByteArray()));
+        Message.getCodedInputStream(src));
 
     //    if (!src.equals(contractMessage)) {
     //      throw new P2pException(PROTOBUF_ERROR, PROTOBUF_ERROR.getDesc());
     //    }
 
-    Message.compareBytes(src.toByteArray(), contractMessage.toByteArray());
+    Message.compareBytes(src, contractMessage);
   }
 
   // todo mv this static function to capsule util
@@ -639,6 +715,9 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
         case ParticipateAssetIssueContract:
           to = contractParameter.unpack(ParticipateAssetIssueContract.class).getToAddress();
           break;
+        case TransferTokenContract:
+          to = contractParameter.unpack(TransferTokenContract.class).getToAddress();
+          break;
         // todo add other contract
 
         default:
@@ -695,14 +774,17 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   }
 
   public static String getBase64FromByteString(ByteString sign) {
+    return getSignatureFromByteString(sign).toBase64();
+  }
+
+  public static ECDSASignature getSignatureFromByteString(ByteString sign) {
     byte[] r = sign.substring(0, 32).toByteArray();
     byte[] s = sign.substring(32, 64).toByteArray();
     byte v = sign.byteAt(64);
     if (v < 27) {
       v += 27; //revId -> v
     }
-    ECDSASignature signature = ECDSASignature.fromComponents(r, s, v);
-    return signature.toBase64();
+    return ECDSASignature.fromComponents(r, s, v);
   }
 
   public static boolean validateSignature(Transaction transaction,
@@ -787,13 +869,24 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
 
   @Override
   public byte[] getData() {
-    return this.transaction.toByteArray();
+    return encoded().clone();
   }
 
   public long getSerializedSize() {
     return this.transaction.getSerializedSize();
   }
 
+  /**
+   * size of the transaction with its results cleared, without building that copy.
+   */
+  public long getSerializedSizeWithoutRet() {
+    long size = this.transaction.getSerializedSize();
+    for (Result result : this.transaction.getRetList()) {
+      size -= CodedOutputStream.computeMessageSize(Transaction.RET_FIELD_NUMBER, result);
+    }
+    return size;
+  }
+
   public long getResultSerializedSize() {
     long size = 0;
     for (Result result : this.transaction.getRetList()) {
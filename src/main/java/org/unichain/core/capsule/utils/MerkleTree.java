@@ -27,6 +27,27 @@ public class MerkleTree {
     return instance;
   }
 
+  /**
+   * root of the tree {@link #createTree} would build, without the leaf objects or the shared
+   * instance state: each level hashes neighbours in pairs and passes an odd last node up as is.
+   */
+  public static Sha256Hash computeRoot(List<Sha256Hash> hashList) {
+    int len = hashList.size();
+    byte[][] level = new byte[len][];
+    for (int i = 0; i < len; i++) {
+      level[i] = hashList.get(i).getBytes();
+    }
+
+    while (len > 1) {
+      int parents = 0;
+      for (int i = 0; i < len; i += 2) {
+        level[parents++] = i + 1 < len ? Sha256Hash.hash(level[i], level[i + 1]) : level[i];
+      }
+      len = parents;
+    }
+    return Sha256Hash.wrap(level[0]);
+  }
+
   public MerkleTree createTree(List<Sha256Hash> hashList) {
     this.leaves = new ArrayList<>();
     this.hashList = hashList;
@@ -0,0 +1,99 @@
+package org.unichain.core.capsule.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.protobuf.ByteString;
+import lombok.extern.slf4j.Slf4j;
+import org.unichain.common.crypto.ECKey;
+import org.unichain.common.crypto.ECKey.ECDSASignature;
+import org.unichain.core.capsule.TransactionCapsule;
+import org.unichain.core.db.common.WrappedByteArray;
+
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Node wide memo of (message hash, signature) -> recovered signer address, so that a
+ * transaction seen by gossip, block pre-validation and apply pays for public key recovery once.
+ *
+ * Only the recovery is cached, permission and weight checks still run against current state.
+ */
+@Slf4j(topic = "capsule")
+public class SignatureRecoveryCache {
+
+  private static final long MAX_SIZE = 100_000;
+
+  private static final Cache<WrappedByteArray, byte[]> cache = CacheBuilder.newBuilder()
+      .maximumSize(MAX_SIZE)
+      .recordStats()
+      .build();
+
+  private SignatureRecoveryCache() {
+  }
+
+  public static byte[] signatureToAddress(byte[] hash, ByteString sig) throws SignatureException {
+    WrappedByteArray wrapped = makeKey(hash, sig);
+
+    byte[] address = cache.getIfPresent(wrapped);
+    if (address == null) {
+      address = ECKey.signatureToAddress(hash, TransactionCapsule.getBase64FromByteString(sig));
+      cache.put(wrapped, address);
+    }
+    return address.clone();
+  }
+
+  /**
+   * recover the signers of the transactions not cached yet in one batch, signatures that fail
+   * here are left to {@link #signatureToAddress} to report.
+   */
+  public static void preload(List<TransactionCapsule> unxs) {
+    List<WrappedByteArray> keys = new ArrayList<>();
+    List<byte[]> hashes = new ArrayList<>();
+    List<ECDSASignature> sigs = new ArrayList<>();
+    for (TransactionCapsule unx : unxs) {
+      byte[] hash = null;
+      for (ByteString sig : unx.getInstance().getSignatureList()) {
+        if (sig.size() < 65) {
+          continue;
+        }
+        if (hash == null) {
+          hash = unx.getTransactionId().getBytes();
+        }
+        WrappedByteArray key = makeKey(hash, sig);
+        if (cache.getIfPresent(key) == null) {
+          keys.add(key);
+          hashes.add(hash);
+          sigs.add(TransactionCapsule.getSignatureFromByteString(sig));
+        }
+      }
+    }
+    if (keys.isEmpty()) {
+      return;
+    }
+
+    byte[][] addresses = ECKey.signaturesToAddresses(hashes.toArray(new byte[0][]),
+        sigs.toArray(new ECDSASignature[0]));
+    for (int i = 0; i < addresses.length; i++) {
+      if (addresses[i] != null) {
+        cache.put(keys.get(i), addresses[i]);
+      }
+    }
+  }
+
+  public static CacheStats getStats() {
+    return cache.stats();
+  }
+
+  public static long size() {
+    return cache.size();
+  }
+
+  private static WrappedByteArray makeKey(byte[] hash, ByteString sig) {
+    byte[] key = new byte[hash.length + sig.size()];
+    System.arraycopy(hash, 0, key, 0, hash.length);
+    sig.copyTo(key, hash.length);
+    return WrappedByteArray.of(key);
+  }
+}
@@ -310,6 +310,18 @@ public class Args {
   @Parameter(names = {"--validate-sign-thread"}, description = "Num of validate thread")
   private int validateSignThreadNum;
 
+  @Getter
+  @Setter
+  private boolean parallelApply;
+
+  @Getter
+  @Setter
+  private int parallelApplyThreadNum;
+
+  @Getter
+  @Setter
+  private boolean parallelApplyCheck;
+
   @Getter
   @Setter
   private long maintenanceTimeInterval; // (ms)
@@ -363,6 +375,10 @@ public class Args {
   @Parameter(names = {"--trust-node"}, description = "Trust node addr")
   private String trustNodeAddr;
 
+  @Getter
+  @Setter
+  private int solidityFetchWindow;
+
   @Getter
   @Setter
   private boolean walletExtensionApi;
@@ -523,7 +539,11 @@ public class Args {
     INSTANCE.p2pNodeId = "";
     INSTANCE.solidityNode = false;
     INSTANCE.trustNodeAddr = "";
+    INSTANCE.solidityFetchWindow = 1;
     INSTANCE.walletExtensionApi = false;
+    INSTANCE.parallelApply = false;
+    INSTANCE.parallelApplyThreadNum = 1;
+    INSTANCE.parallelApplyCheck = false;
     INSTANCE.connectFactor = 0.3;
     INSTANCE.activeConnectFactor = 0.1;
     INSTANCE.disconnectNumberFactor = 0.4;
@@ -888,8 +908,21 @@ public class Args {
           config.hasPath("node.trustNode") ? config.getString("node.trustNode") : null;
     }
 
+    INSTANCE.solidityFetchWindow = config.hasPath("node.solidityFetchWindow") ? Math
+        .max(1, config.getInt("node.solidityFetchWindow")) : 1;
+
     INSTANCE.validateSignThreadNum = config.hasPath("node.validateSignThreadNum") ? config
-        .getInt("node.validateSignThreadNum") : Runtime.getRuntime().availableProcessors() / 2;
+        .getInt("node.validateSignThreadNum") : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    INSTANCE.parallelApply =
+        config.hasPath("node.parallelApply") && config.getBoolean("node.parallelApply");
+
+    INSTANCE.parallelApplyThreadNum = config.hasPath("node.parallelApplyThreadNum") ? Math
+        .max(1, config.getInt("node.parallelApplyThreadNum"))
+        : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    INSTANCE.parallelApplyCheck =
+        config.hasPath("node.parallelApplyCheck") && config.getBoolean("node.parallelApplyCheck");
 
     INSTANCE.walletExtensionApi =
         config.hasPath("node.walletExtensionApi") && config.getBoolean("node.walletExtensionApi");
@@ -0,0 +1,78 @@
+package org.unichain.core.db;
+
+import com.google.common.primitives.Bytes;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.unichain.core.capsule.AssetIssueCapsule;
+import org.unichain.core.capsule.BytesCapsule;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Owner and name indexes of the asset issue stores, each entry maps to the asset key:
+ * store tag | 'o' | owner address | asset key, and store tag | 'n' | name | 0 | asset key.
+ * Asset names are printable ascii, so the name entries are in the order of the names.
+ */
+@Component
+public class AssetIssueIndexStore extends UnichainStoreWithRevoking<BytesCapsule> {
+
+  private static final byte OWNER = 'o';
+  private static final byte NAME = 'n';
+  private static final byte NAME_END = 0;
+  // asset keys are names or ids, printable ascii, 0x7F closes every range
+  private static final byte[] UPPER_BOUND = new byte[]{0x7F};
+
+  @Autowired
+  protected AssetIssueIndexStore(@Value("asset-issue-index") String dbName) {
+    super(dbName);
+  }
+
+  @Override
+  public BytesCapsule get(byte[] key) {
+    byte[] value = revokingDB.getUnchecked(key);
+    return ArrayUtils.isEmpty(value) ? null : new BytesCapsule(value);
+  }
+
+  /**
+   * index an asset that is new to the store tagged storeTag, owner and name never change.
+   */
+  public void add(byte storeTag, byte[] assetKey, AssetIssueCapsule capsule) {
+    BytesCapsule value = new BytesCapsule(assetKey);
+    put(Bytes.concat(ownerPrefix(storeTag, capsule.getOwnerAddress().toByteArray()), assetKey),
+        value);
+    put(Bytes.concat(namePrefix(storeTag, capsule.getName().toByteArray()), assetKey), value);
+  }
+
+  public List<byte[]> getKeysByOwner(byte storeTag, byte[] owner) {
+    return getKeys(ownerPrefix(storeTag, owner), 0, Integer.MAX_VALUE);
+  }
+
+  public List<byte[]> getKeysByName(byte storeTag, byte[] name) {
+    return getKeys(namePrefix(storeTag, name), 0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * asset keys ordered by name, then key.
+   */
+  public List<byte[]> getKeysOrderedByName(byte storeTag, long offset, long limit) {
+    return getKeys(new byte[]{storeTag, NAME}, offset, limit);
+  }
+
+  private List<byte[]> getKeys(byte[] prefix, long offset, long limit) {
+    return revokingDB.getRange(prefix, Bytes.concat(prefix, UPPER_BOUND), offset, limit).stream()
+        .map(Map.Entry::getValue)
+        .collect(Collectors.toList());
+  }
+
+  private static byte[] ownerPrefix(byte storeTag, byte[] owner) {
+    return Bytes.concat(new byte[]{storeTag, OWNER}, owner);
+  }
+
+  private static byte[] namePrefix(byte storeTag, byte[] name) {
+    return Bytes.concat(new byte[]{storeTag, NAME}, name, new byte[]{NAME_END});
+  }
+}
@@ -1,6 +1,7 @@
 package org.unichain.core.db;
 
 import com.google.common.collect.Streams;
+import com.google.protobuf.ByteString;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,6 +10,7 @@ import org.unichain.core.capsule.AssetIssueCapsule;
 
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import static org.unichain.core.config.Parameter.DatabaseConstants.ASSET_ISSUE_COUNT_LIMIT_MAX;
@@ -17,17 +19,63 @@ import static org.unichain.core.config.Parameter.DatabaseConstants.ASSET_ISSUE_C
 @Component
 public class AssetIssueStore extends UnichainStoreWithRevoking<AssetIssueCapsule> {
 
+  @Autowired
+  private AssetIssueIndexStore assetIssueIndexStore;
+
   @Autowired
   protected AssetIssueStore(@Value("asset-issue") String dbName) {
     super(dbName);
   }
 
+  /**
+   * tag of this store's entries in the {@link AssetIssueIndexStore}.
+   */
+  protected byte getIndexTag() {
+    return 1;
+  }
+
 
   @Override
   public AssetIssueCapsule get(byte[] key) {
     return super.getUnchecked(key);
   }
 
+  /**
+   * put an asset that is new to this store and index it by owner and name.
+   */
+  public void create(byte[] key, AssetIssueCapsule item) {
+    put(key, item);
+    assetIssueIndexStore.add(getIndexTag(), key, item);
+  }
+
+  /**
+   * index an asset already in the store, for the backfill.
+   */
+  public void index(byte[] key, AssetIssueCapsule item) {
+    assetIssueIndexStore.add(getIndexTag(), key, item);
+  }
+
+  /**
+   * asset issues of the owner, in key order.
+   */
+  public List<AssetIssueCapsule> getAssetIssuesByOwner(ByteString owner) {
+    return getByKeys(assetIssueIndexStore.getKeysByOwner(getIndexTag(), owner.toByteArray()));
+  }
+
+  /**
+   * asset issues with this name, in key order.
+   */
+  public List<AssetIssueCapsule> getAssetIssuesByName(ByteString name) {
+    return getByKeys(assetIssueIndexStore.getKeysByName(getIndexTag(), name.toByteArray()));
+  }
+
+  private List<AssetIssueCapsule> getByKeys(List<byte[]> keys) {
+    return keys.stream()
+        .map(this::get)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
   /**
    * get all asset issues.
    */
@@ -37,35 +85,21 @@ public class AssetIssueStore extends UnichainStoreWithRevoking<AssetIssueCapsule
         .collect(Collectors.toList());
   }
 
-  private List<AssetIssueCapsule> getAssetIssuesPaginated(List<AssetIssueCapsule> assetIssueList,
-      long offset, long limit) {
+  /**
+   * a page of the asset issues ordered by name, equal names in key order. Only the page is read.
+   */
+  public List<AssetIssueCapsule> getAssetIssuesPaginated(long offset, long limit) {
     if (limit < 0 || offset < 0) {
       return null;
     }
 
-//    return Streams.stream(iterator())
-//        .map(Entry::getValue)
-//        .sorted(Comparator.comparing(a -> a.getName().toStringUtf8(), String::compareTo))
-//        .skip(offset)
-//        .limit(Math.min(limit, ASSET_ISSUE_COUNT_LIMIT_MAX))
-//        .collect(Collectors.toList());
-
-    if (assetIssueList.size() <= offset) {
+    limit = limit > ASSET_ISSUE_COUNT_LIMIT_MAX ? ASSET_ISSUE_COUNT_LIMIT_MAX : limit;
+    // read at least one entry, an offset past the end gives null even for an empty page
+    List<byte[]> keys = assetIssueIndexStore
+        .getKeysOrderedByName(getIndexTag(), offset, Math.max(limit, 1));
+    if (keys.isEmpty()) {
       return null;
     }
-    assetIssueList.sort((o1, o2) -> {
-      if (o1.getName() != o2.getName()) {
-        return o1.getName().toStringUtf8().compareTo(o2.getName().toStringUtf8());
-      }
-      return Long.compare(o1.getOrder(), o2.getOrder());
-    });
-    limit = limit > ASSET_ISSUE_COUNT_LIMIT_MAX ? ASSET_ISSUE_COUNT_LIMIT_MAX : limit;
-    long end = offset + limit;
-    end = end > assetIssueList.size() ? assetIssueList.size() : end;
-    return assetIssueList.subList((int) offset, (int) end);
-  }
-
-  public List<AssetIssueCapsule> getAssetIssuesPaginated(long offset, long limit) {
-    return getAssetIssuesPaginated(getAllAssetIssues(), offset, limit);
+    return getByKeys(keys.subList(0, (int) Math.min(limit, keys.size())));
   }
 }
@@ -14,4 +14,9 @@ public class AssetIssueV2Store extends AssetIssueStore {
     super(dbName);
   }
 
+  @Override
+  protected byte getIndexTag() {
+    return 2;
+  }
+
 }
@@ -66,7 +66,7 @@ public class BandwidthProcessor extends ResourceProcessor {
     long bytesSize;
 
     if (dbManager.getDynamicPropertiesStore().supportVM()) {
-      bytesSize = unx.getInstance().toBuilder().clearRet().build().getSerializedSize();
+      bytesSize = unx.getSerializedSizeWithoutRet();
     } else {
       bytesSize = unx.getSerializedSize();
     }
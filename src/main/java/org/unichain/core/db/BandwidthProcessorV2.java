@@ -69,7 +69,7 @@ public class BandwidthProcessorV2 extends ResourceProcessor {
     long bytesSize;
 
     if (dbManager.getDynamicPropertiesStore().supportVM()) {
-      bytesSize = tx.getInstance().toBuilder().clearRet().build().getSerializedSize();
+      bytesSize = tx.getSerializedSizeWithoutRet();
     } else {
       bytesSize = tx.getSerializedSize();
     }
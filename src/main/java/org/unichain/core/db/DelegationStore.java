@@ -9,11 +9,14 @@ import org.unichain.common.utils.ByteArray;
 import org.unichain.core.capsule.AccountCapsule;
 import org.unichain.core.capsule.BytesCapsule;
 
+import java.math.BigInteger;
+
 @Component
 public class DelegationStore extends UnichainStoreWithRevoking<BytesCapsule> {
 
   public static final long REMARK = -1L;
   public static final int DEFAULT_BROKERAGE = 40;
+  public static final BigInteger DECIMAL_OF_VI_REWARD = BigInteger.valueOf(10).pow(18);
 
   @Autowired
   public DelegationStore(@Value("delegation") String dbName) {
@@ -90,6 +93,30 @@ public class DelegationStore extends UnichainStoreWithRevoking<BytesCapsule> {
     }
   }
 
+  /**
+   * vi: the reward per vote of the witness summed over the cycles up to this one, scaled by
+   * {@link #DECIMAL_OF_VI_REWARD}. Written once the cycle has ended and its reward is final.
+   */
+  public void accumulateWitnessVi(long cycle, byte[] address) {
+    BigInteger vi = getWitnessVi(cycle - 1, address);
+    long reward = getReward(cycle, address);
+    long witnessVote = getWitnessVote(cycle, address);
+    if (reward > 0 && witnessVote != REMARK && witnessVote != 0) {
+      vi = vi.add(BigInteger.valueOf(reward).multiply(DECIMAL_OF_VI_REWARD)
+          .divide(BigInteger.valueOf(witnessVote)));
+    }
+    put(buildViKey(cycle, address), new BytesCapsule(vi.toByteArray()));
+  }
+
+  public BigInteger getWitnessVi(long cycle, byte[] address) {
+    BytesCapsule bytesCapsule = get(buildViKey(cycle, address));
+    if (bytesCapsule == null) {
+      return BigInteger.ZERO;
+    } else {
+      return new BigInteger(bytesCapsule.getData());
+    }
+  }
+
   public void setBrokerage(long cycle, byte[] address, int brokerage) {
     put(buildBrokerageKey(cycle, address), new BytesCapsule(ByteArray.fromInt(brokerage)));
   }
@@ -123,6 +150,10 @@ public class DelegationStore extends UnichainStoreWithRevoking<BytesCapsule> {
     return (cycle + "-" + Hex.toHexString(address) + "-account-vote").getBytes();
   }
 
+  private byte[] buildViKey(long cycle, byte[] address) {
+    return (cycle + "-" + Hex.toHexString(address) + "-vi").getBytes();
+  }
+
   private byte[] buildEndCycleKey(byte[] address) {
     return ("end-" + Hex.toHexString(address)).getBytes();
   }
@@ -12,9 +12,14 @@ import org.unichain.core.capsule.BytesCapsule;
 import org.unichain.core.config.Parameter;
 import org.unichain.core.config.Parameter.ChainConstant;
 import org.unichain.core.config.args.Args;
+import org.unichain.core.db.common.WrappedByteArray;
 
 import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
 @Slf4j(topic = "DB")
@@ -155,6 +160,24 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   //Used only for token updates, once，value is {0,1}
   private static final byte[] TOKEN_UPDATE_DONE = "TOKEN_UPDATE_DONE".getBytes();
 
+  //Used only for the future tick index backfill, once，value is {0,1}
+  private static final byte[] FUTURE_INDEX_DONE = "FUTURE_INDEX_DONE".getBytes();
+
+  //Used only for the token name index backfill, once，value is {0,1}
+  private static final byte[] TOKEN_NAME_INDEX_DONE = "TOKEN_NAME_INDEX_DONE".getBytes();
+
+  //Used only for the witness reward-per-vote backfill, once，value is {0,1}
+  private static final byte[] REWARD_VI_DONE = "REWARD_VI_DONE".getBytes();
+
+  //Used only for the witness vote delta backfill, once，value is {0,1}
+  private static final byte[] VOTE_DELTA_DONE = "VOTE_DELTA_DONE".getBytes();
+
+  //Bumped each maintenance once the vote deltas are tallied, older votes entries are stale
+  private static final byte[] VOTES_EPOCH = "VOTES_EPOCH".getBytes();
+
+  //Used only for the asset issue owner and name index backfill, once，value is {0,1}
+  private static final byte[] ASSET_ISSUE_INDEX_DONE = "ASSET_ISSUE_INDEX_DONE".getBytes();
+
   //This value is only allowed to be 0, 1, -1
   private static final byte[] ALLOW_TVM_TRANSFER_UNC = "ALLOW_TVM_TRANSFER_UNC".getBytes();
   private static final byte[] ALLOW_TVM_CONSTANTINOPLE = "ALLOW_TVM_CONSTANTINOPLE".getBytes();
@@ -172,11 +195,30 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
 
   private static final byte[] CURRENT_CYCLE_NUMBER = "CURRENT_CYCLE_NUMBER".getBytes();
   private static final byte[] CHANGE_DELEGATION = "CHANGE_DELEGATION".getBytes();
+  private static final byte[] NEW_REWARD_ALGORITHM_EFFECTIVE_CYCLE = "NEW_REWARD_ALGORITHM_EFFECTIVE_CYCLE".getBytes();
 
   //Future transfer unw/token
   private static final byte[] MAX_FUTURE_TRANSFER_TIME_RANGE_UNW = "MAX_FUTURE_TRANSFER_TIME_RANGE_UNW".getBytes();
   private static final byte[] MAX_FUTURE_TRANSFER_TIME_RANGE_TOKEN = "MAX_FUTURE_TRANSFER_TIME_RANGE_TOKEN".getBytes();
 
+  /**
+   * Decoded properties of the full node head, valid while the revoking db revision they were
+   * read at is current. Revoke, pop and reset bump the revision, writes go through put/delete.
+   */
+  private final Map<WrappedByteArray, CachedProperty> cache = new ConcurrentHashMap<>();
+
+  private static final class CachedProperty {
+
+    private final long revision;
+    private final BytesCapsule item;
+    private volatile Object decoded;
+
+    private CachedProperty(long revision, BytesCapsule item) {
+      this.revision = revision;
+      this.item = item;
+    }
+  }
+
   @Autowired
   private DynamicPropertiesStore(@Value("properties") String dbName) {
     super(dbName);
@@ -253,6 +295,42 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
       this.saveTokenUpdateDone(0);
     }
 
+    try {
+      this.getFutureIndexDone();
+    } catch (IllegalArgumentException e) {
+      this.saveFutureIndexDone(0);
+    }
+
+    try {
+      this.getTokenNameIndexDone();
+    } catch (IllegalArgumentException e) {
+      this.saveTokenNameIndexDone(0);
+    }
+
+    try {
+      this.getRewardViDone();
+    } catch (IllegalArgumentException e) {
+      this.saveRewardViDone(0);
+    }
+
+    try {
+      this.getVoteDeltaDone();
+    } catch (IllegalArgumentException e) {
+      this.saveVoteDeltaDone(0);
+    }
+
+    try {
+      this.getVotesEpoch();
+    } catch (IllegalArgumentException e) {
+      this.saveVotesEpoch(0);
+    }
+
+    try {
+      this.getAssetIssueIndexDone();
+    } catch (IllegalArgumentException e) {
+      this.saveAssetIssueIndexDone(0);
+    }
+
     try {
       this.getMaxFrozenTime();
     } catch (IllegalArgumentException e) {
@@ -651,11 +729,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getTokenIdNum() {
-    return Optional.ofNullable(getUnchecked(TOKEN_ID_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOKEN_ID_NUM"));
+    return getLong(TOKEN_ID_NUM, () -> new IllegalArgumentException("not found TOKEN_ID_NUM"));
   }
 
   public void saveTokenUpdateDone(long num) {
@@ -664,11 +738,61 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getTokenUpdateDone() {
-    return Optional.ofNullable(getUnchecked(TOKEN_UPDATE_DONE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOKEN_UPDATE_DONE"));
+    return getLong(TOKEN_UPDATE_DONE, () -> new IllegalArgumentException("not found TOKEN_UPDATE_DONE"));
+  }
+
+  public void saveFutureIndexDone(long num) {
+    this.put(FUTURE_INDEX_DONE,
+        new BytesCapsule(ByteArray.fromLong(num)));
+  }
+
+  public long getFutureIndexDone() {
+    return getLong(FUTURE_INDEX_DONE, () -> new IllegalArgumentException("not found FUTURE_INDEX_DONE"));
+  }
+
+  public void saveTokenNameIndexDone(long num) {
+    this.put(TOKEN_NAME_INDEX_DONE,
+        new BytesCapsule(ByteArray.fromLong(num)));
+  }
+
+  public long getTokenNameIndexDone() {
+    return getLong(TOKEN_NAME_INDEX_DONE, () -> new IllegalArgumentException("not found TOKEN_NAME_INDEX_DONE"));
+  }
+
+  public void saveRewardViDone(long num) {
+    this.put(REWARD_VI_DONE,
+        new BytesCapsule(ByteArray.fromLong(num)));
+  }
+
+  public long getRewardViDone() {
+    return getLong(REWARD_VI_DONE, () -> new IllegalArgumentException("not found REWARD_VI_DONE"));
+  }
+
+  public void saveVoteDeltaDone(long num) {
+    this.put(VOTE_DELTA_DONE,
+        new BytesCapsule(ByteArray.fromLong(num)));
+  }
+
+  public long getVoteDeltaDone() {
+    return getLong(VOTE_DELTA_DONE, () -> new IllegalArgumentException("not found VOTE_DELTA_DONE"));
+  }
+
+  public void saveVotesEpoch(long num) {
+    this.put(VOTES_EPOCH,
+        new BytesCapsule(ByteArray.fromLong(num)));
+  }
+
+  public long getVotesEpoch() {
+    return getLong(VOTES_EPOCH, () -> new IllegalArgumentException("not found VOTES_EPOCH"));
+  }
+
+  public void saveAssetIssueIndexDone(long num) {
+    this.put(ASSET_ISSUE_INDEX_DONE,
+        new BytesCapsule(ByteArray.fromLong(num)));
+  }
+
+  public long getAssetIssueIndexDone() {
+    return getLong(ASSET_ISSUE_INDEX_DONE, () -> new IllegalArgumentException("not found ASSET_ISSUE_INDEX_DONE"));
   }
 
 
@@ -679,11 +803,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public int getBlockFilledSlotsIndex() {
-    return Optional.ofNullable(getUnchecked(BLOCK_FILLED_SLOTS_INDEX))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found BLOCK_FILLED_SLOTS_INDEX"));
+    return getInt(BLOCK_FILLED_SLOTS_INDEX, () -> new IllegalArgumentException("not found BLOCK_FILLED_SLOTS_INDEX"));
   }
 
   public void saveMaxFrozenTime(int maxFrozenTime) {
@@ -693,11 +813,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public int getMaxFrozenTime() {
-    return Optional.ofNullable(getUnchecked(MAX_FROZEN_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MAX_FROZEN_TIME"));
+    return getInt(MAX_FROZEN_TIME, () -> new IllegalArgumentException("not found MAX_FROZEN_TIME"));
   }
 
   public void saveMinFrozenTime(int minFrozenTime) {
@@ -707,11 +823,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public int getMinFrozenTime() {
-    return Optional.ofNullable(getUnchecked(MIN_FROZEN_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MIN_FROZEN_TIME"));
+    return getInt(MIN_FROZEN_TIME, () -> new IllegalArgumentException("not found MIN_FROZEN_TIME"));
   }
 
   public void saveMaxFrozenSupplyNumber(int maxFrozenSupplyNumber) {
@@ -721,11 +833,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public int getMaxFrozenSupplyNumber() {
-    return Optional.ofNullable(getUnchecked(MAX_FROZEN_SUPPLY_NUMBER))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MAX_FROZEN_SUPPLY_NUMBER"));
+    return getInt(MAX_FROZEN_SUPPLY_NUMBER, () -> new IllegalArgumentException("not found MAX_FROZEN_SUPPLY_NUMBER"));
   }
 
   public void saveMaxFrozenSupplyTime(int maxFrozenSupplyTime) {
@@ -735,11 +843,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public int getMaxFrozenSupplyTime() {
-    return Optional.ofNullable(getUnchecked(MAX_FROZEN_SUPPLY_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MAX_FROZEN_SUPPLY_TIME"));
+    return getInt(MAX_FROZEN_SUPPLY_TIME, () -> new IllegalArgumentException("not found MAX_FROZEN_SUPPLY_TIME"));
   }
 
   public void saveMinFrozenSupplyTime(int minFrozenSupplyTime) {
@@ -749,11 +853,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public int getMinFrozenSupplyTime() {
-    return Optional.ofNullable(getUnchecked(MIN_FROZEN_SUPPLY_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MIN_FROZEN_SUPPLY_TIME"));
+    return getInt(MIN_FROZEN_SUPPLY_TIME, () -> new IllegalArgumentException("not found MIN_FROZEN_SUPPLY_TIME"));
   }
 
   public void saveWitnessAllowanceFrozenTime(int witnessAllowanceFrozenTime) {
@@ -763,11 +863,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public int getWitnessAllowanceFrozenTime() {
-    return Optional.ofNullable(getUnchecked(WITNESS_ALLOWANCE_FROZEN_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found WITNESS_ALLOWANCE_FROZEN_TIME"));
+    return getInt(WITNESS_ALLOWANCE_FROZEN_TIME, () -> new IllegalArgumentException("not found WITNESS_ALLOWANCE_FROZEN_TIME"));
   }
 
   public void saveMaintenanceTimeInterval(long timeInterval) {
@@ -777,11 +873,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getMaintenanceTimeInterval() {
-    return Optional.ofNullable(getUnchecked(MAINTENANCE_TIME_INTERVAL))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MAINTENANCE_TIME_INTERVAL"));
+    return getLong(MAINTENANCE_TIME_INTERVAL, () -> new IllegalArgumentException("not found MAINTENANCE_TIME_INTERVAL"));
   }
 
   public void saveAccountUpgradeCost(long accountUpgradeCost) {
@@ -791,11 +883,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getAccountUpgradeCost() {
-    return Optional.ofNullable(getUnchecked(ACCOUNT_UPGRADE_COST))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ACCOUNT_UPGRADE_COST"));
+    return getLong(ACCOUNT_UPGRADE_COST, () -> new IllegalArgumentException("not found ACCOUNT_UPGRADE_COST"));
   }
 
   public void saveWitnessPayPerBlock(long pay) {
@@ -805,11 +893,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getWitnessPayPerBlock() {
-    return Optional.ofNullable(getUnchecked(WITNESS_PAY_PER_BLOCK))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found WITNESS_PAY_PER_BLOCK"));
+    return getLong(WITNESS_PAY_PER_BLOCK, () -> new IllegalArgumentException("not found WITNESS_PAY_PER_BLOCK"));
   }
 
   public void saveWitness55PayPerBlock(long pay) {
@@ -819,10 +903,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getWitness55PayPerBlock() {
-    return Optional.ofNullable(getUnchecked(WITNESS_55_PAY_PER_BLOCK))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElse(1000000L);
+    return getLong(WITNESS_55_PAY_PER_BLOCK, 1000000L);
   }
 
   public void saveWitnessStandbyAllowance(long allowance) {
@@ -832,11 +913,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getWitnessStandbyAllowance() {
-    return Optional.ofNullable(getUnchecked(WITNESS_STANDBY_ALLOWANCE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found WITNESS_STANDBY_ALLOWANCE"));
+    return getLong(WITNESS_STANDBY_ALLOWANCE, () -> new IllegalArgumentException("not found WITNESS_STANDBY_ALLOWANCE"));
   }
 
   public void saveHardForkVersion(long blockVersion) {
@@ -1098,11 +1175,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getEnergyFee() {
-    return Optional.ofNullable(getUnchecked(ENERGY_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ENERGY_FEE"));
+    return getLong(ENERGY_FEE, () -> new IllegalArgumentException("not found ENERGY_FEE"));
   }
 
   public void saveMaxCpuTimeOfOneTx(long time) {
@@ -1111,11 +1184,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getMaxCpuTimeOfOneTx() {
-    return Optional.ofNullable(getUnchecked(MAX_CPU_TIME_OF_ONE_TX))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MAX_CPU_TIME_OF_ONE_TX"));
+    return getLong(MAX_CPU_TIME_OF_ONE_TX, () -> new IllegalArgumentException("not found MAX_CPU_TIME_OF_ONE_TX"));
   }
 
   public void saveCreateAccountFee(long fee) {
@@ -1124,11 +1193,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getCreateAccountFee() {
-    return Optional.ofNullable(getUnchecked(CREATE_ACCOUNT_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found CREATE_ACCOUNT_FEE"));
+    return getLong(CREATE_ACCOUNT_FEE, () -> new IllegalArgumentException("not found CREATE_ACCOUNT_FEE"));
   }
 
 
@@ -1138,11 +1203,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getCreateNewAccountFeeInSystemContract() {
-    return Optional.ofNullable(getUnchecked(CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(
+    return getLong(CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT, () -> new IllegalArgumentException(
                 "not found CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT"));
   }
 
@@ -1152,11 +1213,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getCreateNewAccountBandwidthRate() {
-    return Optional.ofNullable(getUnchecked(CREATE_NEW_ACCOUNT_BANDWIDTH_RATE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(
+    return getLong(CREATE_NEW_ACCOUNT_BANDWIDTH_RATE, () -> new IllegalArgumentException(
                 "not found CREATE_NsEW_ACCOUNT_BANDWIDTH_RATE2"));
   }
 
@@ -1166,11 +1223,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getTransactionFee() {
-    return Optional.ofNullable(getUnchecked(TRANSACTION_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TRANSACTION_FEE"));
+    return getLong(TRANSACTION_FEE, () -> new IllegalArgumentException("not found TRANSACTION_FEE"));
   }
 
   public void saveAssetIssueFee(long fee) {
@@ -1195,35 +1248,19 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
 
 
   public long getAssetIssueFee() {
-    return Optional.ofNullable(getUnchecked(ASSET_ISSUE_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ASSET_ISSUE_FEE"));
+    return getLong(ASSET_ISSUE_FEE, () -> new IllegalArgumentException("not found ASSET_ISSUE_FEE"));
   }
 
   public long getAssetUpdateFee() {
-    return Optional.ofNullable(getUnchecked(ASSET_UPDATE_FEE))
-            .map(BytesCapsule::getData)
-            .map(ByteArray::toLong)
-            .orElseThrow(
-                    () -> new IllegalArgumentException("not found ASSET_UPDATE_FEE"));
+    return getLong(ASSET_UPDATE_FEE, () -> new IllegalArgumentException("not found ASSET_UPDATE_FEE"));
   }
 
   public long getUpdateAccountPermissionFee() {
-    return Optional.ofNullable(getUnchecked(UPDATE_ACCOUNT_PERMISSION_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found UPDATE_ACCOUNT_PERMISSION_FEE"));
+    return getLong(UPDATE_ACCOUNT_PERMISSION_FEE, () -> new IllegalArgumentException("not found UPDATE_ACCOUNT_PERMISSION_FEE"));
   }
 
   public long getMultiSignFee() {
-    return Optional.ofNullable(getUnchecked(MULTI_SIGN_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MULTI_SIGN_FEE"));
+    return getLong(MULTI_SIGN_FEE, () -> new IllegalArgumentException("not found MULTI_SIGN_FEE"));
   }
 
 
@@ -1233,11 +1270,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getExchangeCreateFee() {
-    return Optional.ofNullable(getUnchecked(EXCHANGE_CREATE_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found EXCHANGE_CREATE_FEE"));
+    return getLong(EXCHANGE_CREATE_FEE, () -> new IllegalArgumentException("not found EXCHANGE_CREATE_FEE"));
   }
 
   public void saveExchangeBalanceLimit(long limit) {
@@ -1246,11 +1279,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getExchangeBalanceLimit() {
-    return Optional.ofNullable(getUnchecked(EXCHANGE_BALANCE_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found EXCHANGE_BALANCE_LIMIT"));
+    return getLong(EXCHANGE_BALANCE_LIMIT, () -> new IllegalArgumentException("not found EXCHANGE_BALANCE_LIMIT"));
   }
 
   public void saveTotalTransactionCost(long value) {
@@ -1259,11 +1288,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getTotalTransactionCost() {
-    return Optional.ofNullable(getUnchecked(TOTAL_TRANSACTION_COST))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_TRANSACTION_COST"));
+    return getLong(TOTAL_TRANSACTION_COST, () -> new IllegalArgumentException("not found TOTAL_TRANSACTION_COST"));
   }
 
   public void saveTotalCreateAccountFee(long value) {
@@ -1272,11 +1297,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getTotalCreateAccountCost() {
-    return Optional.ofNullable(getUnchecked(TOTAL_CREATE_ACCOUNT_COST))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_CREATE_ACCOUNT_COST"));
+    return getLong(TOTAL_CREATE_ACCOUNT_COST, () -> new IllegalArgumentException("not found TOTAL_CREATE_ACCOUNT_COST"));
   }
 
   public void saveTotalCreateWitnessFee(long value) {
@@ -1285,11 +1306,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getTotalCreateWitnessCost() {
-    return Optional.ofNullable(getUnchecked(TOTAL_CREATE_WITNESS_COST))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_CREATE_WITNESS_COST"));
+    return getLong(TOTAL_CREATE_WITNESS_COST, () -> new IllegalArgumentException("not found TOTAL_CREATE_WITNESS_COST"));
   }
 
   public void saveTotalStoragePool(long unx) {
@@ -1298,11 +1315,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getTotalStoragePool() {
-    return Optional.ofNullable(getUnchecked(TOTAL_STORAGE_POOL))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_STORAGE_POOL"));
+    return getLong(TOTAL_STORAGE_POOL, () -> new IllegalArgumentException("not found TOTAL_STORAGE_POOL"));
   }
 
   public void saveTotalStorageTax(long unx) {
@@ -1311,11 +1324,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getTotalStorageTax() {
-    return Optional.ofNullable(getUnchecked(TOTAL_STORAGE_TAX))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_STORAGE_TAX"));
+    return getLong(TOTAL_STORAGE_TAX, () -> new IllegalArgumentException("not found TOTAL_STORAGE_TAX"));
   }
 
   public void saveTotalStorageReserved(long bytes) {
@@ -1324,11 +1333,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getTotalStorageReserved() {
-    return Optional.ofNullable(getUnchecked(TOTAL_STORAGE_RESERVED))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_STORAGE_RESERVED"));
+    return getLong(TOTAL_STORAGE_RESERVED, () -> new IllegalArgumentException("not found TOTAL_STORAGE_RESERVED"));
   }
 
   public void saveStorageExchangeTaxRate(long rate) {
@@ -1337,11 +1342,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getStorageExchangeTaxRate() {
-    return Optional.ofNullable(getUnchecked(STORAGE_EXCHANGE_TAX_RATE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found STORAGE_EXCHANGE_TAX_RATE"));
+    return getLong(STORAGE_EXCHANGE_TAX_RATE, () -> new IllegalArgumentException("not found STORAGE_EXCHANGE_TAX_RATE"));
   }
 
   public void saveRemoveThePowerOfTheGr(long rate) {
@@ -1350,11 +1351,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getRemoveThePowerOfTheGr() {
-    return Optional.ofNullable(getUnchecked(REMOVE_THE_POWER_OF_THE_GR))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found REMOVE_THE_POWER_OF_THE_GR"));
+    return getLong(REMOVE_THE_POWER_OF_THE_GR, () -> new IllegalArgumentException("not found REMOVE_THE_POWER_OF_THE_GR"));
   }
 
   public void saveAllowDelegateResource(long value) {
@@ -1363,11 +1360,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getAllowDelegateResource() {
-    return Optional.ofNullable(getUnchecked(ALLOW_DELEGATE_RESOURCE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_DELEGATE_RESOURCE"));
+    return getLong(ALLOW_DELEGATE_RESOURCE, () -> new IllegalArgumentException("not found ALLOW_DELEGATE_RESOURCE"));
   }
 
   public void saveAllowAdaptiveEnergy(long value) {
@@ -1376,11 +1369,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getAllowAdaptiveEnergy() {
-    return Optional.ofNullable(getUnchecked(ALLOW_ADAPTIVE_ENERGY))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_ADAPTIVE_ENERGY"));
+    return getLong(ALLOW_ADAPTIVE_ENERGY, () -> new IllegalArgumentException("not found ALLOW_ADAPTIVE_ENERGY"));
   }
 
   public void saveAllowTvmTransferUnc(long value) {
@@ -1389,11 +1378,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getAllowTvmTransferUnc() {
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_TRANSFER_UNC))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_TVM_TRANSFER_UNC"));
+    return getLong(ALLOW_TVM_TRANSFER_UNC, () -> new IllegalArgumentException("not found ALLOW_TVM_TRANSFER_UNC"));
   }
 
   public void saveAllowTvmConstantinople(long value) {
@@ -1402,11 +1387,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getAllowTvmConstantinople() {
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_CONSTANTINOPLE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_TVM_CONSTANTINOPLE"));
+    return getLong(ALLOW_TVM_CONSTANTINOPLE, () -> new IllegalArgumentException("not found ALLOW_TVM_CONSTANTINOPLE"));
   }
 
 
@@ -1416,10 +1397,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getAllowUvmSolidity059() {
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_SOLIDITY_059))
-            .map(BytesCapsule::getData)
-            .map(ByteArray::toLong)
-            .orElseThrow(() -> new IllegalArgumentException("not found ALLOW_TVM_SOLIDITY_059"));
+    return getLong(ALLOW_TVM_SOLIDITY_059, () -> new IllegalArgumentException("not found ALLOW_TVM_SOLIDITY_059"));
   }
 
 
@@ -1478,11 +1456,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getAllowUpdateAccountName() {
-    return Optional.ofNullable(getUnchecked(ALLOW_UPDATE_ACCOUNT_NAME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_UPDATE_ACCOUNT_NAME"));
+    return getLong(ALLOW_UPDATE_ACCOUNT_NAME, () -> new IllegalArgumentException("not found ALLOW_UPDATE_ACCOUNT_NAME"));
   }
 
   public void saveAllowSameTokenName(long rate) {
@@ -1491,11 +1465,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getAllowSameTokenName() {
-    return Optional.ofNullable(getUnchecked(ALLOW_SAME_TOKEN_NAME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_SAME_TOKEN_NAME"));
+    return getLong(ALLOW_SAME_TOKEN_NAME, () -> new IllegalArgumentException("not found ALLOW_SAME_TOKEN_NAME"));
   }
 
   public void saveAllowCreationOfContracts(long allowCreationOfContracts) {
@@ -1509,11 +1479,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public int getTotalSignNum() {
-    return Optional.ofNullable(getUnchecked(TOTAL_SIGN_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_SIGN_NUM"));
+    return getInt(TOTAL_SIGN_NUM, () -> new IllegalArgumentException("not found TOTAL_SIGN_NUM"));
   }
 
   public void saveAllowMultiSign(long allowMultiSing) {
@@ -1522,19 +1488,11 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getAllowMultiSign() {
-    return Optional.ofNullable(getUnchecked(ALLOW_MULTI_SIGN))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_MULTI_SIGN"));
+    return getLong(ALLOW_MULTI_SIGN, () -> new IllegalArgumentException("not found ALLOW_MULTI_SIGN"));
   }
 
   public long getAllowCreationOfContracts() {
-    return Optional.ofNullable(getUnchecked(ALLOW_CREATION_OF_CONTRACTS))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_CREATION_OF_CONTRACTS"));
+    return getLong(ALLOW_CREATION_OF_CONTRACTS, () -> new IllegalArgumentException("not found ALLOW_CREATION_OF_CONTRACTS"));
   }
 
   public boolean supportVM() {
@@ -1580,11 +1538,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
 
 
   public long getLatestSolidifiedBlockNum() {
-    return Optional.ofNullable(getUnchecked(LATEST_SOLIDIFIED_BLOCK_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found latest SOLIDIFIED_BLOCK_NUM"));
+    return getLong(LATEST_SOLIDIFIED_BLOCK_NUM, () -> new IllegalArgumentException("not found latest SOLIDIFIED_BLOCK_NUM"));
   }
 
   public void saveLatestProposalNum(long number) {
@@ -1592,11 +1546,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getLatestProposalNum() {
-    return Optional.ofNullable(getUnchecked(LATEST_PROPOSAL_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found latest PROPOSAL_NUM"));
+    return getLong(LATEST_PROPOSAL_NUM, () -> new IllegalArgumentException("not found latest PROPOSAL_NUM"));
   }
 
   public void saveLatestExchangeNum(long number) {
@@ -1604,57 +1554,36 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getLatestExchangeNum() {
-    return Optional.ofNullable(getUnchecked(LATEST_EXCHANGE_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found latest EXCHANGE_NUM"));
+    return getLong(LATEST_EXCHANGE_NUM, () -> new IllegalArgumentException("not found latest EXCHANGE_NUM"));
   }
 
   /**
    * get timestamp of creating global latest block.
    */
   public long getLatestBlockHeaderTimestamp() {
-    return Optional.ofNullable(getUnchecked(LATEST_BLOCK_HEADER_TIMESTAMP))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found latest block header timestamp"));
+    return getLong(LATEST_BLOCK_HEADER_TIMESTAMP, () -> new IllegalArgumentException("not found latest block header timestamp"));
   }
 
   /**
    * get timestamp of creating global latest block.
    */
   public long getMaxFutureTransferTimeRangeUnw() {
-    return Optional.ofNullable(getUnchecked(MAX_FUTURE_TRANSFER_TIME_RANGE_UNW))
-            .map(BytesCapsule::getData)
-            .map(ByteArray::toLong)
-            .orElse(Parameter.ChainConstant.MAX_FUTURE_TRANSFER_TIME_RANGE_UNW);
+    return getLong(MAX_FUTURE_TRANSFER_TIME_RANGE_UNW, Parameter.ChainConstant.MAX_FUTURE_TRANSFER_TIME_RANGE_UNW);
   }
 
   public long getMaxFutureTransferTimeRangeToken() {
-    return Optional.ofNullable(getUnchecked(MAX_FUTURE_TRANSFER_TIME_RANGE_TOKEN))
-            .map(BytesCapsule::getData)
-            .map(ByteArray::toLong)
-            .orElse(Parameter.ChainConstant.MAX_FUTURE_TRANSFER_TIME_RANGE_TOKEN);
+    return getLong(MAX_FUTURE_TRANSFER_TIME_RANGE_TOKEN, Parameter.ChainConstant.MAX_FUTURE_TRANSFER_TIME_RANGE_TOKEN);
   }
 
   /**
    * get number of global latest block.
    */
   public long getLatestBlockHeaderNumber() {
-    return Optional.ofNullable(getUnchecked(LATEST_BLOCK_HEADER_NUMBER))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found latest block header number"));
+    return getLong(LATEST_BLOCK_HEADER_NUMBER, () -> new IllegalArgumentException("not found latest block header number"));
   }
 
   public int getStateFlag() {
-    return Optional.ofNullable(getUnchecked(STATE_FLAG))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(() -> new IllegalArgumentException("not found maintenance flag"));
+    return getInt(STATE_FLAG, () -> new IllegalArgumentException("not found maintenance flag"));
   }
 
   /**
@@ -1699,11 +1628,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
 
 
   public long getNextMaintenanceTime() {
-    return Optional.ofNullable(getUnchecked(NEXT_MAINTENANCE_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found NEXT_MAINTENANCE_TIME"));
+    return getLong(NEXT_MAINTENANCE_TIME, () -> new IllegalArgumentException("not found NEXT_MAINTENANCE_TIME"));
   }
 
   public long getMaintenanceSkipSlots() {
@@ -1750,11 +1675,103 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
     saveTotalCreateAccountFee(newValue);
   }
 
+  /**
+   * properties only ever changed by adding to them, so changes of several writers add up.
+   */
+  public static boolean isCounter(byte[] key) {
+    return Arrays.equals(key, TOTAL_TRANSACTION_COST) || Arrays.equals(key, TOTAL_CREATE_ACCOUNT_COST);
+  }
+
   public void addTotalCreateWitnessCost(long fee) {
     long newValue = getTotalCreateWitnessCost() + fee;
     saveTotalCreateWitnessFee(newValue);
   }
 
+  @Override
+  public synchronized void put(byte[] key, BytesCapsule item) {
+    if (Objects.isNull(key) || Objects.isNull(item)) {
+      return;
+    }
+
+    long revision = revokingDB.getRevision();
+    super.put(key, item);
+    if (revision < 0) {
+      cache.remove(WrappedByteArray.of(key));
+    } else {
+      cache.put(WrappedByteArray.copyOf(key), new CachedProperty(revision, new BytesCapsule(item.getData())));
+    }
+  }
+
+  @Override
+  public synchronized void delete(byte[] key) {
+    super.delete(key);
+    cache.remove(WrappedByteArray.of(key));
+  }
+
+  @Override
+  public BytesCapsule getUnchecked(byte[] key) {
+    return lookup(key).item;
+  }
+
+  private CachedProperty lookup(byte[] key) {
+    long revision = revokingDB.getRevision();
+    if (revision < 0) {
+      return new CachedProperty(revision, super.getUnchecked(key));
+    }
+
+    WrappedByteArray wrapped = WrappedByteArray.of(key);
+    CachedProperty property = cache.get(wrapped);
+    if (property != null && property.revision == revision) {
+      return property;
+    }
+
+    synchronized (this) {
+      revision = revokingDB.getRevision();
+      property = new CachedProperty(revision, super.getUnchecked(key));
+      cache.put(WrappedByteArray.copyOf(key), property);
+      return property;
+    }
+  }
+
+  private long getLong(byte[] key, Supplier<IllegalArgumentException> notFound) {
+    CachedProperty property = lookup(key);
+    Object decoded = property.decoded;
+    if (decoded == null) {
+      byte[] data = property.item.getData();
+      if (data == null) {
+        throw notFound.get();
+      }
+      decoded = ByteArray.toLong(data);
+      property.decoded = decoded;
+    }
+    return (Long) decoded;
+  }
+
+  private long getLong(byte[] key, long defaultValue) {
+    CachedProperty property = lookup(key);
+    Object decoded = property.decoded;
+    if (decoded == null) {
+      byte[] data = property.item.getData();
+      decoded = data == null ? defaultValue : ByteArray.toLong(data);
+      property.decoded = decoded;
+    }
+    return (Long) decoded;
+  }
+
+  private int getInt(byte[] key, Supplier<IllegalArgumentException> notFound) {
+    CachedProperty property = lookup(key);
+    Object decoded = property.decoded;
+    if (decoded == null) {
+      byte[] data = property.item.getData();
+      if (data == null) {
+        throw notFound.get();
+      }
+      decoded = ByteArray.toInt(data);
+      property.decoded = decoded;
+    }
+    return (Integer) decoded;
+  }
+
   public void addTotalTransactionCost(long fee) {
     long newValue = getTotalTransactionCost() + fee;
     saveTotalTransactionCost(newValue);
@@ -1783,10 +1800,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
    * get allow protobuf number.
    */
   public long getAllowProtoFilterNum() {
-    return Optional.ofNullable(getUnchecked(ALLOW_PROTO_FILTER_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(() -> new IllegalArgumentException("not found allow protobuf number"));
+    return getLong(ALLOW_PROTO_FILTER_NUM, () -> new IllegalArgumentException("not found allow protobuf number"));
   }
 
   /**
@@ -1803,11 +1817,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getAllowAccountStateRoot() {
-    return Optional.ofNullable(getUnchecked(ALLOW_ACCOUNT_STATE_ROOT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_ACCOUNT_STATE_ROOT"));
+    return getLong(ALLOW_ACCOUNT_STATE_ROOT, () -> new IllegalArgumentException("not found ALLOW_ACCOUNT_STATE_ROOT"));
   }
 
   public boolean allowAccountStateRoot() {
@@ -1815,10 +1825,7 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getCurrentCycleNumber() {
-    return Optional.ofNullable(getUnchecked(CURRENT_CYCLE_NUMBER))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElse(0L);
+    return getLong(CURRENT_CYCLE_NUMBER, 0L);
   }
 
   public void saveCurrentCycleNumber(long number) {
@@ -1831,14 +1838,29 @@ public class DynamicPropertiesStore extends UnichainStoreWithRevoking<BytesCapsu
   }
 
   public long getChangeDelegation() {
-    return Optional.ofNullable(getUnchecked(CHANGE_DELEGATION))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElse(1L);
+    return getLong(CHANGE_DELEGATION, 1L);
   }
 
   public boolean allowChangeDelegation() {
     return getChangeDelegation() == 1;
   }
 
+  /**
+   * the next cycle is the first one rewarded off the witness reward-per-vote index.
+   */
+  public void saveNewRewardAlgorithmEffectiveCycle() {
+    if (getNewRewardAlgorithmEffectiveCycle() == Long.MAX_VALUE) {
+      this.put(NEW_REWARD_ALGORITHM_EFFECTIVE_CYCLE,
+          new BytesCapsule(ByteArray.fromLong(getCurrentCycleNumber() + 1)));
+    }
+  }
+
+  public long getNewRewardAlgorithmEffectiveCycle() {
+    return getLong(NEW_REWARD_ALGORITHM_EFFECTIVE_CYCLE, Long.MAX_VALUE);
+  }
+
+  public boolean allowNewRewardAlgorithm() {
+    return getNewRewardAlgorithmEffectiveCycle() != Long.MAX_VALUE;
+  }
+
 }
@@ -0,0 +1,51 @@
+package org.unichain.core.db;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.unichain.core.capsule.BytesCapsule;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Ordered index of future token ticks: owner | token | dayTick -> tick key in {@link FutureTokenStore}.
+ */
+@Slf4j(topic = "DB")
+@Component
+public class FutureTokenIndexStore extends UnichainStoreWithRevoking<BytesCapsule> {
+
+  @Autowired
+  protected FutureTokenIndexStore(@Value("token-future-index") String dbName) {
+    super(dbName);
+  }
+
+  public void put(byte[] ownerAddress, byte[] tokenKey, long dayTick, byte[] tickKey) {
+    put(makeKey(ownerAddress, tokenKey, dayTick), new BytesCapsule(tickKey));
+  }
+
+  public void delete(byte[] ownerAddress, byte[] tokenKey, long dayTick) {
+    delete(makeKey(ownerAddress, tokenKey, dayTick));
+  }
+
+  /**
+   * tick keys in expire order, skipping the first offset ticks.
+   */
+  public List<byte[]> getTickKeys(byte[] ownerAddress, byte[] tokenKey, long offset, long limit) {
+    return revokingDB.getRange(makeKey(ownerAddress, tokenKey, 0),
+        makeKey(ownerAddress, tokenKey, Long.MAX_VALUE), offset, limit).stream()
+        .map(Map.Entry::getValue)
+        .collect(Collectors.toList());
+  }
+
+  // token length is encoded so that a token name never prefixes another one
+  private static byte[] makeKey(byte[] ownerAddress, byte[] tokenKey, long dayTick) {
+    return Bytes.concat(ownerAddress, Ints.toByteArray(tokenKey.length), tokenKey,
+        Longs.toByteArray(dayTick));
+  }
+}
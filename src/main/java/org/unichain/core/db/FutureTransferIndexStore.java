@@ -0,0 +1,48 @@
+package org.unichain.core.db;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Longs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.unichain.core.capsule.BytesCapsule;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Ordered index of future transfer ticks: owner | dayTick -> tick key in {@link FutureTransferStore}.
+ */
+@Slf4j(topic = "DB")
+@Component
+public class FutureTransferIndexStore extends UnichainStoreWithRevoking<BytesCapsule> {
+
+  @Autowired
+  protected FutureTransferIndexStore(@Value("future-transfer-index") String dbName) {
+    super(dbName);
+  }
+
+  public void put(byte[] ownerAddress, long dayTick, byte[] tickKey) {
+    put(makeKey(ownerAddress, dayTick), new BytesCapsule(tickKey));
+  }
+
+  public void delete(byte[] ownerAddress, long dayTick) {
+    delete(makeKey(ownerAddress, dayTick));
+  }
+
+  /**
+   * tick keys in expire order, skipping the first offset ticks.
+   */
+  public List<byte[]> getTickKeys(byte[] ownerAddress, long offset, long limit) {
+    return revokingDB.getRange(makeKey(ownerAddress, 0), makeKey(ownerAddress, Long.MAX_VALUE),
+        offset, limit).stream()
+        .map(Map.Entry::getValue)
+        .collect(Collectors.toList());
+  }
+
+  private static byte[] makeKey(byte[] ownerAddress, long dayTick) {
+    return Bytes.concat(ownerAddress, Longs.toByteArray(dayTick));
+  }
+}
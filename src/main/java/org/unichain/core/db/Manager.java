@@ -2,13 +2,9 @@ package org.unichain.core.db;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.primitives.Longs;
-import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import javafx.util.Pair;
@@ -37,13 +33,19 @@ import org.unichain.core.Constant;
 import org.unichain.core.capsule.*;
 import org.unichain.core.capsule.BlockCapsule.BlockId;
 import org.unichain.core.capsule.utils.BlockUtil;
+import org.unichain.core.capsule.utils.SignatureRecoveryCache;
 import org.unichain.core.config.Parameter.ChainConstant;
 import org.unichain.core.config.args.Args;
 import org.unichain.core.config.args.GenesisBlock;
 import org.unichain.core.db.KhaosDatabase.KhaosBlock;
 import org.unichain.core.db.accountstate.TrieService;
 import org.unichain.core.db.accountstate.callback.AccountStateCallBack;
+import org.unichain.core.db.api.AssetIssueIndexHelper;
 import org.unichain.core.db.api.AssetUpdateHelper;
+import org.unichain.core.db.api.FutureIndexHelper;
+import org.unichain.core.db.api.RewardViHelper;
+import org.unichain.core.db.api.TokenNameIndexHelper;
+import org.unichain.core.db.api.VoteDeltaHelper;
 import org.unichain.core.db2.core.ISession;
 import org.unichain.core.db2.core.IUnichainChainBase;
 import org.unichain.core.db2.core.SnapshotManager;
@@ -67,7 +69,6 @@ import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
-import java.util.stream.LongStream;
 
 import static org.unichain.core.config.Parameter.ChainConstant.*;
 import static org.unichain.core.config.Parameter.NodeConstant.MAX_TRANSACTION_PENDING;
@@ -76,6 +77,9 @@ import static org.unichain.core.config.Parameter.NodeConstant.MAX_TRANSACTION_PE
 @Slf4j(topic = "DB")
 @Component
 public class Manager {
+  private static final long RECENT_BLOCK_COUNT = 1L << 16;
+  private static final long INIT_CACHE_BATCH = 100;
+
   @Getter
   @Autowired
   private DelegationStore delegationStore;
@@ -99,9 +103,23 @@ public class Manager {
   @Autowired
   private FutureTransferStore futureTransferStore;
 
+  @Autowired
+  @Getter
+  private FutureTokenIndexStore futureTokenIndexStore;
+
+  @Autowired
+  @Getter
+  private FutureTransferIndexStore futureTransferIndexStore;
+
+  @Autowired
+  @Getter
+  private TokenNameIndexStore tokenNameIndexStore;
+
   @Autowired
   private AssetIssueV2Store assetIssueV2Store;
   @Autowired
+  private AssetIssueIndexStore assetIssueIndexStore;
+  @Autowired
   private DynamicPropertiesStore dynamicPropertiesStore;
   @Autowired
   @Getter
@@ -120,6 +138,8 @@ public class Manager {
   @Autowired
   private VotesStore votesStore;
   @Autowired
+  private WitnessVoteDeltaStore witnessVoteDeltaStore;
+  @Autowired
   private ProposalStore proposalStore;
   @Autowired
   private ExchangeStore exchangeStore;
@@ -179,6 +199,8 @@ public class Manager {
 
   private ExecutorService validateSignService;
 
+  private ParallelTransactionExecutor parallelExecutor;
+
   private boolean isRunRepushThread = true;
 
   private boolean isRunTriggerCapsuleProcessThread = true;
@@ -456,12 +478,36 @@ public class Manager {
       new AssetUpdateHelper(this).doWork();
     }
 
+    if (getDynamicPropertiesStore().getFutureIndexDone() == 0L) {
+      new FutureIndexHelper(this).doWork();
+    }
+
+    if (getDynamicPropertiesStore().getTokenNameIndexDone() == 0L) {
+      new TokenNameIndexHelper(this).doWork();
+    }
+
+    if (getDynamicPropertiesStore().getRewardViDone() == 0L) {
+      new RewardViHelper(this).doWork();
+    }
+
+    if (getDynamicPropertiesStore().getVoteDeltaDone() == 0L) {
+      new VoteDeltaHelper(this).doWork();
+    }
+
+    if (getDynamicPropertiesStore().getAssetIssueIndexDone() == 0L) {
+      new AssetIssueIndexHelper(this).doWork();
+    }
+
     //for test only
     dynamicPropertiesStore.updateDynamicStoreByConfig();
 
     initCacheTxs();
     revokingStore.enable();
     validateSignService = Executors.newFixedThreadPool(Args.getInstance().getValidateSignThreadNum());
+    if (Args.getInstance().isParallelApply() && revokingStore instanceof SnapshotManager) {
+      parallelExecutor = new ParallelTransactionExecutor(this,
+          Args.getInstance().getParallelApplyThreadNum(), Args.getInstance().isParallelApplyCheck());
+    }
     Thread repushThread = new Thread(repushLoop);
     repushThread.start();
     // add contract event listener for subscribing
@@ -576,41 +622,32 @@ public class Manager {
     }
     long start = System.currentTimeMillis();
     long headNum = dynamicPropertiesStore.getLatestBlockHeaderNumber();
-    long recentBlockCount = recentBlockStore.size();
-    ListeningExecutorService service = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(50));
-    List<ListenableFuture<?>> futures = new ArrayList<>();
+    // recent block keys are the low 2 bytes of the block number
+    long recentBlockCount = Math.min(headNum + 1, RECENT_BLOCK_COUNT);
     AtomicLong blockCount = new AtomicLong(0);
     AtomicLong emptyBlockCount = new AtomicLong(0);
-    LongStream.rangeClosed(headNum - recentBlockCount + 1, headNum).forEach(
-        blockNum -> futures.add(service.submit(() -> {
-          try {
-            blockCount.incrementAndGet();
-            BlockCapsule blockCapsule = getBlockByNum(blockNum);
-            if (blockCapsule.getTransactions().isEmpty()) {
-              emptyBlockCount.incrementAndGet();
-            }
-            blockCapsule.getTransactions().stream()
-                .map(tc -> tc.getTransactionId().getBytes())
-                .map(bytes -> Maps.immutableEntry(bytes, Longs.toByteArray(blockNum)))
-                .forEach(e -> transactionCache.put(e.getKey(), new BytesCapsule(e.getValue())));
-          } catch (ItemNotFoundException | BadItemException e) {
-            logger.info("init txs cache error.");
-            throw new IllegalStateException("init txs cache error.");
-          }
-        })));
-
-    ListenableFuture<?> future = Futures.allAsList(futures);
-    try {
-      future.get();
-      service.shutdown();
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-    } catch (ExecutionException e) {
-      logger.info(e.getMessage());
+    // blocks are keyed by number first, read them in sequential batches instead of one seek each
+    for (long from = headNum - recentBlockCount + 1; from <= headNum; from += INIT_CACHE_BATCH) {
+      long limit = Math.min(INIT_CACHE_BATCH, headNum - from + 1);
+      List<BlockCapsule> blocks = blockStore.getLimitNumber(from, limit);
+      if (blocks.size() != limit) {
+        logger.info("init txs cache error.");
+        throw new IllegalStateException("init txs cache error.");
+      }
+      blocks.parallelStream().forEach(blockCapsule -> {
+        blockCount.incrementAndGet();
+        if (blockCapsule.getTransactions().isEmpty()) {
+          emptyBlockCount.incrementAndGet();
+        }
+        byte[] blockNum = Longs.toByteArray(blockCapsule.getNum());
+        blockCapsule.getTransactions()
+            .forEach(tc -> transactionCache.put(tc.getTransactionId().getBytes(), new BytesCapsule(blockNum)));
+      });
     }
 
+    // revoking is not enabled yet, every id went straight to the root, which counts them itself
     logger.info("end to init txs cache. unxids:{}, block count:{}, empty block count:{}, cost:{}",
-        transactionCache.size(),
+        transactionCache.approximateSize(),
         blockCount.get(),
         emptyBlockCount.get(),
         System.currentTimeMillis() - start
@@ -1604,13 +1641,10 @@ public class Manager {
         if (block.generatedByMyself) {
           transactionCapsule.setVerified(true);
         }
-        accountStateCallBack.preExeTrans();
-        TransactionInfo result = processTransaction(transactionCapsule, block);
-        accountStateCallBack.exeTransFinish();
-        if (Objects.nonNull(result)) {
-          transactionRetCapsule.addTransactionInfo(result);
-        }
       }
+      List<TransactionInfo> results = parallelExecutor == null
+          ? applyTransactions(block, block.getTransactions()) : parallelExecutor.apply(block);
+      results.forEach(transactionRetCapsule::addTransactionInfo);
       accountStateCallBack.executePushFinish();
     } finally {
       accountStateCallBack.exceptionFinish();
@@ -1639,6 +1673,25 @@ public class Manager {
     updateMaintenanceState(needMaintain);
   }
 
+  /**
+   * process the transactions one after the other, the results of those that have one.
+   */
+  List<TransactionInfo> applyTransactions(BlockCapsule block, List<TransactionCapsule> transactions)
+      throws ValidateSignatureException, ContractValidateException, ContractExeException,
+      AccountResourceInsufficientException, TransactionExpirationException, TooBigTransactionException,
+      TooBigTransactionResultException, DupTransactionException, TaposException, ReceiptCheckErrException,
+      VMIllegalException {
+    List<TransactionInfo> results = new ArrayList<>();
+    for (TransactionCapsule transactionCapsule : transactions) {
+      accountStateCallBack.preExeTrans();
+      TransactionInfo result = processTransaction(transactionCapsule, block);
+      accountStateCallBack.exeTransFinish();
+      if (Objects.nonNull(result)) {
+        results.add(result);
+      }
+    }
+    return results;
+  }
 
   private void updateTransHashCache(BlockCapsule block) {
     for (TransactionCapsule transactionCapsule : block.getTransactions()) {
@@ -1845,6 +1898,9 @@ public class Manager {
 
   public void closeAllStore() {
     logger.warn("******** begin to close db ********");
+    if (parallelExecutor != null) {
+      parallelExecutor.shutdown();
+    }
     closeOneStore(accountStore);
     closeOneStore(blockStore);
     closeOneStore(blockIndexStore);
@@ -1864,14 +1920,19 @@ public class Manager {
     closeOneStore(recentBlockStore);
     closeOneStore(transactionHistoryStore);
     closeOneStore(votesStore);
+    closeOneStore(witnessVoteDeltaStore);
     closeOneStore(delegatedResourceStore);
     closeOneStore(delegatedResourceAccountIndexStore);
     closeOneStore(assetIssueV2Store);
+    closeOneStore(assetIssueIndexStore);
     closeOneStore(exchangeV2Store);
     closeOneStore(transactionRetStore);
     closeOneStore(tokenPoolStore);
     closeOneStore(futureTokenStore);
     closeOneStore(futureTransferStore);
+    closeOneStore(futureTokenIndexStore);
+    closeOneStore(futureTransferIndexStore);
+    closeOneStore(tokenNameIndexStore);
     logger.info("******** end to close db ********");
   }
 
@@ -1898,43 +1959,41 @@ public class Manager {
   }
 
   private static class ValidateSignTask implements Callable<Boolean> {
-    private TransactionCapsule unx;
-    private CountDownLatch countDownLatch;
+    private List<TransactionCapsule> unxs;
     private Manager manager;
 
-    ValidateSignTask(TransactionCapsule unx, CountDownLatch countDownLatch, Manager manager) {
-      this.unx = unx;
-      this.countDownLatch = countDownLatch;
+    ValidateSignTask(List<TransactionCapsule> unxs, Manager manager) {
+      this.unxs = unxs;
       this.manager = manager;
     }
 
     @Override
     public Boolean call() throws ValidateSignatureException {
-      try {
+      SignatureRecoveryCache.preload(unxs);
+      for (TransactionCapsule unx : unxs) {
         unx.validateSignature(manager);
-      } catch (ValidateSignatureException e) {
-        throw e;
-      } finally {
-        countDownLatch.countDown();
       }
       return true;
     }
   }
 
+  /**
+   * validate the block's signatures in one batch per validate thread rather than one task per
+   * transaction, recovered signers are shared with gossip and apply through SignatureRecoveryCache.
+   */
   public void preValidateTransactionSign(BlockCapsule block) throws InterruptedException, ValidateSignatureException {
     logger.info("PreValidate Transaction Sign, size:" + block.getTransactions().size() + ",block num:" + block.getNum());
     int transSize = block.getTransactions().size();
     if (transSize <= 0) {
       return;
     }
-    CountDownLatch countDownLatch = new CountDownLatch(transSize);
-    List<Future<Boolean>> futures = new ArrayList<>(transSize);
+    int threadNum = Math.max(1, Args.getInstance().getValidateSignThreadNum());
+    int batchSize = (transSize + threadNum - 1) / threadNum;
+    List<Future<Boolean>> futures = new ArrayList<>(threadNum);
 
-    for (TransactionCapsule transaction : block.getTransactions()) {
-      Future<Boolean> future = validateSignService.submit(new ValidateSignTask(transaction, countDownLatch, this));
-      futures.add(future);
+    for (List<TransactionCapsule> batch : Lists.partition(block.getTransactions(), batchSize)) {
+      futures.add(validateSignService.submit(new ValidateSignTask(batch, this)));
     }
-    countDownLatch.await();
 
     for (Future<Boolean> future : futures) {
       try {
@@ -1943,6 +2002,10 @@ public class Manager {
         throw new ValidateSignatureException(e.getCause().getMessage());
       }
     }
+
+    CacheStats stats = SignatureRecoveryCache.getStats();
+    logger.debug("signature recovery cache, size:{}, hit:{}, miss:{}, hit rate:{}",
+        SignatureRecoveryCache.size(), stats.hitCount(), stats.missCount(), stats.hitRate());
   }
 
   public void rePush(TransactionCapsule tx) {
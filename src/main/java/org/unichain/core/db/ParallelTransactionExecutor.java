@@ -0,0 +1,462 @@
+package org.unichain.core.db;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.protobuf.InvalidProtocolBufferException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.unichain.common.utils.ByteArray;
+import org.unichain.core.capsule.AccountCapsule;
+import org.unichain.core.capsule.BlockCapsule;
+import org.unichain.core.capsule.TransactionCapsule;
+import org.unichain.core.config.args.Args;
+import org.unichain.core.db.common.WrappedByteArray;
+import org.unichain.core.db2.core.RevokingDBWithCachingNewValue;
+import org.unichain.core.db2.core.Speculation;
+import org.unichain.core.exception.*;
+import org.unichain.core.services.http.utils.Util;
+import org.unichain.protos.Contract.TransferTokenContract;
+import org.unichain.protos.Protocol.Account;
+import org.unichain.protos.Protocol.Transaction.Contract;
+import org.unichain.protos.Protocol.TransactionInfo;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Applies the transfers of a block on several threads when they touch different accounts.
+ *
+ * <p>A run of consecutive TransferContract and TransferTokenContract transactions is split into
+ * groups sharing no owner, recipient or token, and every group is processed on its own thread
+ * inside a {@link Speculation}, so nothing reaches the snapshots while the groups run. The run is
+ * then accepted only if no key written by one group was read or written by another, which makes
+ * the outcome that of applying the run in block order. Two kinds of keys every transfer writes
+ * are exempt: the fee counters of the dynamic properties, whose changes add up, and the burn
+ * account when the groups only added to its balance. Accepted writes are put into the head in
+ * group order.
+ *
+ * <p>Everything else runs serially as before: other contracts, runs that form a single group,
+ * and any run with a conflict, a failed transaction or a read the speculation can not track.
+ * With parallelApplyCheck on, every accepted run is also applied serially in a speculation and
+ * the serial outcome is kept if the two differ.
+ */
+@Slf4j(topic = "DB")
+public class ParallelTransactionExecutor {
+
+  private final Manager manager;
+  private final ExecutorService executor;
+  private final boolean check;
+  // for test, transactions whose parallel outcome was kept
+  @Getter
+  private long parallelApplied;
+
+  public ParallelTransactionExecutor(Manager manager, int threadNum, boolean check) {
+    this.manager = manager;
+    this.check = check;
+    this.executor = Executors.newFixedThreadPool(threadNum,
+        new ThreadFactoryBuilder().setNameFormat("parallel-apply-%d").setDaemon(true).build());
+  }
+
+  /**
+   * apply the transactions of the block in the current session, the transaction infos come in
+   * block order.
+   */
+  public List<TransactionInfo> apply(BlockCapsule block)
+      throws ValidateSignatureException, ContractValidateException, ContractExeException,
+      AccountResourceInsufficientException, TransactionExpirationException,
+      TooBigTransactionException, TooBigTransactionResultException, DupTransactionException,
+      TaposException, ReceiptCheckErrException, VMIllegalException {
+    List<TransactionCapsule> transactions = block.getTransactions();
+    AccountCapsule burnAccount = manager.getAccountStore().getBurnaccount();
+    if (!isApplicable() || burnAccount == null) {
+      return manager.applyTransactions(block, transactions);
+    }
+
+    WrappedByteArray burn = WrappedByteArray.of(burnAccount.createDbKey());
+    List<TransactionInfo> results = new ArrayList<>();
+    int from = 0;
+    while (from < transactions.size()) {
+      boolean eligible = isEligible(transactions.get(from), burn);
+      int to = from + 1;
+      while (to < transactions.size() && isEligible(transactions.get(to), burn) == eligible) {
+        to++;
+      }
+
+      List<TransactionCapsule> run = transactions.subList(from, to);
+      results.addAll(eligible ? applyRun(block, run, burn) : manager.applyTransactions(block, run));
+      from = to;
+    }
+    return results;
+  }
+
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * the writes of every transaction have to go through the tracked revoking dbs, and none of
+   * the side effects serial apply has outside of them may be on.
+   */
+  private boolean isApplicable() {
+    return !manager.getDynamicPropertiesStore().allowAccountStateRoot()
+        && !manager.eventPluginLoaded
+        && !Args.getInstance().isSolidityNode();
+  }
+
+  private boolean isEligible(TransactionCapsule transaction, WrappedByteArray burn) {
+    List<Contract> contracts = transaction.getInstance().getRawData().getContractList();
+    if (contracts.size() != 1) {
+      return false;
+    }
+
+    Contract contract = contracts.get(0);
+    switch (contract.getType()) {
+      case TransferContract:
+      case TransferTokenContract:
+        byte[] to = TransactionCapsule.getToAddress(contract);
+        return to != null
+            && !burn.equals(WrappedByteArray.of(TransactionCapsule.getOwner(contract)))
+            && !burn.equals(WrappedByteArray.of(to));
+      default:
+        return false;
+    }
+  }
+
+  private List<TransactionInfo> applyRun(BlockCapsule block, List<TransactionCapsule> run,
+      WrappedByteArray burn)
+      throws ValidateSignatureException, ContractValidateException, ContractExeException,
+      AccountResourceInsufficientException, TransactionExpirationException,
+      TooBigTransactionException, TooBigTransactionResultException, DupTransactionException,
+      TaposException, ReceiptCheckErrException, VMIllegalException {
+    List<List<Integer>> groups = group(run);
+    if (groups.size() < 2) {
+      return manager.applyTransactions(block, run);
+    }
+
+    List<Future<GroupResult>> futures = new ArrayList<>();
+    for (List<Integer> group : groups) {
+      List<TransactionCapsule> transactions = new ArrayList<>();
+      group.forEach(i -> transactions.add(run.get(i)));
+      futures.add(executor.submit(() -> speculate(block, transactions)));
+    }
+
+    List<GroupResult> results = new ArrayList<>();
+    for (Future<GroupResult> future : futures) {
+      try {
+        results.add(Uninterruptibles.getUninterruptibly(future));
+      } catch (ExecutionException e) {
+        results.add(new GroupResult(null, e.getCause()));
+      }
+    }
+
+    Map<RevokingDBWithCachingNewValue, Map<WrappedByteArray, byte[]>> writes =
+        merge(results, burn);
+    if (writes == null) {
+      return manager.applyTransactions(block, run);
+    }
+
+    TransactionInfo[] infos = new TransactionInfo[run.size()];
+    TransactionCapsule[] copies = new TransactionCapsule[run.size()];
+    for (int g = 0; g < groups.size(); g++) {
+      List<Integer> group = groups.get(g);
+      for (int i = 0; i < group.size(); i++) {
+        infos[group.get(i)] = results.get(g).infos.get(i);
+        copies[group.get(i)] = results.get(g).copies.get(i);
+      }
+    }
+
+    if (check && !matchesSerial(block, run, writes, infos, copies)) {
+      return manager.applyTransactions(block, run);
+    }
+
+    commit(writes);
+    parallelApplied += run.size();
+    List<TransactionInfo> ordered = new ArrayList<>();
+    for (int i = 0; i < run.size(); i++) {
+      run.get(i).takeResult(copies[i]);
+      if (infos[i] != null) {
+        ordered.add(infos[i]);
+      }
+    }
+    return ordered;
+  }
+
+  /**
+   * split the run into groups of transactions sharing an owner, recipient or token, each in
+   * block order, ordered by their first transaction.
+   */
+  private static List<List<Integer>> group(List<TransactionCapsule> run) {
+    int[] parent = new int[run.size()];
+    Map<Object, Integer> firstUser = new HashMap<>();
+    for (int i = 0; i < run.size(); i++) {
+      parent[i] = i;
+      for (Object key : getKeys(run.get(i))) {
+        Integer other = firstUser.putIfAbsent(key, i);
+        if (other != null) {
+          parent[find(parent, i)] = find(parent, other);
+        }
+      }
+    }
+
+    Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < run.size(); i++) {
+      groups.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(i);
+    }
+    return new ArrayList<>(groups.values());
+  }
+
+  private static int find(int[] parent, int i) {
+    while (parent[i] != i) {
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  private static List<Object> getKeys(TransactionCapsule transaction) {
+    Contract contract = transaction.getInstance().getRawData().getContract(0);
+    List<Object> keys = new ArrayList<>();
+    keys.add(WrappedByteArray.of(TransactionCapsule.getOwner(contract)));
+    keys.add(WrappedByteArray.of(TransactionCapsule.getToAddress(contract)));
+    if (contract.getType() == Contract.ContractType.TransferTokenContract) {
+      try {
+        String tokenName = contract.getParameter().unpack(TransferTokenContract.class).getTokenName();
+        keys.add(new String(Util.stringAsBytesUppercase(tokenName)));
+      } catch (InvalidProtocolBufferException e) {
+        // fails the same way in every group, the serial fallback reports it
+      }
+    }
+    return keys;
+  }
+
+  private GroupResult speculate(BlockCapsule block, List<TransactionCapsule> transactions) {
+    Speculation speculation = Speculation.begin();
+    GroupResult result = new GroupResult(speculation, null);
+    try {
+      for (TransactionCapsule transaction : transactions) {
+        TransactionCapsule copy = transaction.copy();
+        result.infos.add(manager.processTransaction(copy, block));
+        result.copies.add(copy);
+      }
+    } catch (Exception e) {
+      result.failure = e;
+    } finally {
+      speculation.end();
+    }
+    return result;
+  }
+
+  /**
+   * the writes of all groups, or null if the groups did not run cleanly or saw each other.
+   */
+  private Map<RevokingDBWithCachingNewValue, Map<WrappedByteArray, byte[]>> merge(
+      List<GroupResult> results, WrappedByteArray burn) {
+    // db -> key -> index of the group writing it, or -1 when several do
+    Map<RevokingDBWithCachingNewValue, Map<WrappedByteArray, Integer>> writers = new HashMap<>();
+    for (int g = 0; g < results.size(); g++) {
+      GroupResult result = results.get(g);
+      if (result.failure != null || result.speculation.isAborted()) {
+        logger.debug("parallel apply falls back to serial: {}", String.valueOf(result.failure));
+        return null;
+      }
+
+      int group = g;
+      result.speculation.getWrites().forEach((db, entries) -> {
+        Map<WrappedByteArray, Integer> keys = writers.computeIfAbsent(db, k -> new HashMap<>());
+        entries.keySet().forEach(key -> keys.merge(key, group, (a, b) -> -1));
+      });
+    }
+
+    // keys whose groups' changes are added up instead of taken as written
+    Map<RevokingDBWithCachingNewValue, Set<WrappedByteArray>> shared = new HashMap<>();
+    for (int g = 0; g < results.size(); g++) {
+      for (Map.Entry<RevokingDBWithCachingNewValue, Map<WrappedByteArray, byte[]>> entry
+          : results.get(g).speculation.getReads().entrySet()) {
+        Map<WrappedByteArray, Integer> keys = writers.get(entry.getKey());
+        if (keys == null) {
+          continue;
+        }
+        for (WrappedByteArray key : entry.getValue().keySet()) {
+          Integer writer = keys.get(key);
+          if (writer != null && writer != g) {
+            if (!isAdditive(entry.getKey(), key, burn)) {
+              return null;
+            }
+            shared.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).add(key);
+          }
+        }
+      }
+    }
+    for (Map.Entry<RevokingDBWithCachingNewValue, Map<WrappedByteArray, Integer>> entry
+        : writers.entrySet()) {
+      for (Map.Entry<WrappedByteArray, Integer> key : entry.getValue().entrySet()) {
+        if (key.getValue() == -1) {
+          if (!isAdditive(entry.getKey(), key.getKey(), burn)) {
+            return null;
+          }
+          shared.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).add(key.getKey());
+        }
+      }
+    }
+
+    Map<RevokingDBWithCachingNewValue, Map<WrappedByteArray, byte[]>> writes =
+        new LinkedHashMap<>();
+    for (GroupResult result : results) {
+      result.speculation.getWrites().forEach((db, entries) -> {
+        Set<WrappedByteArray> added = shared.getOrDefault(db, Collections.emptySet());
+        Map<WrappedByteArray, byte[]> merged = writes.computeIfAbsent(db, k -> new LinkedHashMap<>());
+        entries.forEach((key, value) -> {
+          if (!added.contains(key)) {
+            merged.put(key, value);
+          }
+        });
+      });
+    }
+    for (Map.Entry<RevokingDBWithCachingNewValue, Set<WrappedByteArray>> entry
+        : shared.entrySet()) {
+      for (WrappedByteArray key : entry.getValue()) {
+        byte[] value = addUp(entry.getKey(), key, results);
+        if (value == null) {
+          return null;
+        }
+        writes.get(entry.getKey()).put(key, value);
+      }
+    }
+    return writes;
+  }
+
+  private boolean isAdditive(RevokingDBWithCachingNewValue db, WrappedByteArray key,
+      WrappedByteArray burn) {
+    if (db.getDbName().equals(manager.getDynamicPropertiesStore().getDbName())) {
+      return DynamicPropertiesStore.isCounter(key.getBytes());
+    }
+    return db.getDbName().equals(manager.getAccountStore().getDbName()) && burn.equals(key);
+  }
+
+  /**
+   * the value before the run with the changes of every group added to it, null if that is not
+   * what applying them one after the other gives.
+   */
+  private byte[] addUp(RevokingDBWithCachingNewValue db, WrappedByteArray key,
+      List<GroupResult> results) {
+    byte[] base = db.getUnchecked(key.getBytes());
+    if (base == null) {
+      return null;
+    }
+
+    List<byte[]> written = new ArrayList<>();
+    for (GroupResult result : results) {
+      Map<WrappedByteArray, byte[]> entries = result.speculation.getWrites().get(db);
+      if (entries != null && entries.containsKey(key)) {
+        written.add(entries.get(key));
+      }
+    }
+    if (written.contains(null)) {
+      return null;
+    }
+
+    if (DynamicPropertiesStore.isCounter(key.getBytes())) {
+      long sum = ByteArray.toLong(base);
+      for (byte[] value : written) {
+        sum += ByteArray.toLong(value) - ByteArray.toLong(base);
+      }
+      return ByteArray.fromLong(sum);
+    }
+
+    try {
+      Account baseAccount = Account.parseFrom(base);
+      long balance = baseAccount.getBalance();
+      for (byte[] value : written) {
+        Account account = Account.parseFrom(value);
+        long added = account.getBalance() - baseAccount.getBalance();
+        // fees only, anything but a balance increase is left to serial apply
+        if (added < 0
+            || !account.toBuilder().setBalance(baseAccount.getBalance()).build().equals(baseAccount)) {
+          return null;
+        }
+        balance = Math.addExact(balance, added);
+      }
+      return baseAccount.toBuilder().setBalance(balance).build().toByteArray();
+    } catch (InvalidProtocolBufferException | ArithmeticException e) {
+      return null;
+    }
+  }
+
+  /**
+   * apply the run serially in a speculation and compare with the parallel outcome.
+   */
+  private boolean matchesSerial(BlockCapsule block, List<TransactionCapsule> run,
+      Map<RevokingDBWithCachingNewValue, Map<WrappedByteArray, byte[]>> writes,
+      TransactionInfo[] infos, TransactionCapsule[] copies) {
+    GroupResult serial = speculate(block, run);
+    if (serial.failure != null || serial.speculation.isAborted()) {
+      logger.error("parallel apply check: block {} serial run failed where parallel did not",
+          block.getNum(), serial.failure);
+      return false;
+    }
+
+    for (int i = 0; i < run.size(); i++) {
+      if (!Objects.equals(serial.infos.get(i), infos[i])
+          || !serial.copies.get(i).getInstance().equals(copies[i].getInstance())) {
+        logger.error("parallel apply check: block {} transaction {} differs from serial",
+            block.getNum(), run.get(i).getTransactionId());
+        return false;
+      }
+    }
+
+    Set<RevokingDBWithCachingNewValue> dbs = new HashSet<>(writes.keySet());
+    dbs.addAll(serial.speculation.getWrites().keySet());
+    for (RevokingDBWithCachingNewValue db : dbs) {
+      if (!sameWrites(writes.get(db), serial.speculation.getWrites().get(db))) {
+        logger.error("parallel apply check: block {} writes to {} differ from serial",
+            block.getNum(), db.getDbName());
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean sameWrites(Map<WrappedByteArray, byte[]> a,
+      Map<WrappedByteArray, byte[]> b) {
+    Map<WrappedByteArray, byte[]> left = a == null ? Collections.emptyMap() : a;
+    Map<WrappedByteArray, byte[]> right = b == null ? Collections.emptyMap() : b;
+    if (!left.keySet().equals(right.keySet())) {
+      return false;
+    }
+    return left.entrySet().stream()
+        .allMatch(e -> Arrays.equals(e.getValue(), right.get(e.getKey())));
+  }
+
+  /**
+   * put the writes into the head, and move the revision of every db written: its store may
+   * cache values the writes replace without going through it.
+   */
+  private static void commit(Map<RevokingDBWithCachingNewValue, Map<WrappedByteArray, byte[]>> writes) {
+    writes.forEach((db, entries) -> {
+      entries.forEach((key, value) -> {
+        if (value == null) {
+          db.delete(key.getBytes());
+        } else {
+          db.put(key.getBytes(), value);
+        }
+      });
+      db.revise();
+    });
+  }
+
+  private static final class GroupResult {
+
+    private final Speculation speculation;
+    private final List<TransactionInfo> infos = new ArrayList<>();
+    private final List<TransactionCapsule> copies = new ArrayList<>();
+    private Throwable failure;
+
+    private GroupResult(Speculation speculation, Throwable failure) {
+      this.speculation = speculation;
+      this.failure = failure;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package org.unichain.core.db;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Longs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.unichain.core.capsule.BytesCapsule;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * N-gram index of token pool names: gram length | gram | token key -> token key, for every
+ * distinct substring of one to {@link #MAX_GRAM} chars. Entries of one gram are in name order.
+ * Also keeps the number of tokens in the pool.
+ */
+@Slf4j(topic = "DB")
+@Component
+public class TokenNameIndexStore extends UnichainStoreWithRevoking<BytesCapsule> {
+
+  public static final int MAX_GRAM = 3;
+
+  private static final byte[] COUNT_KEY = new byte[]{0};
+  // token names are printable ascii (0x21 - 0x7E), 0x7F closes every range
+  private static final byte[] UPPER_BOUND = new byte[]{0x7F};
+
+  @Autowired
+  protected TokenNameIndexStore(@Value("token-name-index") String dbName) {
+    super(dbName);
+  }
+
+  /**
+   * index a token that is new to the pool, tokenKey is its upper case name.
+   */
+  public void add(byte[] tokenKey) {
+    for (byte[] gram : grams(tokenKey)) {
+      put(makeKey(gram, tokenKey), new BytesCapsule(tokenKey));
+    }
+    put(COUNT_KEY, new BytesCapsule(Longs.toByteArray(getCount() + 1)));
+  }
+
+  public long getCount() {
+    BytesCapsule count = getUnchecked(COUNT_KEY);
+    return Objects.isNull(count) ? 0 : Longs.fromByteArray(count.getData());
+  }
+
+  /**
+   * keys of the tokens whose name contains the gram, in name order.
+   */
+  public List<byte[]> getTokenKeys(byte[] gram) {
+    byte[] prefix = makeKey(gram, new byte[0]);
+    return revokingDB.getRange(prefix, Bytes.concat(prefix, UPPER_BOUND), 0, getCount()).stream()
+        .map(Map.Entry::getValue)
+        .collect(Collectors.toList());
+  }
+
+  private static Set<byte[]> grams(byte[] tokenKey) {
+    Set<String> seen = new LinkedHashSet<>();
+    String name = new String(tokenKey);
+    for (int len = 1; len <= MAX_GRAM; len++) {
+      for (int i = 0; i + len <= name.length(); i++) {
+        seen.add(name.substring(i, i + len));
+      }
+    }
+    return seen.stream().map(String::getBytes).collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  private static byte[] makeKey(byte[] gram, byte[] tokenKey) {
+    return Bytes.concat(new byte[]{(byte) gram.length}, gram, tokenKey);
+  }
+}
@@ -6,12 +6,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
-import org.unichain.common.utils.Utils;
 import org.unichain.core.capsule.TokenPoolCapsule;
 import org.unichain.protos.Contract;
 import org.unichain.protos.Protocol;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -22,6 +20,12 @@ import static org.unichain.core.services.http.utils.Util.*;
 @Component
 public class TokenPoolStore extends UnichainStoreWithRevoking<TokenPoolCapsule> {
 
+  // token names are printable ascii (0x21 - 0x7E)
+  private static final byte[] UPPER_BOUND = new byte[]{0x7F};
+
+  @Autowired
+  private TokenNameIndexStore tokenNameIndexStore;
+
   @Autowired
   protected TokenPoolStore(@Value("token-pool") String dbName) {
     super(dbName);
@@ -32,34 +36,47 @@ public class TokenPoolStore extends UnichainStoreWithRevoking<TokenPoolCapsule>
     return super.getUnchecked(key);
   }
 
+  /**
+   * pages in name order, token keys are the upper case names so the store itself is the name index.
+   */
   public Contract.TokenPage query(Protocol.TokenPoolQuery query){
     int pageSize = query.hasField(TOKEN_QUERY_FIELD_PAGE_SIZE) ? query.getPageSize() : DEFAULT_PAGE_SIZE;
     int pageIndex = query.hasField(TOKEN_QUERY_FIELD_PAGE_INDEX) ? query.getPageIndex() : DEFAULT_PAGE_INDEX;
     Assert.isTrue(pageSize > 0 && pageIndex >= 0 && pageSize <= MAX_PAGE_SIZE, "Invalid paging info");
 
-    List<Contract.CreateTokenContract> sorted;
-    if(query.hasField(TOKEN_QUERY_FIELD_TOKEN_NAME))
+    long offset = (long) pageIndex * pageSize;
+    long total;
+    List<Contract.CreateTokenContract> page;
+    if(query.hasField(TOKEN_QUERY_FIELD_TOKEN_NAME) && !query.getTokenName().isEmpty())
     {
-      sorted  = getAll().stream()
+      String keyword = query.getTokenName();
+      String upper = keyword.toUpperCase();
+      byte[] gram = upper.substring(0, Math.min(TokenNameIndexStore.MAX_GRAM, upper.length())).getBytes();
+      List<byte[]> matched = tokenNameIndexStore.getTokenKeys(gram).stream()
+              .filter(key -> StringUtils.containsIgnoreCase(new String(key), keyword))
+              .collect(Collectors.toList());
+      total = matched.size();
+      page = matched.stream()
+              .skip(offset)
+              .limit(pageSize)
+              .map(this::get)
               .filter(Objects::nonNull)
-              .map(item -> item.getInstance())
-              .filter(item -> StringUtils.containsIgnoreCase(item.getName(), query.getTokenName()))
-              .sorted(Comparator.comparing(Contract.CreateTokenContract::getName))
+              .map(TokenPoolCapsule::getInstance)
               .collect(Collectors.toList());
     }
     else{
-      sorted = getAll().stream()
+      total = tokenNameIndexStore.getCount();
+      page = revokingDB.getRange(new byte[0], UPPER_BOUND, offset, pageSize).stream()
+              .map(entry -> new TokenPoolCapsule(entry.getValue()).getInstance())
               .filter(Objects::nonNull)
-              .map(item -> item.getInstance())
-              .sorted(Comparator.comparing(Contract.CreateTokenContract::getName))
               .collect(Collectors.toList());
     }
 
     return Contract.TokenPage.newBuilder()
             .setPageSize(pageSize)
             .setPageIndex(pageIndex)
-            .setTotal(sorted.size())
-            .addAllTokens(Utils.paging(sorted, pageIndex, pageSize))
+            .setTotal(total)
+            .addAllTokens(page)
             .build();
   }
 }
@@ -164,6 +164,13 @@ public abstract class UnichainStoreWithRevoking<T extends ProtoCapsule> implemen
     return Streams.stream(revokingDB.iterator()).count();
   }
 
+  /**
+   * key count of the persisted store, cheap after the first call but ignores unsolidified changes.
+   */
+  public long approximateSize() {
+    return revokingDB.approximateSize();
+  }
+
   public void setMode(boolean mode) {
     revokingDB.setMode(mode);
   }
@@ -1,14 +1,30 @@
 package org.unichain.core.db;
 
+import com.google.common.collect.Iterators;
+import com.google.protobuf.ByteString;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.unichain.core.capsule.VotesCapsule;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Votes entries of the current maintenance epoch. An entry is tagged with the epoch it was put
+ * in, entries of an ended epoch read as absent and are overwritten when the voter votes again,
+ * so ending an epoch leaves them in place.
+ */
 @Component
 public class VotesStore extends UnichainStoreWithRevoking<VotesCapsule> {
 
+  @Autowired
+  private WitnessVoteDeltaStore witnessVoteDeltaStore;
+  @Autowired
+  private DynamicPropertiesStore dynamicPropertiesStore;
+
   @Autowired
   public VotesStore(@Value("votes") String dbName) {
     super(dbName);
@@ -17,6 +33,84 @@ public class VotesStore extends UnichainStoreWithRevoking<VotesCapsule> {
   @Override
   public VotesCapsule get(byte[] key) {
     byte[] value = revokingDB.getUnchecked(key);
-    return ArrayUtils.isEmpty(value) ? null : new VotesCapsule(value);
+    if (ArrayUtils.isEmpty(value)) {
+      return null;
+    }
+    VotesCapsule votesCapsule = new VotesCapsule(value);
+    return votesCapsule.getEpoch() == dynamicPropertiesStore.getVotesEpoch() ? votesCapsule : null;
+  }
+
+  @Override
+  public VotesCapsule getUnchecked(byte[] key) {
+    return get(key);
+  }
+
+  @Override
+  public boolean has(byte[] key) {
+    return get(key) != null;
+  }
+
+  /**
+   * entries of the current epoch only.
+   */
+  @Override
+  public Iterator<Map.Entry<byte[], VotesCapsule>> iterator() {
+    long epoch = dynamicPropertiesStore.getVotesEpoch();
+    return Iterators.filter(super.iterator(), entry -> entry.getValue().getEpoch() == epoch);
+  }
+
+  /**
+   * keeps the witness vote deltas in step: the entry replaced is taken out, the new one added.
+   * The item is tagged with the current epoch.
+   */
+  @Override
+  public void put(byte[] key, VotesCapsule item) {
+    if (key == null || item == null) {
+      return;
+    }
+    VotesCapsule previous = get(key);
+    if (previous != null) {
+      tally(previous, -1);
+    }
+    item.setEpoch(dynamicPropertiesStore.getVotesEpoch());
+    tally(item, 1);
+    super.put(key, item);
+  }
+
+  @Override
+  public void delete(byte[] key) {
+    VotesCapsule previous = get(key);
+    if (previous != null) {
+      tally(previous, -1);
+    }
+    super.delete(key);
+  }
+
+  /**
+   * Ends the epoch: returns the vote change of each witness the entries name, the same totals as
+   * summing new minus old votes over the entries, and moves to the next epoch, which stales every
+   * entry without reading or deleting it.
+   */
+  public Map<ByteString, Long> countVote() {
+    Map<ByteString, Long> countWitness = witnessVoteDeltaStore.drain();
+    dynamicPropertiesStore.saveVotesEpoch(dynamicPropertiesStore.getVotesEpoch() + 1);
+    return countWitness;
+  }
+
+  /**
+   * rebuild the witness vote deltas from the entries of the current epoch.
+   */
+  public void rebuildDelta() {
+    witnessVoteDeltaStore.drain();
+    iterator().forEachRemaining(entry -> tally(entry.getValue(), 1));
+  }
+
+  private void tally(VotesCapsule votes, int sign) {
+    Map<ByteString, Long> change = new HashMap<>();
+    votes.getOldVotes().forEach(
+        vote -> change.merge(vote.getVoteAddress(), -vote.getVoteCount(), Long::sum));
+    votes.getNewVotes().forEach(
+        vote -> change.merge(vote.getVoteAddress(), vote.getVoteCount(), Long::sum));
+    change.forEach((witness, delta) -> witnessVoteDeltaStore.add(witness, sign * delta, sign));
   }
-}
\ No newline at end of file
+}
@@ -1,21 +1,36 @@
 package org.unichain.core.db;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Streams;
+import com.google.protobuf.ByteString;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.unichain.core.capsule.WitnessCapsule;
+import org.unichain.core.config.Parameter.ChainConstant;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Slf4j(topic = "DB")
 @Component
 public class WitnessStore extends UnichainStoreWithRevoking<WitnessCapsule> {
 
+  /**
+   * Standby witness ranking of the full node head, valid while the revoking db revision it was
+   * built at is current and no witness was added or had its vote count changed since.
+   */
+  private volatile StandbyWitnesses standbyWitnesses;
+
   @Autowired
   protected WitnessStore(@Value("witness") String dbName) {
     super(dbName);
@@ -35,4 +50,72 @@ public class WitnessStore extends UnichainStoreWithRevoking<WitnessCapsule> {
     byte[] value = revokingDB.getUnchecked(key);
     return ArrayUtils.isEmpty(value) ? null : new WitnessCapsule(value);
   }
+
+  @Override
+  public void put(byte[] key, WitnessCapsule item) {
+    if (Objects.isNull(key) || Objects.isNull(item)) {
+      return;
+    }
+
+    super.put(key, item);
+    StandbyWitnesses standby = standbyWitnesses;
+    if (standby != null
+        && !Objects.equals(standby.votes.get(item.getAddress()), item.getVoteCount())) {
+      standbyWitnesses = null;
+    }
+  }
+
+  @Override
+  public void delete(byte[] key) {
+    super.delete(key);
+    standbyWitnesses = null;
+  }
+
+  /**
+   * the first {@link ChainConstant#WITNESS_STANDBY_LENGTH} witnesses by vote count and their vote
+   * sum, ranked like the maintenance ranks them.
+   */
+  public StandbyWitnesses getStandbyWitnesses() {
+    long revision = revokingDB.getRevision();
+    StandbyWitnesses standby = standbyWitnesses;
+    if (standby != null && standby.revision == revision && revision >= 0) {
+      return standby;
+    }
+
+    standby = new StandbyWitnesses(revision, getAllWitnesses());
+    if (revision >= 0) {
+      standbyWitnesses = standby;
+    }
+    return standby;
+  }
+
+  public static final class StandbyWitnesses {
+
+    private final long revision;
+    private final Map<ByteString, Long> votes;
+    @Getter
+    private final List<ByteString> addresses;
+    @Getter
+    private final long voteSum;
+
+    private StandbyWitnesses(long revision, List<WitnessCapsule> witnesses) {
+      this.revision = revision;
+      ImmutableMap.Builder<ByteString, Long> votes = ImmutableMap.builder();
+      witnesses.forEach(w -> votes.put(w.getAddress(), w.getVoteCount()));
+      this.votes = votes.build();
+
+      List<ByteString> ranked = new ArrayList<>(this.votes.keySet());
+      ranked.sort(Comparator.comparingLong((ByteString b) -> this.votes.get(b))
+          .reversed().thenComparing(Comparator.comparingInt(ByteString::hashCode).reversed()));
+      if (ranked.size() > ChainConstant.WITNESS_STANDBY_LENGTH) {
+        ranked = ranked.subList(0, ChainConstant.WITNESS_STANDBY_LENGTH);
+      }
+      this.addresses = ImmutableList.copyOf(ranked);
+      this.voteSum = this.addresses.stream().mapToLong(this.votes::get).sum();
+    }
+
+    public long getVoteCount(ByteString address) {
+      return votes.get(address);
+    }
+  }
 }
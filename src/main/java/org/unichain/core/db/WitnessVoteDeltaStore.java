@@ -0,0 +1,70 @@
+package org.unichain.core.db;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Longs;
+import com.google.protobuf.ByteString;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.unichain.core.capsule.BytesCapsule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vote change of every witness in the current epoch: witness address -> delta | voters. voters
+ * counts the epoch's votes entries naming the witness on either side, an entry with none left
+ * is dropped, so the keys are exactly the witnesses a full tally of the votes store would see.
+ */
+@Component
+public class WitnessVoteDeltaStore extends UnichainStoreWithRevoking<BytesCapsule> {
+
+  @Autowired
+  public WitnessVoteDeltaStore(@Value("witness-vote-delta") String dbName) {
+    super(dbName);
+  }
+
+  @Override
+  public BytesCapsule get(byte[] key) {
+    byte[] value = revokingDB.getUnchecked(key);
+    return ArrayUtils.isEmpty(value) ? null : new BytesCapsule(value);
+  }
+
+  public void add(ByteString witness, long delta, int voters) {
+    byte[] key = witness.toByteArray();
+    long currentDelta = 0;
+    long currentVoters = 0;
+    BytesCapsule bytesCapsule = get(key);
+    if (bytesCapsule != null) {
+      byte[] data = bytesCapsule.getData();
+      currentDelta = Longs.fromByteArray(data);
+      currentVoters = Longs.fromByteArray(ArrayUtils.subarray(data, Long.BYTES, 2 * Long.BYTES));
+    }
+
+    currentDelta += delta;
+    currentVoters += voters;
+    if (currentVoters <= 0) {
+      delete(key);
+    } else {
+      put(key, new BytesCapsule(
+          Bytes.concat(Longs.toByteArray(currentDelta), Longs.toByteArray(currentVoters))));
+    }
+  }
+
+  /**
+   * @return the vote change of every witness in the epoch, the store is empty afterwards
+   */
+  public Map<ByteString, Long> drain() {
+    Map<ByteString, Long> countWitness = new HashMap<>();
+    List<byte[]> keys = new ArrayList<>();
+    for (Map.Entry<byte[], byte[]> entry : revokingDB) {
+      countWitness.put(ByteString.copyFrom(entry.getKey()), Longs.fromByteArray(entry.getValue()));
+      keys.add(entry.getKey());
+    }
+    keys.forEach(this::delete);
+    return countWitness;
+  }
+}
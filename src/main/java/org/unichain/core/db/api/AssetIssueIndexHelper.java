@@ -0,0 +1,40 @@
+package org.unichain.core.db.api;
+
+import lombok.extern.slf4j.Slf4j;
+import org.unichain.core.capsule.AssetIssueCapsule;
+import org.unichain.core.db.AssetIssueStore;
+import org.unichain.core.db.Manager;
+
+import java.util.Map.Entry;
+
+/**
+ * Backfill the owner and name indexes of both asset issue stores, runs once.
+ */
+@Slf4j(topic = "DB")
+public class AssetIssueIndexHelper {
+
+  private Manager dbManager;
+
+  public AssetIssueIndexHelper(Manager dbManager) {
+    this.dbManager = dbManager;
+  }
+
+  public void doWork() {
+    long start = System.currentTimeMillis();
+    logger.info("Start building the asset issue indexes");
+    long assetCount = index(dbManager.getAssetIssueStore())
+        + index(dbManager.getAssetIssueV2Store());
+    dbManager.getDynamicPropertiesStore().saveAssetIssueIndexDone(1);
+    logger.info("Complete the asset issue indexes, assets: {}, total time：{} milliseconds",
+        assetCount, System.currentTimeMillis() - start);
+  }
+
+  private static long index(AssetIssueStore store) {
+    long count = 0;
+    for (Entry<byte[], AssetIssueCapsule> entry : store) {
+      store.index(entry.getKey(), entry.getValue());
+      count++;
+    }
+    return count;
+  }
+}
@@ -102,7 +102,7 @@ public class AssetUpdateHelper {
       assetIssueCapsule.setId(Long.toString(tokenIdNum));
       dbManager.getAssetIssueStore().put(assetIssueCapsule.createDbKey(), assetIssueCapsule);
       assetIssueCapsule.setPrecision(0);
-      dbManager.getAssetIssueV2Store().put(assetIssueCapsule.createDbV2Key(), assetIssueCapsule);
+      dbManager.getAssetIssueV2Store().create(assetIssueCapsule.createDbV2Key(), assetIssueCapsule);
 
       assetNameToIdMap.put(
           ByteArray.toStr(assetIssueCapsule.createDbKey()), assetIssueCapsule.createDbV2Key());
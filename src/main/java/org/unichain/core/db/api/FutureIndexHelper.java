@@ -0,0 +1,80 @@
+package org.unichain.core.db.api;
+
+import com.google.protobuf.ByteString;
+import lombok.extern.slf4j.Slf4j;
+import org.unichain.core.capsule.AccountCapsule;
+import org.unichain.core.capsule.FutureTokenCapsule;
+import org.unichain.core.capsule.FutureTransferCapsule;
+import org.unichain.core.db.Manager;
+import org.unichain.protos.Protocol.FutureSummary;
+import org.unichain.protos.Protocol.FutureTokenSummaryV2;
+
+import java.util.Map.Entry;
+
+/**
+ * Backfill the future tick indexes from the tick lists of existing accounts, runs once.
+ */
+@Slf4j(topic = "DB")
+public class FutureIndexHelper {
+
+  private Manager dbManager;
+
+  private long tickCount = 0;
+
+  public FutureIndexHelper(Manager dbManager) {
+    this.dbManager = dbManager;
+  }
+
+  public void doWork() {
+    long start = System.currentTimeMillis();
+    logger.info("Start building the future tick index");
+    long accountCount = 0;
+    for (Entry<byte[], AccountCapsule> entry : dbManager.getAccountStore()) {
+      AccountCapsule account = entry.getValue();
+      FutureSummary summary = account.getFutureSummary();
+      if (summary != null) {
+        indexFutureTransfer(entry.getKey(), summary);
+      }
+
+      for (FutureTokenSummaryV2 tokenSummary : account.getInstance().getTokenFutureMap().values()) {
+        indexFutureToken(entry.getKey(), tokenSummary);
+      }
+
+      if (++accountCount % 100000 == 0) {
+        logger.info("The number of account that have processed：{}", accountCount);
+      }
+    }
+    dbManager.getDynamicPropertiesStore().saveFutureIndexDone(1);
+    logger.info("Complete the future tick index, ticks: {}, total time：{} milliseconds",
+        tickCount, System.currentTimeMillis() - start);
+  }
+
+  private void indexFutureTransfer(byte[] ownerAddress, FutureSummary summary) {
+    ByteString tickKey = summary.getLowerTick();
+    for (long i = 0; i < summary.getTotalDeal() && !tickKey.isEmpty(); i++) {
+      FutureTransferCapsule tick = dbManager.getFutureTransferStore().get(tickKey.toByteArray());
+      if (tick == null) {
+        break;
+      }
+      dbManager.getFutureTransferIndexStore()
+          .put(ownerAddress, tick.getExpireTime(), tickKey.toByteArray());
+      tickCount++;
+      tickKey = tick.getNextTick();
+    }
+  }
+
+  private void indexFutureToken(byte[] ownerAddress, FutureTokenSummaryV2 summary) {
+    byte[] tokenKey = summary.getTokenName().getBytes();
+    ByteString tickKey = summary.getLowerTick();
+    for (long i = 0; i < summary.getTotalDeal() && !tickKey.isEmpty(); i++) {
+      FutureTokenCapsule tick = dbManager.getFutureTokenStore().get(tickKey.toByteArray());
+      if (tick == null) {
+        break;
+      }
+      dbManager.getFutureTokenIndexStore()
+          .put(ownerAddress, tokenKey, tick.getExpireTime(), tickKey.toByteArray());
+      tickCount++;
+      tickKey = tick.getNextTick();
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package org.unichain.core.db.api;
+
+import lombok.extern.slf4j.Slf4j;
+import org.unichain.core.capsule.WitnessCapsule;
+import org.unichain.core.db.DelegationStore;
+import org.unichain.core.db.Manager;
+
+import java.util.List;
+
+/**
+ * Backfill the witness reward-per-vote index from the rewards and votes already kept for every
+ * ended delegation cycle, runs once.
+ */
+@Slf4j(topic = "DB")
+public class RewardViHelper {
+
+  private Manager dbManager;
+
+  public RewardViHelper(Manager dbManager) {
+    this.dbManager = dbManager;
+  }
+
+  public void doWork() {
+    long start = System.currentTimeMillis();
+    long currentCycle = dbManager.getDynamicPropertiesStore().getCurrentCycleNumber();
+    logger.info("Start building the reward vi index, cycles: {}", currentCycle);
+    DelegationStore delegationStore = dbManager.getDelegationStore();
+    List<WitnessCapsule> witnesses = dbManager.getWitnessStore().getAllWitnesses();
+    for (long cycle = 0; cycle < currentCycle; cycle++) {
+      for (WitnessCapsule witnessCapsule : witnesses) {
+        delegationStore.accumulateWitnessVi(cycle, witnessCapsule.getAddress().toByteArray());
+      }
+    }
+    dbManager.getDynamicPropertiesStore().saveRewardViDone(1);
+    logger.info("Complete the reward vi index, witnesses: {}, total time：{} milliseconds",
+        witnesses.size(), System.currentTimeMillis() - start);
+  }
+}
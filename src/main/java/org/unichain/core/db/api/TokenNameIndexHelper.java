@@ -0,0 +1,33 @@
+package org.unichain.core.db.api;
+
+import lombok.extern.slf4j.Slf4j;
+import org.unichain.core.capsule.TokenPoolCapsule;
+import org.unichain.core.db.Manager;
+
+import java.util.Map.Entry;
+
+/**
+ * Backfill the token name index from the existing token pool, runs once.
+ */
+@Slf4j(topic = "DB")
+public class TokenNameIndexHelper {
+
+  private Manager dbManager;
+
+  public TokenNameIndexHelper(Manager dbManager) {
+    this.dbManager = dbManager;
+  }
+
+  public void doWork() {
+    long start = System.currentTimeMillis();
+    logger.info("Start building the token name index");
+    long tokenCount = 0;
+    for (Entry<byte[], TokenPoolCapsule> entry : dbManager.getTokenPoolStore()) {
+      dbManager.getTokenNameIndexStore().add(entry.getKey());
+      tokenCount++;
+    }
+    dbManager.getDynamicPropertiesStore().saveTokenNameIndexDone(1);
+    logger.info("Complete the token name index, tokens: {}, total time：{} milliseconds",
+        tokenCount, System.currentTimeMillis() - start);
+  }
+}
@@ -0,0 +1,26 @@
+package org.unichain.core.db.api;
+
+import lombok.extern.slf4j.Slf4j;
+import org.unichain.core.db.Manager;
+
+/**
+ * Backfill the witness vote deltas from the votes entries of the current epoch, runs once.
+ */
+@Slf4j(topic = "DB")
+public class VoteDeltaHelper {
+
+  private Manager dbManager;
+
+  public VoteDeltaHelper(Manager dbManager) {
+    this.dbManager = dbManager;
+  }
+
+  public void doWork() {
+    long start = System.currentTimeMillis();
+    logger.info("Start building the witness vote deltas");
+    dbManager.getVotesStore().rebuildDelta();
+    dbManager.getDynamicPropertiesStore().saveVoteDeltaDone(1);
+    logger.info("Complete the witness vote deltas, total time：{} milliseconds",
+        System.currentTimeMillis() - start);
+  }
+}
@@ -1,12 +1,16 @@
 package org.unichain.core.db2.common;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * One snapshot layer. Readers go through it without the store monitor while the block apply
+ * thread writes, so it is a concurrent map.
+ */
 public class HashDB implements DB<Key, Value> {
 
-  private Map<Key, Value> db = new HashMap<>();
+  private Map<Key, Value> db = new ConcurrentHashMap<>();
 
   @Override
   public Value get(Key key) {
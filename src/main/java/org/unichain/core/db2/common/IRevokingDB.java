@@ -3,6 +3,7 @@ package org.unichain.core.db2.common;
 import org.unichain.core.db.common.WrappedByteArray;
 import org.unichain.core.exception.ItemNotFoundException;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -18,6 +19,12 @@ public interface IRevokingDB extends Iterable<Map.Entry<byte[], byte[]>> {
 
   byte[] getUnchecked(byte[] key);
 
+  // changes whenever reads may change other than through put/delete, -1 when not tracked
+  long getRevision();
+
+  // persisted key count without the unsolidified changes
+  long approximateSize();
+
   void close();
 
   void reset();
@@ -34,4 +41,7 @@ public interface IRevokingDB extends Iterable<Map.Entry<byte[], byte[]>> {
   Set<byte[]> getValuesPrevious(byte[] key, long limit);
 
   Map<WrappedByteArray, WrappedByteArray> getAllValues();
+
+  // for ordered index, entries with key in [from, to) in key order
+  List<Map.Entry<byte[], byte[]>> getRange(byte[] from, byte[] to, long offset, long limit);
 }
@@ -22,6 +22,14 @@ public final class Key {
     return new Key(WrappedByteArray.of(bytes));
   }
 
+  /**
+   * the wrapped bytes shared with this key, not copied. Only for building write batches,
+   * callers must not modify them.
+   */
+  public WrappedByteArray getData() {
+    return data;
+  }
+
   public byte[] getBytes() {
     byte[] key = data.getBytes();
     if (key == null) {
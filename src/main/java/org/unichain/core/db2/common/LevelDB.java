@@ -1,6 +1,5 @@
 package org.unichain.core.db2.common;
 
-import com.google.common.collect.Maps;
 import lombok.Getter;
 import org.unichain.common.storage.WriteOptionsWrapper;
 import org.unichain.common.storage.leveldb.LevelDbDataSourceImpl;
@@ -54,9 +53,8 @@ public class LevelDB implements DB<byte[], byte[]>, Flusher {
 
   @Override
   public void flush(Map<WrappedByteArray, WrappedByteArray> batch) {
-    Map<byte[], byte[]> rows = batch.entrySet().stream()
-        .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-        .collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll);
+    Map<byte[], byte[]> rows = new HashMap<>(batch.size() * 4 / 3 + 1);
+    batch.forEach((k, v) -> rows.put(k.getBytes(), v.getBytes()));
     db.updateByBatch(rows, writeOptions);
 //    db.reOpen();
   }
@@ -1,31 +1,84 @@
 package org.unichain.core.db2.common;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Iterators;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
 import com.google.common.primitives.Longs;
 import lombok.extern.slf4j.Slf4j;
 import org.unichain.core.db.common.WrappedByteArray;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.locks.StampedLock;
 
+/**
+ * Transaction id -> block number cache used for duplicate checks.
+ *
+ * Ids live in an open addressing table of primitive longs, and every id is also listed in
+ * the ring bucket of its block, so a whole block expires at once when its bucket is reused.
+ * Readers go lock-free through an optimistic stamp and only fall back to the read lock
+ * when a writer got in between.
+ */
 @Slf4j(topic = "DB")
 public class TxCacheDB implements DB<byte[], byte[]>, Flusher {
 
   // > 65_536(= 2^16) blocks, that is the number of the reference block
-  private final int BLOCK_COUNT = 70_000;
+  private static final int BLOCK_COUNT = 70_000;
+  private static final int ID_LENGTH = 32;
+  private static final int WORDS = ID_LENGTH / Long.BYTES;
+  private static final int INITIAL_CAPACITY = 1 << 16;
+  private static final long EMPTY = Long.MIN_VALUE;
 
-  private Map<Key, Long> db = new WeakHashMap<>();
-  private Multimap<Long, Key> blockNumMap = ArrayListMultimap.create();
+  private final StampedLock lock = new StampedLock();
+
+  private volatile Table table = new Table(INITIAL_CAPACITY);
+  private volatile int count = 0;
+
+  // bucket blockNum % BLOCK_COUNT holds the ids put for that block
+  private final long[] ringBlockNums = new long[BLOCK_COUNT];
+  private final long[][] ringIds = new long[BLOCK_COUNT][];
+  private final int[] ringSizes = new int[BLOCK_COUNT];
+
+  public TxCacheDB() {
+    Arrays.fill(ringBlockNums, EMPTY);
+  }
+
+  private static final class Table {
+
+    // slot i holds id words [i * WORDS, (i + 1) * WORDS) and its block number
+    private final long[] ids;
+    private final long[] blockNums;
+    private final int mask;
+
+    private Table(int capacity) {
+      ids = new long[capacity * WORDS];
+      blockNums = new long[capacity];
+      Arrays.fill(blockNums, EMPTY);
+      mask = capacity - 1;
+    }
+  }
 
   @Override
   public byte[] get(byte[] key) {
-    Long v = db.get(Key.of(key));
-    return v == null ? null : Longs.toByteArray(v);
+    if (key == null || key.length != ID_LENGTH) {
+      return null;
+    }
+
+    long[] id = toWords(key);
+    long stamp = lock.tryOptimisticRead();
+    long blockNum = find(table, id);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        blockNum = find(table, id);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    return blockNum == EMPTY ? null : Longs.toByteArray(blockNum);
   }
 
   @Override
@@ -34,63 +87,259 @@ public class TxCacheDB implements DB<byte[], byte[]>, Flusher {
       return;
     }
 
-    Key k = Key.copyOf(key);
-    Long v = Longs.fromByteArray(value);
-    blockNumMap.put(v, k);
-    db.put(k, v);
-    removeEldest();
+    long stamp = lock.writeLock();
+    try {
+      putLocked(key, value);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private void putLocked(byte[] key, byte[] value) {
+    Preconditions.checkArgument(key.length == ID_LENGTH, "transaction id must be 32 bytes.");
+    long blockNum = Longs.fromByteArray(value);
+    int bucket = (int) Math.floorMod(blockNum, (long) BLOCK_COUNT);
+    long owner = ringBlockNums[bucket];
+    if (owner != blockNum) {
+      if (owner != EMPTY && owner > blockNum) {
+        // older than every cached block
+        return;
+      }
+
+      if (owner != EMPTY) {
+        expire(bucket);
+      }
+      ringBlockNums[bucket] = blockNum;
+    }
+
+    long[] id = toWords(key);
+    if (insert(id, blockNum)) {
+      long[] bucketIds = ringIds[bucket];
+      int size = ringSizes[bucket];
+      if (bucketIds == null) {
+        bucketIds = new long[16 * WORDS];
+      } else if ((size + 1) * WORDS > bucketIds.length) {
+        bucketIds = Arrays.copyOf(bucketIds, bucketIds.length * 2);
+      }
+      System.arraycopy(id, 0, bucketIds, size * WORDS, WORDS);
+      ringIds[bucket] = bucketIds;
+      ringSizes[bucket] = size + 1;
+    }
+  }
+
+  private void expire(int bucket) {
+    long blockNum = ringBlockNums[bucket];
+    long[] bucketIds = ringIds[bucket];
+    int size = ringSizes[bucket];
+    long[] id = new long[WORDS];
+    for (int i = 0; i < size; i++) {
+      System.arraycopy(bucketIds, i * WORDS, id, 0, WORDS);
+      // the id may have been put again for a newer block since
+      if (find(table, id) == blockNum) {
+        delete(id);
+      }
+    }
+    ringSizes[bucket] = 0;
+    ringBlockNums[bucket] = EMPTY;
+    logger.debug("******removeEldest block number:{}, txs:{}", blockNum, size);
   }
 
-  private void removeEldest() {
-    Set<Long> keys = blockNumMap.keySet();
-    if (keys.size() > BLOCK_COUNT) {
-      keys.stream()
-          .min(Long::compareTo)
-          .ifPresent(k -> {
-            blockNumMap.removeAll(k);
-            logger.debug("******removeEldest block number:{}, block count:{}", k, keys.size());
-          });
+  /**
+   * @return true if the id was not cached for this block yet
+   */
+  private boolean insert(long[] id, long blockNum) {
+    if ((count + 1) * 4L > (table.mask + 1) * 3L) {
+      resize();
+    }
+
+    Table t = table;
+    int i = hash(id) & t.mask;
+    while (t.blockNums[i] != EMPTY) {
+      if (matches(t, i, id)) {
+        boolean changed = t.blockNums[i] != blockNum;
+        t.blockNums[i] = blockNum;
+        return changed;
+      }
+      i = (i + 1) & t.mask;
     }
+
+    System.arraycopy(id, 0, t.ids, i * WORDS, WORDS);
+    t.blockNums[i] = blockNum;
+    count++;
+    return true;
+  }
+
+  private void resize() {
+    Table old = table;
+    Table t = new Table((old.mask + 1) * 2);
+    for (int j = 0; j <= old.mask; j++) {
+      if (old.blockNums[j] == EMPTY) {
+        continue;
+      }
+      int i = hash(old.ids, j * WORDS) & t.mask;
+      while (t.blockNums[i] != EMPTY) {
+        i = (i + 1) & t.mask;
+      }
+      System.arraycopy(old.ids, j * WORDS, t.ids, i * WORDS, WORDS);
+      t.blockNums[i] = old.blockNums[j];
+    }
+    table = t;
+  }
+
+  // linear probing delete with backward shift, no tombstones are left behind
+  private void delete(long[] id) {
+    Table t = table;
+    int i = hash(id) & t.mask;
+    while (true) {
+      if (t.blockNums[i] == EMPTY) {
+        return;
+      }
+      if (matches(t, i, id)) {
+        break;
+      }
+      i = (i + 1) & t.mask;
+    }
+
+    t.blockNums[i] = EMPTY;
+    count--;
+    int j = i;
+    while (true) {
+      j = (j + 1) & t.mask;
+      if (t.blockNums[j] == EMPTY) {
+        return;
+      }
+      int k = hash(t.ids, j * WORDS) & t.mask;
+      boolean movable = i <= j ? (k <= i || k > j) : (k <= i && k > j);
+      if (movable) {
+        System.arraycopy(t.ids, j * WORDS, t.ids, i * WORDS, WORDS);
+        t.blockNums[i] = t.blockNums[j];
+        t.blockNums[j] = EMPTY;
+        i = j;
+      }
+    }
+  }
+
+  private static long find(Table t, long[] id) {
+    int i = hash(id) & t.mask;
+    // bounded so that a torn optimistic read can not spin, validate() rejects the result
+    for (int n = 0; n <= t.mask; n++) {
+      long blockNum = t.blockNums[i];
+      if (blockNum == EMPTY) {
+        return EMPTY;
+      }
+      if (matches(t, i, id)) {
+        return blockNum;
+      }
+      i = (i + 1) & t.mask;
+    }
+    return EMPTY;
+  }
+
+  private static boolean matches(Table t, int slot, long[] id) {
+    int offset = slot * WORDS;
+    return t.ids[offset] == id[0] && t.ids[offset + 1] == id[1]
+        && t.ids[offset + 2] == id[2] && t.ids[offset + 3] == id[3];
+  }
+
+  // ids are hashes already, folding the first word is enough
+  private static int hash(long[] id) {
+    return hash(id, 0);
+  }
+
+  private static int hash(long[] words, int offset) {
+    long h = words[offset];
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private static long[] toWords(byte[] key) {
+    long[] id = new long[WORDS];
+    for (int i = 0; i < WORDS; i++) {
+      id[i] = Longs.fromBytes(key[i * 8], key[i * 8 + 1], key[i * 8 + 2], key[i * 8 + 3],
+          key[i * 8 + 4], key[i * 8 + 5], key[i * 8 + 6], key[i * 8 + 7]);
+    }
+    return id;
+  }
+
+  private static byte[] toBytes(long[] words, int offset) {
+    byte[] key = new byte[ID_LENGTH];
+    for (int i = 0; i < WORDS; i++) {
+      System.arraycopy(Longs.toByteArray(words[offset + i]), 0, key, i * 8, 8);
+    }
+    return key;
   }
 
   @Override
   public long size() {
-    return db.size();
+    return count;
   }
 
   @Override
   public boolean isEmpty() {
-    return db.isEmpty();
+    return count == 0;
   }
 
   @Override
   public void remove(byte[] key) {
-    if (key != null) {
-      db.remove(Key.of(key));
+    if (key == null || key.length != ID_LENGTH) {
+      return;
+    }
+
+    long stamp = lock.writeLock();
+    try {
+      delete(toWords(key));
+    } finally {
+      lock.unlockWrite(stamp);
     }
   }
 
   @Override
   public Iterator<Map.Entry<byte[], byte[]>> iterator() {
-    return Iterators.transform(db.entrySet().iterator(),
-        e -> Maps.immutableEntry(e.getKey().getBytes(), Longs.toByteArray(e.getValue())));
+    List<Map.Entry<byte[], byte[]>> entries = new ArrayList<>(count);
+    long stamp = lock.readLock();
+    try {
+      Table t = table;
+      for (int i = 0; i <= t.mask; i++) {
+        if (t.blockNums[i] != EMPTY) {
+          entries.add(Maps.immutableEntry(toBytes(t.ids, i * WORDS),
+              Longs.toByteArray(t.blockNums[i])));
+        }
+      }
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    return entries.iterator();
   }
 
   @Override
   public void flush(Map<WrappedByteArray, WrappedByteArray> batch) {
-    batch.forEach((k, v) -> this.put(k.getBytes(), v.getBytes()));
+    long stamp = lock.writeLock();
+    try {
+      batch.forEach((k, v) -> {
+        if (k.getBytes() != null && v.getBytes() != null) {
+          putLocked(k.getBytes(), v.getBytes());
+        }
+      });
+    } finally {
+      lock.unlockWrite(stamp);
+    }
   }
 
   @Override
   public void close() {
     reset();
-    db = null;
-    blockNumMap = null;
   }
 
   @Override
   public void reset() {
-    db.clear();
-    blockNumMap.clear();
+    long stamp = lock.writeLock();
+    try {
+      table = new Table(INITIAL_CAPACITY);
+      count = 0;
+      Arrays.fill(ringBlockNums, EMPTY);
+      Arrays.fill(ringIds, null);
+      Arrays.fill(ringSizes, 0);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
   }
 }
@@ -75,6 +75,14 @@ public final class Value {
     return new Value(operator, WrappedByteArray.of(data));
   }
 
+  /**
+   * the wrapped bytes shared with this value, not copied. Only for building write batches,
+   * callers must not modify them.
+   */
+  public WrappedByteArray getData() {
+    return data;
+  }
+
   public byte[] getBytes() {
     byte[] value = data.getBytes();
     if (value == null) {
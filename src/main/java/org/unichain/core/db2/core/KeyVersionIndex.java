@@ -0,0 +1,97 @@
+package org.unichain.core.db2.core;
+
+import org.unichain.core.db2.common.Key;
+import org.unichain.core.db2.common.Value;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-store index from a key to the unsolidified layers holding a version of it,
+ * ordered oldest to newest, so a read resolves its layer without walking the chain.
+ *
+ * Layers are kept as small copy-on-write arrays, readers never see a partial update.
+ */
+final class KeyVersionIndex {
+
+  private final Map<Key, SnapshotImpl[]> versions = new ConcurrentHashMap<>();
+
+  /**
+   * @return the newest layer not above {@code head} that holds {@code key}, or null when
+   * the key only lives in the root.
+   */
+  SnapshotImpl latest(Key key, SnapshotImpl head) {
+    SnapshotImpl[] layers = versions.get(key);
+    if (layers == null) {
+      return null;
+    }
+
+    for (int i = layers.length - 1; i >= 0; i--) {
+      if (layers[i].getSeq() <= head.getSeq()) {
+        return layers[i];
+      }
+    }
+
+    return null;
+  }
+
+  void add(Key key, SnapshotImpl layer) {
+    versions.compute(key, (k, layers) -> {
+      if (layers == null) {
+        return new SnapshotImpl[]{layer};
+      }
+
+      int pos = layers.length;
+      while (pos > 0 && layers[pos - 1].getSeq() >= layer.getSeq()) {
+        if (layers[pos - 1] == layer) {
+          return layers;
+        }
+        pos--;
+      }
+
+      SnapshotImpl[] r = new SnapshotImpl[layers.length + 1];
+      System.arraycopy(layers, 0, r, 0, pos);
+      r[pos] = layer;
+      System.arraycopy(layers, pos, r, pos + 1, layers.length - pos);
+      return r;
+    });
+  }
+
+  void remove(Key key, SnapshotImpl layer) {
+    versions.computeIfPresent(key, (k, layers) -> {
+      int pos = -1;
+      for (int i = layers.length - 1; i >= 0; i--) {
+        if (layers[i] == layer) {
+          pos = i;
+          break;
+        }
+      }
+
+      if (pos < 0) {
+        return layers;
+      }
+
+      if (layers.length == 1) {
+        return null;
+      }
+
+      SnapshotImpl[] r = Arrays.copyOf(layers, layers.length - 1);
+      System.arraycopy(layers, pos + 1, r, pos, layers.length - pos - 1);
+      return r;
+    });
+  }
+
+  /**
+   * drop every entry of a layer leaving the chain, by retreat or by flush into the root.
+   */
+  void removeLayer(SnapshotImpl layer) {
+    for (Map.Entry<Key, Value> e : layer.getDb()) {
+      remove(e.getKey(), layer);
+    }
+  }
+
+  void clear() {
+    versions.clear();
+  }
+}
@@ -0,0 +1,70 @@
+package org.unichain.core.db2.core;
+
+import com.google.common.primitives.UnsignedBytes;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams a sorted root iterator merged with the sorted unsolidified changes on top of it,
+ * a change shadows the root entry of the same key and a null value drops it.
+ */
+final class MergedSnapshotIterator implements Iterator<Map.Entry<byte[], byte[]>> {
+
+  private static final Comparator<byte[]> COMPARATOR = UnsignedBytes.lexicographicalComparator();
+
+  private final Iterator<Map.Entry<byte[], byte[]>> root;
+  private final Iterator<Map.Entry<byte[], byte[]>> changes;
+  private Map.Entry<byte[], byte[]> rootNext;
+  private Map.Entry<byte[], byte[]> changeNext;
+  private Map.Entry<byte[], byte[]> next;
+
+  MergedSnapshotIterator(Iterator<Map.Entry<byte[], byte[]>> root,
+      Iterator<Map.Entry<byte[], byte[]>> changes) {
+    this.root = root;
+    this.changes = changes;
+    rootNext = advance(root);
+    changeNext = advance(changes);
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (next == null && (rootNext != null || changeNext != null)) {
+      int c = rootNext == null ? 1
+          : changeNext == null ? -1
+          : COMPARATOR.compare(rootNext.getKey(), changeNext.getKey());
+      if (c < 0) {
+        next = rootNext;
+        rootNext = advance(root);
+        continue;
+      }
+
+      if (c == 0) {
+        rootNext = advance(root);
+      }
+      if (changeNext.getValue() != null) {
+        next = changeNext;
+      }
+      changeNext = advance(changes);
+    }
+
+    return next != null;
+  }
+
+  @Override
+  public Map.Entry<byte[], byte[]> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    Map.Entry<byte[], byte[]> r = next;
+    next = null;
+    return r;
+  }
+
+  private static Map.Entry<byte[], byte[]> advance(Iterator<Map.Entry<byte[], byte[]>> iterator) {
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+}
@@ -2,6 +2,7 @@ package org.unichain.core.db2.core;
 
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
+import com.google.common.primitives.UnsignedBytes;
 import lombok.Getter;
 import org.unichain.common.utils.ByteUtil;
 import org.unichain.core.config.args.Args;
@@ -12,38 +13,48 @@ import org.unichain.core.exception.ItemNotFoundException;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Writes come from the block apply thread and are serialized on this store. Reads take no
+ * lock: they start from the published head, layers are concurrent maps and a layer is only
+ * unlinked after its rows reached the layer below, so a reader never blocks the writer.
+ * A thread with a {@link Speculation} bound puts into and reads through it instead.
+ */
 public class RevokingDBWithCachingNewValue implements IRevokingDB {
-  private ThreadLocal<Boolean> mode = new ThreadLocal<>();
-  private Snapshot head;
+  // solidified snapshot pinned by a thread in solidity mode, null in full node mode
+  private ThreadLocal<Snapshot> solidView = new ThreadLocal<>();
+  private volatile Snapshot head;
   @Getter
   private String dbName;
   private Class<? extends DB> clz;
+  private volatile long revision = 0;
 
   public RevokingDBWithCachingNewValue(String dbName, Class<? extends DB> clz) {
     this.dbName = dbName;
     this.clz = clz;
     head = new SnapshotRoot(Args.getInstance().getOutputDirectoryByDbName(dbName), dbName, clz);
-    mode.set(true);
   }
 
   /**
+   * solidity mode pins the solidified snapshot of the moment for the calling thread, so all
+   * its reads until it leaves the mode see one block even if solidity advances meanwhile.
    *
    * @param mode true: fullNode, false: solidityNode
    */
   @Override
   public void setMode(boolean mode) {
-    this.mode.set(mode);
+    if (mode) {
+      solidView.remove();
+    } else {
+      solidView.set(head.getSolidity());
+    }
   }
 
   private Snapshot head() {
-    if (mode.get() == null || mode.get()) {
-      return head;
-    } else {
-      return head.getSolidity();
-    }
+    Snapshot pinned = solidView.get();
+    return pinned == null ? head : pinned;
   }
 
-  public synchronized Snapshot getHead() {
+  public Snapshot getHead() {
     return head();
   }
 
@@ -51,6 +62,26 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
     this.head = head;
   }
 
+  /**
+   * only the full node head is tracked, a solidity view or a speculation reads -1.
+   */
+  @Override
+  public long getRevision() {
+    return solidView.get() == null && Speculation.current() == null ? revision : -1;
+  }
+
+  @Override
+  public long approximateSize() {
+    return ((SnapshotRoot) head.getRoot()).approximateSize();
+  }
+
+  /**
+   * the head dropped writes that readers may have seen, by revoke or pop.
+   */
+  public synchronized void revise() {
+    revision++;
+  }
+
   /**
    * close the database.
    */
@@ -64,20 +95,37 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
     head().reset();
     head().close();
     head = new SnapshotRoot(Args.getInstance().getOutputDirectoryByDbName(dbName), dbName, clz);
+    revision++;
   }
 
   @Override
-  public synchronized void put(byte[] key, byte[] value) {
-    head().put(key, value);
+  public void put(byte[] key, byte[] value) {
+    Speculation speculation = Speculation.current();
+    if (speculation != null) {
+      speculation.put(this, key, value);
+      return;
+    }
+
+    synchronized (this) {
+      head().put(key, value);
+    }
   }
 
   @Override
-  public synchronized void delete(byte[] key) {
-    head().remove(key);
+  public void delete(byte[] key) {
+    Speculation speculation = Speculation.current();
+    if (speculation != null) {
+      speculation.delete(this, key);
+      return;
+    }
+
+    synchronized (this) {
+      head().remove(key);
+    }
   }
 
   @Override
-  public synchronized byte[] get(byte[] key) throws ItemNotFoundException {
+  public byte[] get(byte[] key) throws ItemNotFoundException {
     byte[] value = getUnchecked(key);
     if (value == null) {
       throw new ItemNotFoundException();
@@ -87,28 +135,39 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
   }
 
   @Override
-  public synchronized byte[] getUnchecked(byte[] key) {
-    return head().get(key);
+  public byte[] getUnchecked(byte[] key) {
+    Speculation speculation = Speculation.current();
+    return speculation == null ? head().get(key) : speculation.get(this, key, head());
   }
 
   @Override
-  public synchronized boolean has(byte[] key) {
+  public boolean has(byte[] key) {
     return getUnchecked(key) != null;
   }
 
   @Override
-  public synchronized Iterator<Map.Entry<byte[], byte[]>> iterator() {
+  public Iterator<Map.Entry<byte[], byte[]>> iterator() {
+    notSpeculating("iterator");
     return head().iterator();
   }
 
+  // a speculation only tracks reads by key
+  private void notSpeculating(String operation) {
+    Speculation speculation = Speculation.current();
+    if (speculation != null) {
+      speculation.abort(dbName + " " + operation);
+    }
+  }
+
   //for blockstore
   @Override
   public Set<byte[]> getlatestValues(long limit) {
+    notSpeculating("getlatestValues");
     return getlatestValues(head(), limit);
   }
 
   //for blockstore
-  private synchronized Set<byte[]> getlatestValues(Snapshot head, long limit) {
+  private Set<byte[]> getlatestValues(Snapshot head, long limit) {
     if (limit <= 0) {
       return Collections.emptySet();
     }
@@ -177,11 +236,14 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
 
   @Override
   public Set<byte[]> getValuesNext(byte[] key, long limit) {
+    notSpeculating("getValuesNext");
     return getValuesNext(head(), key, limit);
   }
 
   @Override
   public Set<byte[]> getValuesPrevious(byte[] key, long limit) {
+    notSpeculating("getValuesPrevious");
+    Snapshot head = this.head;
     Map<WrappedByteArray, WrappedByteArray> collection = new HashMap<>();
     if (head.getPrevious() != null) {
       ((SnapshotImpl) head).collect(collection);
@@ -213,6 +275,8 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
   }
 
   public Map<WrappedByteArray, WrappedByteArray> getAllValues() {
+    notSpeculating("getAllValues");
+    Snapshot head = this.head;
     Map<WrappedByteArray, WrappedByteArray> collection = new HashMap<>();
     if (head.getPrevious() != null) {
       ((SnapshotImpl) head).collect(collection);
@@ -225,4 +289,55 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
     levelDBMap.putAll(collection);
     return levelDBMap;
   }
+
+  /**
+   * root entries are read by a bounded seek, only the unsolidified layers between the root
+   * and the head are held in memory.
+   */
+  @Override
+  public List<Map.Entry<byte[], byte[]>> getRange(byte[] from, byte[] to,
+      long offset, long limit) {
+    notSpeculating("getRange");
+    if (limit <= 0) {
+      return Collections.emptyList();
+    }
+
+    Comparator<byte[]> comparator = UnsignedBytes.lexicographicalComparator();
+    TreeMap<byte[], byte[]> layers = new TreeMap<>(comparator);
+    Snapshot snapshot = head();
+    for (; Snapshot.isImpl(snapshot); snapshot = snapshot.getPrevious()) {
+      for (Map.Entry<Key, Value> e : ((SnapshotImpl) snapshot).db) {
+        byte[] key = e.getKey().getBytes();
+        if (comparator.compare(key, from) >= 0 && comparator.compare(key, to) < 0) {
+          layers.putIfAbsent(key, e.getValue().getBytes());
+        }
+      }
+    }
+
+    // every deleted key may hide one root entry, read that many more
+    long deleted = layers.values().stream().filter(Objects::isNull).count();
+    long rootLimit = offset + limit + deleted;
+    Map<byte[], byte[]> rootEntries = Collections.emptyMap();
+    DB<byte[], byte[]> rootDb = ((SnapshotRoot) snapshot).db;
+    if (rootDb.getClass() == LevelDB.class) {
+      rootEntries = ((LevelDB) rootDb).getDb().getRange(from, to, rootLimit);
+    } else if (rootDb.getClass() == RocksDB.class) {
+      rootEntries = ((RocksDB) rootDb).getDb().getRange(from, to, rootLimit);
+    }
+
+    TreeMap<byte[], byte[]> result = new TreeMap<>(comparator);
+    result.putAll(rootEntries);
+    layers.forEach((k, v) -> {
+      if (v == null) {
+        result.remove(k);
+      } else {
+        result.put(k, v);
+      }
+    });
+
+    return result.entrySet().stream()
+        .skip(offset)
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
 }
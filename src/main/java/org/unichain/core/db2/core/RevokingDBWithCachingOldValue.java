@@ -78,6 +78,17 @@ public class RevokingDBWithCachingOldValue implements IRevokingDB {
     }
   }
 
+  @Override
+  public long approximateSize() {
+    return dbSource.getTotal();
+  }
+
+  // pop writes the old values straight back to the db source, not tracked
+  @Override
+  public long getRevision() {
+    return -1;
+  }
+
   @Override
   public void close() {
     dbSource.closeDB();
@@ -144,4 +155,14 @@ public class RevokingDBWithCachingOldValue implements IRevokingDB {
     });
     return result;
   }
+
+  @Override
+  public List<Map.Entry<byte[], byte[]>> getRange(byte[] from, byte[] to, long offset, long limit) {
+    if (limit <= 0) {
+      return Collections.emptyList();
+    }
+    return dbSource.getRange(from, to, offset + limit).entrySet().stream()
+        .skip(offset)
+        .collect(Collectors.toList());
+  }
 }
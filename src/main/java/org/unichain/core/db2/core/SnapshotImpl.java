@@ -4,10 +4,14 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
+import com.google.common.primitives.UnsignedBytes;
 import lombok.Getter;
 import org.unichain.core.db.common.WrappedByteArray;
+import org.unichain.core.db2.common.DB;
 import org.unichain.core.db2.common.HashDB;
 import org.unichain.core.db2.common.Key;
+import org.unichain.core.db2.common.LevelDB;
+import org.unichain.core.db2.common.RocksDB;
 import org.unichain.core.db2.common.Value;
 
 import java.util.*;
@@ -16,9 +20,14 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 
   @Getter
   protected Snapshot root;
+  // grows along the chain and is never reused under one root, so a pinned snapshot does
+  // not mistake a layer advanced after it, even once the root took its place
+  @Getter
+  private final long seq;
 
   SnapshotImpl(Snapshot snapshot) {
     root = snapshot.getRoot();
+    seq = ((SnapshotRoot) root).nextSeq();
     previous = snapshot;
     snapshot.setNext(this);
     synchronized (this) {
@@ -37,27 +46,32 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
     Preconditions.checkNotNull(key, "key in db is not null.");
     Preconditions.checkNotNull(value, "value in db is not null.");
 
-    db.put(Key.copyOf(key), Value.copyOf(Value.Operator.PUT, value));
+    Key k = Key.copyOf(key);
+    db.put(k, Value.copyOf(Value.Operator.PUT, value));
+    versionIndex().add(k, this);
   }
 
   @Override
   public void remove(byte[] key) {
     Preconditions.checkNotNull(key, "key in db is not null.");
-    db.put(Key.of(key), Value.of(Value.Operator.DELETE, null));
+    Key k = Key.of(key);
+    db.put(k, Value.of(Value.Operator.DELETE, null));
+    versionIndex().add(k, this);
   }
 
-  private byte[] get(Snapshot head, byte[] key) {
-    Snapshot snapshot = head;
+  private byte[] get(SnapshotImpl head, byte[] key) {
+    Key k = Key.of(key);
+    SnapshotImpl layer = versionIndex().latest(k, head);
     Value value;
-    while (Snapshot.isImpl(snapshot)) {
-      if ((value = ((SnapshotImpl) snapshot).db.get(Key.of(key))) != null) {
-        return value.getBytes();
-      }
-
-      snapshot = snapshot.getPrevious();
+    if (layer != null && (value = layer.db.get(k)) != null) {
+      return value.getBytes();
     }
 
-    return snapshot == null ? null : snapshot.get(key);
+    return root.get(key);
+  }
+
+  private KeyVersionIndex versionIndex() {
+    return ((SnapshotRoot) root).getVersionIndex();
   }
 
   // we have a 3x3 matrix of all possibilities when merging previous snapshot and current snapshot :
@@ -75,7 +89,10 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
   @Override
   public void merge(Snapshot from) {
     SnapshotImpl fromImpl = (SnapshotImpl) from;
-    Streams.stream(fromImpl.db).forEach(e -> db.put(e.getKey(), e.getValue()));
+    Streams.stream(fromImpl.db).forEach(e -> {
+      db.put(e.getKey(), e.getValue());
+      versionIndex().add(e.getKey(), this);
+    });
   }
 
   // we have a 4x4 matrix of all possibilities when merging previous snapshot and current snapshot :
@@ -142,6 +159,7 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 
   @Override
   public Snapshot retreat() {
+    versionIndex().removeLayer(this);
     return previous;
   }
 
@@ -152,6 +170,14 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 
   @Override
   public Iterator<Map.Entry<byte[], byte[]>> iterator() {
+    DB<byte[], byte[]> rootDb = ((SnapshotRoot) getRoot()).db;
+    if (rootDb instanceof LevelDB || rootDb instanceof RocksDB) {
+      // the root iterates in key order, stream it merged with the sorted changes
+      NavigableMap<byte[], byte[]> changes = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+      collect(changes);
+      return new MergedSnapshotIterator(getRoot().iterator(), changes.entrySet().iterator());
+    }
+
     Map<WrappedByteArray, WrappedByteArray> all = new HashMap<>();
     collect(all);
     Set<WrappedByteArray> keys = new HashSet<>(all.keySet());
@@ -164,16 +190,32 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
             e -> !keys.contains(WrappedByteArray.of(e.getKey()))));
   }
 
+  synchronized void collect(NavigableMap<byte[], byte[]> changes) {
+    Snapshot next = nextUpToThis(getRoot());
+    while (next != null) {
+      for (Map.Entry<Key, Value> e : ((SnapshotImpl) next).db) {
+        changes.put(e.getKey().getBytes(), e.getValue().getBytes());
+      }
+      next = nextUpToThis(next);
+    }
+  }
+
   synchronized void collect(Map<WrappedByteArray, WrappedByteArray> all) {
-    Snapshot next = getRoot().getNext();
+    Snapshot next = nextUpToThis(getRoot());
     while (next != null) {
       Streams.stream(((SnapshotImpl) next).db)
           .forEach(e -> all.put(WrappedByteArray.of(e.getKey().getBytes()),
               WrappedByteArray.of(e.getValue().getBytes())));
-      next = next.getNext();
+      next = nextUpToThis(next);
     }
   }
 
+  // layers above this one are newer than what it stands for, e.g. above a solidified snapshot
+  private Snapshot nextUpToThis(Snapshot snapshot) {
+    Snapshot next = snapshot.getNext();
+    return next != null && ((SnapshotImpl) next).seq <= seq ? next : null;
+  }
+
   @Override
   public void close() {
     getRoot().close();
@@ -12,8 +12,6 @@ import org.unichain.common.storage.WriteOptionsWrapper;
 import org.unichain.core.config.args.Args;
 import org.unichain.core.db.CheckTmpStore;
 import org.unichain.core.db.RevokingDatabase;
-import org.unichain.core.db.common.WrappedByteArray;
-import org.unichain.core.db2.common.DB;
 import org.unichain.core.db2.common.IRevokingDB;
 import org.unichain.core.db2.common.Key;
 import org.unichain.core.db2.common.Value;
@@ -55,9 +53,25 @@ public class SnapshotManager implements RevokingDatabase {
   @Getter
   private CheckTmpStore checkTmpStore;
 
+  // upper bound asked for by the caller, the flush happens at flushLimit() layers
   @Setter
   private volatile int maxFlushCount = DEFAULT_MIN_FLUSH_COUNT;
 
+  // how long one flush may stall block apply before batches get smaller, in ms
+  private static final long MAX_FLUSH_STALL = 1_000;
+  // weight of the latest flush in the moving averages below
+  private static final double SMOOTHING = 0.2;
+  // moving averages of checkpoint rows per layer, rows per written row and ms per written row
+  private double rowsPerLayer = 0;
+  private double amplification = 1;
+  private double costPerRow = 0;
+  @Getter
+  private long flushTimes = 0;
+  @Getter
+  private long flushStall = 0;
+  @Getter
+  private long maxStall = 0;
+
   public ISession buildSession() {
     return buildSession(false);
   }
@@ -105,7 +119,17 @@ public class SnapshotManager implements RevokingDatabase {
   }
 
   private void retreat() {
+    retreat(true);
+  }
+
+  /**
+   * @param revoked false when the head was merged into its previous first, reads stay the same
+   */
+  private void retreat(boolean revoked) {
     dbs.forEach(db -> db.setHead(db.getHead().retreat()));
+    if (revoked) {
+      dbs.forEach(RevokingDBWithCachingNewValue::revise);
+    }
     --size;
   }
 
@@ -119,7 +143,7 @@ public class SnapshotManager implements RevokingDatabase {
     }
 
     dbs.forEach(db -> db.getHead().getPrevious().merge(db.getHead()));
-    retreat();
+    retreat(false);
     --activeSession;
   }
 
@@ -225,7 +249,22 @@ public class SnapshotManager implements RevokingDatabase {
   }
 
   private boolean shouldBeRefreshed() {
-    return flushCount >= maxFlushCount;
+    return flushCount >= flushLimit();
+  }
+
+  /**
+   * layers to coalesce per flush: as many as maxFlushCount allows, unless the rows they are
+   * expected to write, after overwrites of the same key collapse, would stall longer than
+   * MAX_FLUSH_STALL.
+   */
+  public int flushLimit() {
+    int limit = maxFlushCount;
+    if (costPerRow <= 0 || rowsPerLayer <= 0) {
+      return limit;
+    }
+
+    double layers = MAX_FLUSH_STALL * amplification / (costPerRow * rowsPerLayer);
+    return (int) Math.max(DEFAULT_MIN_FLUSH_COUNT, Math.min(limit, layers));
   }
 
   private void refresh() {
@@ -275,58 +314,87 @@ public class SnapshotManager implements RevokingDatabase {
 
     if (shouldBeRefreshed()) {
       long start = System.currentTimeMillis();
-      deleteCheckPoint();
-      createCheckPoint();
+      int layers = flushCount;
+      long[] rows = writeCheckPoint();
       long checkPointEnd = System.currentTimeMillis();
       refresh();
       flushCount = 0;
-      logger.info("flush cost:{}, create checkpoint cost:{}, refresh cost:{}",
-          System.currentTimeMillis() - start,
+      long end = System.currentTimeMillis();
+      adapt(layers, rows[0], rows[1], end - start);
+      logger.info("flush cost:{}, create checkpoint cost:{}, refresh cost:{}, layers:{}, "
+              + "rows:{}, written:{}, next limit:{}, avg stall:{}, max stall:{}",
+          end - start,
           checkPointEnd - start,
-          System.currentTimeMillis() - checkPointEnd
+          end - checkPointEnd,
+          layers, rows[0], rows[1], flushLimit(), flushStall / flushTimes, maxStall
       );
     }
   }
 
-  private void createCheckPoint() {
-    Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
+  private void adapt(int layers, long rows, long written, long stall) {
+    flushTimes++;
+    flushStall += stall;
+    maxStall = Math.max(maxStall, stall);
+    if (layers <= 0 || written <= 0) {
+      return;
+    }
+
+    rowsPerLayer = average(rowsPerLayer, (double) rows / layers);
+    amplification = average(amplification, (double) rows / written);
+    // a flush faster than the clock resolution still counts a little
+    costPerRow = average(costPerRow, Math.max(stall, 1) / (double) written);
+  }
+
+  private static double average(double current, double sample) {
+    return current <= 0 ? sample : current + SMOOTHING * (sample - current);
+  }
+
+  /**
+   * replaces the previous checkpoint with the flushCount layers of every db in one write batch,
+   * deletes of the old rows first so that a rewritten row wins.
+   *
+   * @return rows in the layers and rows written after overwrites collapsed
+   */
+  private long[] writeCheckPoint() {
+    Map<byte[], byte[]> batch = new LinkedHashMap<>();
+    for (Map.Entry<byte[], byte[]> e : checkTmpStore.getDbSource()) {
+      batch.put(e.getKey(), null);
+    }
+
+    long rows = 0;
+    long written = 0;
+    boolean complete = true;
     for (RevokingDBWithCachingNewValue db : dbs) {
       Snapshot head = db.getHead();
       if (Snapshot.isRoot(head)) {
-        return;
+        complete = false;
+        break;
       }
 
-      String dbName = db.getDbName();
+      Map<Key, Value> latest = new HashMap<>();
       Snapshot next = head.getRoot();
       for (int i = 0; i < flushCount; ++i) {
         next = next.getNext();
-        SnapshotImpl snapshot = (SnapshotImpl) next;
-        DB<Key, Value> keyValueDB = snapshot.getDb();
-        for (Map.Entry<Key, Value> e : keyValueDB) {
-          Key k = e.getKey();
-          Value v = e.getValue();
-          batch.put(WrappedByteArray.of(Bytes.concat(simpleEncode(dbName), k.getBytes())),
-              WrappedByteArray.of(v.encode()));
+        for (Map.Entry<Key, Value> e : ((SnapshotImpl) next).getDb()) {
+          latest.put(e.getKey(), e.getValue());
+          rows++;
         }
       }
-    }
 
-    checkTmpStore.getDbSource().updateByBatch(batch.entrySet().stream()
-            .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-            .collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll),
-        WriteOptionsWrapper.getInstance().sync(Args.getInstance().getStorage().isDbSync()));
-  }
-
-  private void deleteCheckPoint() {
-    Map<byte[], byte[]> hmap = new HashMap<byte[], byte[]>();
-    if (!checkTmpStore.getDbSource().allKeys().isEmpty()) {
-      for (Map.Entry<byte[], byte[]> e : checkTmpStore.getDbSource()) {
-        hmap.put(e.getKey(), null);
+      byte[] prefix = simpleEncode(db.getDbName());
+      for (Map.Entry<Key, Value> e : latest.entrySet()) {
+        batch.put(Bytes.concat(prefix, e.getKey().getData().getBytes()), e.getValue().encode());
       }
+      written += latest.size();
     }
 
-    checkTmpStore.getDbSource().updateByBatch(hmap, WriteOptionsWrapper.getInstance()
-        .sync(Args.getInstance().getStorage().isDbSync()));
+    if (!complete) {
+      // same as before: the old checkpoint is dropped, no partial one is written
+      batch.values().removeIf(Objects::nonNull);
+    }
+    checkTmpStore.getDbSource().updateByBatch(batch,
+        WriteOptionsWrapper.getInstance().sync(Args.getInstance().getStorage().isDbSync()));
+    return new long[]{rows, written};
   }
 
   // ensure run this method first after process start.
@@ -1,7 +1,6 @@
 package org.unichain.core.db2.core;
 
-import com.google.common.collect.Maps;
-import com.google.common.collect.Streams;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.unichain.core.db.common.WrappedByteArray;
 import org.unichain.core.db2.common.*;
@@ -12,12 +11,17 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
 
   @Getter
-  private Snapshot solidity;
+  private volatile Snapshot solidity;
+  @Getter(AccessLevel.PACKAGE)
+  private final KeyVersionIndex versionIndex = new KeyVersionIndex();
+  // keys in db, -1 until first asked for, then kept up to date by merge
+  private long count = -1;
+  // seq of the last layer advanced on this root, layers are only created by the writer
+  private long lastSeq = 0;
 
   public SnapshotRoot(String parentName, String name, Class<? extends DB> clz) {
     try {
@@ -47,38 +51,80 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
   }
 
   @Override
-  public void put(byte[] key, byte[] value) {
+  public synchronized void put(byte[] key, byte[] value) {
+    if (count >= 0 && db.get(key) == null) {
+      count++;
+    }
     db.put(key, value);
   }
 
   @Override
-  public void remove(byte[] key) {
+  public synchronized void remove(byte[] key) {
+    if (count >= 0 && db.get(key) != null) {
+      count--;
+    }
     db.remove(key);
   }
 
   @Override
   public void merge(Snapshot from) {
     SnapshotImpl snapshot = (SnapshotImpl) from;
-    Map<WrappedByteArray, WrappedByteArray> batch = Streams.stream(snapshot.db)
-        .map(e -> Maps.immutableEntry(WrappedByteArray.of(e.getKey().getBytes()),
-            WrappedByteArray.of(e.getValue().getBytes())))
-        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-    ((Flusher) db).flush(batch);
+    Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
+    collect(snapshot, batch);
+    flush(batch);
   }
 
   public void merge(List<Snapshot> snapshots) {
     Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
+    // oldest first, so a newer layer overwrites the same key
     for (Snapshot snapshot : snapshots) {
-      SnapshotImpl from = (SnapshotImpl) snapshot;
-      Streams.stream(from.db)
-          .map(e -> Maps.immutableEntry(WrappedByteArray.of(e.getKey().getBytes()),
-              WrappedByteArray.of(e.getValue().getBytes())))
-          .forEach(e -> batch.put(e.getKey(), e.getValue()));
+      collect((SnapshotImpl) snapshot, batch);
+    }
+
+    flush(batch);
+    snapshots.forEach(snapshot -> versionIndex.removeLayer((SnapshotImpl) snapshot));
+  }
+
+  // batch rows share the bytes of the layer, nothing is copied or wrapped again
+  private static void collect(SnapshotImpl from, Map<WrappedByteArray, WrappedByteArray> batch) {
+    for (Map.Entry<Key, Value> e : from.db) {
+      batch.put(e.getKey().getData(), e.getValue().getData());
     }
+  }
 
+  private synchronized void flush(Map<WrappedByteArray, WrappedByteArray> batch) {
+    if (count >= 0) {
+      batch.forEach((k, v) -> {
+        boolean exists = db.get(k.getBytes()) != null;
+        if (v.getBytes() == null && exists) {
+          count--;
+        } else if (v.getBytes() != null && !exists) {
+          count++;
+        }
+      });
+    }
     ((Flusher) db).flush(batch);
   }
 
+  /**
+   * persisted key count, unsolidified changes are not included. Counted once on first use,
+   * stores that never ask pay nothing on flush.
+   */
+  public synchronized long approximateSize() {
+    // the tx cache counts its ids itself, expired blocks included, no tracking needed
+    if (db instanceof TxCacheDB) {
+      return db.size();
+    }
+    if (count < 0) {
+      count = db.size();
+    }
+    return count;
+  }
+
+  long nextSeq() {
+    return ++lastSeq;
+  }
+
   @Override
   public Snapshot retreat() {
     return this;
@@ -100,7 +146,9 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
   }
 
   @Override
-  public void reset() {
+  public synchronized void reset() {
+    count = -1;
+    versionIndex.clear();
     ((Flusher) db).reset();
   }
 
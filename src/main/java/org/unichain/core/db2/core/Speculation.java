@@ -0,0 +1,91 @@
+package org.unichain.core.db2.core;
+
+import lombok.Getter;
+import org.unichain.core.db.common.WrappedByteArray;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Puts and deletes of the calling thread held back from the revoking dbs, with the values its
+ * reads found there. While one is bound to a thread, RevokingDBWithCachingNewValue reads through
+ * it and writes into it instead of the head, so work can run off the block apply thread and be
+ * checked against what other threads did before anything reaches the snapshots.
+ */
+public class Speculation {
+
+  private static final ThreadLocal<Speculation> CURRENT = new ThreadLocal<>();
+
+  // db -> key -> value before this speculation, null for an absent key
+  private final Map<RevokingDBWithCachingNewValue, Map<WrappedByteArray, byte[]>> reads =
+      new LinkedHashMap<>();
+  // db -> key -> value written, null for a delete, in order of first write
+  private final Map<RevokingDBWithCachingNewValue, Map<WrappedByteArray, byte[]>> writes =
+      new LinkedHashMap<>();
+  // something read the dbs in a way that is not tracked, the writes are not to be trusted
+  @Getter
+  private boolean aborted;
+
+  public static Speculation current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * bind a new speculation to the calling thread, {@link #end()} unbinds it.
+   */
+  public static Speculation begin() {
+    Speculation speculation = new Speculation();
+    CURRENT.set(speculation);
+    return speculation;
+  }
+
+  public void end() {
+    if (CURRENT.get() == this) {
+      CURRENT.remove();
+    }
+  }
+
+  byte[] get(RevokingDBWithCachingNewValue db, byte[] key, Snapshot head) {
+    WrappedByteArray wrapped = WrappedByteArray.of(key);
+    Map<WrappedByteArray, byte[]> written = writes.get(db);
+    if (written != null && written.containsKey(wrapped)) {
+      return written.get(wrapped);
+    }
+
+    Map<WrappedByteArray, byte[]> read = reads.computeIfAbsent(db, k -> new LinkedHashMap<>());
+    if (read.containsKey(wrapped)) {
+      return read.get(wrapped);
+    }
+
+    byte[] value = head.get(key);
+    read.put(WrappedByteArray.copyOf(key), value);
+    return value;
+  }
+
+  void put(RevokingDBWithCachingNewValue db, byte[] key, byte[] value) {
+    writes.computeIfAbsent(db, k -> new LinkedHashMap<>())
+        .put(WrappedByteArray.copyOf(key), Arrays.copyOf(value, value.length));
+  }
+
+  void delete(RevokingDBWithCachingNewValue db, byte[] key) {
+    writes.computeIfAbsent(db, k -> new LinkedHashMap<>()).put(WrappedByteArray.copyOf(key), null);
+  }
+
+  /**
+   * reads the speculation can not track, scans and range reads, end it.
+   */
+  void abort(String operation) {
+    aborted = true;
+    throw new IllegalStateException(operation + " is not supported while speculating");
+  }
+
+  public Map<RevokingDBWithCachingNewValue, Map<WrappedByteArray, byte[]>> getReads() {
+    return Collections.unmodifiableMap(reads);
+  }
+
+  public Map<RevokingDBWithCachingNewValue, Map<WrappedByteArray, byte[]>> getWrites() {
+    return Collections.unmodifiableMap(writes);
+  }
+}
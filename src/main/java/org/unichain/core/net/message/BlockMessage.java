@@ -13,9 +13,9 @@ public class BlockMessage extends UnichainMessage {
   public BlockMessage(byte[] data) throws Exception {
     super(data);
     this.type = MessageTypes.BLOCK.asByte();
-    this.block = new BlockCapsule(getCodedInputStream(data));
+    this.block = new BlockCapsule(getAliasedCodedInputStream(data));
     if (Message.isFilter()) {
-      Message.compareBytes(data, block.getInstance().toByteArray());
+      Message.compareBytes(data, block.getInstance());
       TransactionCapsule.validContractProto(block.getInstance().getTransactionsList());
     }
   }
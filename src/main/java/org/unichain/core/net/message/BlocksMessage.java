@@ -14,12 +14,12 @@ public class BlocksMessage extends UnichainMessage {
   public BlocksMessage(byte[] data) throws Exception {
     super(data);
     this.type = MessageTypes.BLOCKS.asByte();
-    Items items = Items.parseFrom(getCodedInputStream(data));
+    Items items = Items.parseFrom(getAliasedCodedInputStream(data));
     if (items.getType() == Items.ItemType.BLOCK) {
       blocks = items.getBlocksList();
     }
     if (isFilter() && CollectionUtils.isNotEmpty(blocks)) {
-      compareBytes(data, items.toByteArray());
+      compareBytes(data, items);
       for (Block block : blocks) {
         TransactionCapsule.validContractProto(block.getTransactionsList());
       }
@@ -11,10 +11,10 @@ public class TransactionMessage extends UnichainMessage {
 
   public TransactionMessage(byte[] data) throws Exception {
     super(data);
-    this.transactionCapsule = new TransactionCapsule(getCodedInputStream(data));
+    this.transactionCapsule = new TransactionCapsule(getAliasedCodedInputStream(data));
     this.type = MessageTypes.UNW.asByte();
     if (Message.isFilter()) {
-      compareBytes(data, transactionCapsule.getInstance().toByteArray());
+      compareBytes(data, transactionCapsule.getInstance());
       transactionCapsule
           .validContractProto(transactionCapsule.getInstance().getRawData().getContract(0));
     }
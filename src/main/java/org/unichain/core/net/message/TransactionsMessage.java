@@ -21,9 +21,9 @@ public class TransactionsMessage extends UnichainMessage {
   public TransactionsMessage(byte[] data) throws Exception {
     super(data);
     this.type = MessageTypes.UNWS.asByte();
-    this.transactions = Protocol.Transactions.parseFrom(getCodedInputStream(data));
+    this.transactions = Protocol.Transactions.parseFrom(getAliasedCodedInputStream(data));
     if (isFilter()) {
-      compareBytes(data, transactions.toByteArray());
+      compareBytes(data, transactions);
       TransactionCapsule.validContractProto(transactions.getTransactionsList());
     }
   }
@@ -11,19 +11,22 @@ public class UnichainMessageFactory extends MessageFactory {
 
   @Override
   public UnichainMessage create(byte[] data) throws Exception {
+    return create(data[0], ArrayUtils.subarray(data, 1, data.length));
+  }
+
+  @Override
+  public UnichainMessage create(byte type, byte[] packed) throws Exception {
     try {
-      byte type = data[0];
-      byte[] rawData = ArrayUtils.subarray(data, 1, data.length);
-      return create(type, rawData);
+      return doCreate(type, packed);
     } catch (final P2pException e) {
       throw e;
     } catch (final Exception e) {
       throw new P2pException(P2pException.TypeEnum.PARSE_MESSAGE_FAILED,
-          "type=" + data[0] + ", len=" + data.length + ", error msg: " + e.getMessage());
+          "type=" + type + ", len=" + (packed.length + 1) + ", error msg: " + e.getMessage());
     }
   }
 
-  private UnichainMessage create(byte type, byte[] packed) throws Exception {
+  private UnichainMessage doCreate(byte type, byte[] packed) throws Exception {
     MessageTypes receivedTypes = MessageTypes.fromByte(type);
     if (receivedTypes == null) {
       throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE,
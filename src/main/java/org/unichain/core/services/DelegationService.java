@@ -9,17 +9,15 @@ import org.springframework.stereotype.Component;
 import org.unichain.common.storage.Deposit;
 import org.unichain.core.capsule.AccountCapsule;
 import org.unichain.core.capsule.WitnessCapsule;
-import org.unichain.core.config.Parameter.ChainConstant;
 import org.unichain.core.db.AccountStore;
 import org.unichain.core.db.DelegationStore;
 import org.unichain.core.db.DynamicPropertiesStore;
 import org.unichain.core.db.Manager;
+import org.unichain.core.db.WitnessStore.StandbyWitnesses;
 import org.unichain.core.exception.BalanceInsufficientException;
 import org.unichain.protos.Protocol.Vote;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.math.BigInteger;
 
 @Slf4j(topic = "delegation")
 @Component
@@ -29,24 +27,13 @@ public class DelegationService {
   private Manager manager;
 
   public void payStandbyWitness() {
-    List<ByteString> witnessAddressList = new ArrayList<>();
-    for (WitnessCapsule witnessCapsule : manager.getWitnessStore().getAllWitnesses()) {
-      witnessAddressList.add(witnessCapsule.getAddress());
-    }
-    sortWitness(witnessAddressList);
-    if (witnessAddressList.size() > ChainConstant.WITNESS_STANDBY_LENGTH) {
-      witnessAddressList = witnessAddressList.subList(0, ChainConstant.WITNESS_STANDBY_LENGTH);
-    }
-
-    long voteSum = 0;
+    StandbyWitnesses standbyWitnesses = manager.getWitnessStore().getStandbyWitnesses();
+    long voteSum = standbyWitnesses.getVoteSum();
     long totalPay = manager.getDynamicPropertiesStore().getWitness55PayPerBlock();
-    for (ByteString b : witnessAddressList) {
-      voteSum += getWitnesseByAddress(b).getVoteCount();
-    }
     if (voteSum > 0) {
-      for (ByteString b : witnessAddressList) {
+      for (ByteString b : standbyWitnesses.getAddresses()) {
         double eachVotePay = (double) totalPay / voteSum;
-        long pay = (long) (getWitnesseByAddress(b).getVoteCount() * eachVotePay);
+        long pay = (long) (standbyWitnesses.getVoteCount(b) * eachVotePay);
         logger.debug("pay {} stand reward {}", Hex.toHexString(b.toByteArray()), pay);
         payReward(b.toByteArray(), pay);
       }
@@ -99,7 +86,7 @@ public class DelegationService {
     if (beginCycle + 1 == endCycle && beginCycle < currentCycle) {
       AccountCapsule account = delegationStore.getAccountVote(beginCycle, address);
       if (account != null) {
-        reward = computeReward(beginCycle, account);
+        reward = computeReward(beginCycle, beginCycle + 1, account);
         adjustAllowance(address, reward);
         reward = 0;
         logger.info("latest cycle reward {},{}", beginCycle, account.getVotesList());
@@ -113,9 +100,7 @@ public class DelegationService {
       return;
     }
     if (beginCycle < endCycle) {
-      for (long cycle = beginCycle; cycle < endCycle; cycle++) {
-        reward += computeReward(cycle, accountCapsule);
-      }
+      reward += computeReward(beginCycle, endCycle, accountCapsule);
       adjustAllowance(address, reward);
     }
     delegationStore.setBeginCycle(address, endCycle);
@@ -147,7 +132,7 @@ public class DelegationService {
     if (beginCycle + 1 == endCycle && beginCycle < currentCycle) {
       AccountCapsule account = delegationStore.getAccountVote(beginCycle, address);
       if (account != null) {
-        reward = computeReward(beginCycle, account);
+        reward = computeReward(beginCycle, beginCycle + 1, account);
       }
       beginCycle += 1;
     }
@@ -157,14 +142,46 @@ public class DelegationService {
       return reward + accountCapsule.getAllowance();
     }
     if (beginCycle < endCycle) {
-      for (long cycle = beginCycle; cycle < endCycle; cycle++) {
-        reward += computeReward(cycle, accountCapsule);
-      }
+      reward += computeReward(beginCycle, endCycle, accountCapsule);
     }
     return reward + accountCapsule.getAllowance();
   }
 
-  private long computeReward(long cycle, AccountCapsule accountCapsule) {
+  /**
+   * reward of the account votes over the cycles [beginCycle, endCycle). Cycles before the new
+   * reward algorithm took effect keep the per cycle computation and its rounding, the rest is
+   * read off the witness reward-per-vote index: two reads per vote for the whole range.
+   */
+  long computeReward(long beginCycle, long endCycle, AccountCapsule accountCapsule) {
+    long reward = 0;
+    long newAlgorithmCycle = manager.getDynamicPropertiesStore().getNewRewardAlgorithmEffectiveCycle();
+    for (long cycle = beginCycle; cycle < Math.min(endCycle, newAlgorithmCycle); cycle++) {
+      reward += computeReward(cycle, accountCapsule);
+    }
+    beginCycle = Math.max(beginCycle, newAlgorithmCycle);
+    if (beginCycle >= endCycle) {
+      return reward;
+    }
+
+    DelegationStore delegationStore = manager.getDelegationStore();
+    for (Vote vote : accountCapsule.getVotesList()) {
+      byte[] srAddress = vote.getVoteAddress().toByteArray();
+      BigInteger deltaVi = delegationStore.getWitnessVi(endCycle - 1, srAddress)
+          .subtract(delegationStore.getWitnessVi(beginCycle - 1, srAddress));
+      if (deltaVi.signum() <= 0) {
+        continue;
+      }
+      long userVote = vote.getVoteCount();
+      reward += deltaVi.multiply(BigInteger.valueOf(userVote))
+          .divide(DelegationStore.DECIMAL_OF_VI_REWARD).longValue();
+      logger.debug("computeReward {} {} {} {} {},{},{}", beginCycle, endCycle,
+          Hex.toHexString(accountCapsule.getAddress().toByteArray()), Hex.toHexString(srAddress),
+          userVote, deltaVi, reward);
+    }
+    return reward;
+  }
+
+  long computeReward(long cycle, AccountCapsule accountCapsule) {
     long reward = 0;
     for (Vote vote : accountCapsule.getVotesList()) {
       byte[] srAddress = vote.getVoteAddress().toByteArray();
@@ -198,9 +215,4 @@ public class DelegationService {
     }
   }
 
-  private void sortWitness(List<ByteString> list) {
-    list.sort(Comparator.comparingLong((ByteString b) -> getWitnesseByAddress(b).getVoteCount())
-        .reversed().thenComparing(Comparator.comparingInt(ByteString::hashCode).reversed()));
-  }
-
 }
\ No newline at end of file
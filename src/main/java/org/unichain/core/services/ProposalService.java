@@ -63,7 +63,8 @@ public class ProposalService {
     HARD_FORK(34), // block version 34
     MAX_FUTURE_TRANSFER_TIME_RANGE_UNW(35), // max future transfer unw 35
     MAX_FUTURE_TRANSFER_TIME_RANGE_TOKEN(36), // max future transfer token 36
-    TOKEN_UPDATE_FEE(37); // token update(burn, mine, update params..) fee 37
+    TOKEN_UPDATE_FEE(37), // token update(burn, mine, update params..) fee 37
+    ALLOW_NEW_REWARD_ALGORITHM(38); // 1, 38
 
     ProposalType(long code) {
       this.code = code;
@@ -299,6 +300,20 @@ public class ProposalService {
         break;
       }
 
+      case ALLOW_NEW_REWARD_ALGORITHM: {
+        if (!manager.getDynamicPropertiesStore().allowChangeDelegation()) {
+          throw new ContractValidateException("[ALLOW_CHANGE_DELEGATION] proposal must be approved before [ALLOW_NEW_REWARD_ALGORITHM] can be proposed");
+        }
+        if (manager.getDynamicPropertiesStore().allowNewRewardAlgorithm()) {
+          throw new ContractValidateException("[ALLOW_NEW_REWARD_ALGORITHM] has been valid, no need to propose again");
+        }
+        if (value != 1) {
+          throw new ContractValidateException("This value[ALLOW_NEW_REWARD_ALGORITHM] is only allowed to be 1");
+        }
+        Assert.isTrue(manager.getDynamicPropertiesStore().getHardForkVersion() >= BLOCK_VERSION_4, "require at least block version: " + BLOCK_VERSION_4);
+        break;
+      }
+
       default:
         break;
     }
@@ -488,6 +503,11 @@ public class ProposalService {
           manager.getDynamicPropertiesStore().saveAssetUpdateFee(entry.getValue());
           break;
         }
+        case ALLOW_NEW_REWARD_ALGORITHM: {
+          logger.info("saving new reward algorithm effective cycle");
+          manager.getDynamicPropertiesStore().saveNewRewardAlgorithmEffectiveCycle();
+          break;
+        }
         default:
           find = false;
           break;
@@ -1,6 +1,5 @@
 package org.unichain.core.witness;
 
-import com.google.common.collect.Maps;
 import com.google.protobuf.ByteString;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,7 +11,6 @@ import org.unichain.common.utils.StringUtil;
 import org.unichain.common.utils.Time;
 import org.unichain.core.capsule.AccountCapsule;
 import org.unichain.core.capsule.BlockCapsule;
-import org.unichain.core.capsule.VotesCapsule;
 import org.unichain.core.capsule.WitnessCapsule;
 import org.unichain.core.config.Parameter.ChainConstant;
 import org.unichain.core.config.args.Args;
@@ -23,7 +21,6 @@ import org.unichain.core.db.WitnessStore;
 import org.unichain.core.exception.HeaderNotFound;
 
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j(topic = "witness")
@@ -250,53 +247,6 @@ public class WitnessController {
 //    }
   }
 
-  private Map<ByteString, Long> countVote(VotesStore votesStore) {
-    final Map<ByteString, Long> countWitness = Maps.newHashMap();
-    Iterator<Map.Entry<byte[], VotesCapsule>> dbIterator = votesStore.iterator();
-
-    long sizeCount = 0;
-    while (dbIterator.hasNext()) {
-      Entry<byte[], VotesCapsule> next = dbIterator.next();
-      VotesCapsule votes = next.getValue();
-
-//      logger.info("there is account ,account address is {}",
-//          account.createReadableString());
-
-      // TODO add vote reward
-      // long reward = Math.round(sum.get() * this.manager.getDynamicPropertiesStore()
-      //    .getVoteRewardRate());
-      //account.setBalance(account.getBalance() + reward);
-      //accountStore.put(account.createDbKey(), account);
-
-      votes.getOldVotes().forEach(vote -> {
-        //TODO validate witness //active_witness
-        ByteString voteAddress = vote.getVoteAddress();
-        long voteCount = vote.getVoteCount();
-        if (countWitness.containsKey(voteAddress)) {
-          countWitness.put(voteAddress, countWitness.get(voteAddress) - voteCount);
-        } else {
-          countWitness.put(voteAddress, -voteCount);
-        }
-      });
-      votes.getNewVotes().forEach(vote -> {
-        //TODO validate witness //active_witness
-        ByteString voteAddress = vote.getVoteAddress();
-        long voteCount = vote.getVoteCount();
-        if (countWitness.containsKey(voteAddress)) {
-          countWitness.put(voteAddress, countWitness.get(voteAddress) + voteCount);
-        } else {
-          countWitness.put(voteAddress, voteCount);
-        }
-      });
-
-      sizeCount++;
-      votesStore.delete(next.getKey());
-    }
-    logger.info("there is {} new votes in this epoch", sizeCount);
-
-    return countWitness;
-  }
-
   /**
    * update witness.
    */
@@ -307,7 +257,8 @@ public class WitnessController {
 
     tryRemoveThePowerOfTheGr();
 
-    Map<ByteString, Long> countWitness = countVote(votesStore);
+    Map<ByteString, Long> countWitness = votesStore.countVote();
+    logger.info("there is {} witnesses with new votes in this epoch", countWitness.size());
 
     //Only possible during the initialization phase
     if (countWitness.isEmpty()) {
@@ -315,14 +266,14 @@ public class WitnessController {
     } else {
       List<ByteString> currentWits = getActiveWitnesses();
 
-      List<ByteString> newWitnessAddressList = new ArrayList<>();
+      Map<ByteString, WitnessCapsule> witnesses = new LinkedHashMap<>();
       witnessStore.getAllWitnesses().forEach(witnessCapsule -> {
-        newWitnessAddressList.add(witnessCapsule.getAddress());
+        witnesses.put(witnessCapsule.getAddress(), witnessCapsule);
       });
+      List<ByteString> newWitnessAddressList = new ArrayList<>(witnesses.keySet());
 
       countWitness.forEach((address, voteCount) -> {
-        final WitnessCapsule witnessCapsule = witnessStore
-            .get(StringUtil.createDbKey(address));
+        final WitnessCapsule witnessCapsule = witnesses.get(address);
         if (null == witnessCapsule) {
           logger.warn("witnessCapsule is null.address is {}",
               StringUtil.createReadableString(address));
@@ -343,7 +294,7 @@ public class WitnessController {
         }
       });
 
-      sortWitness(newWitnessAddressList);
+      sortWitness(newWitnessAddressList, witnesses);
       if (newWitnessAddressList.size() > ChainConstant.MAX_ACTIVE_WITNESS_NUM) {
         setActiveWitnesses(newWitnessAddressList.subList(0, ChainConstant.MAX_ACTIVE_WITNESS_NUM));
       } else {
@@ -380,6 +331,8 @@ public class WitnessController {
       long nextCycle = manager.getDynamicPropertiesStore().getCurrentCycleNumber() + 1;
       manager.getDynamicPropertiesStore().saveCurrentCycleNumber(nextCycle);
       witnessStore.getAllWitnesses().forEach(witnessCapsule -> {
+        manager.getDelegationStore().accumulateWitnessVi(nextCycle - 1,
+            witnessCapsule.getAddress().toByteArray());
         manager.getDelegationStore().setBrokerage(nextCycle,
             witnessCapsule.getAddress().toByteArray(),
             manager.getDelegationStore().getBrokerage(witnessCapsule.getAddress().toByteArray()));
@@ -441,6 +394,13 @@ public class WitnessController {
         .thenComparing(Comparator.comparingInt(ByteString::hashCode).reversed()));
   }
 
+  // same order, off witnesses already loaded rather than a store read per comparison
+  private void sortWitness(List<ByteString> list, Map<ByteString, WitnessCapsule> witnesses) {
+    list.sort(Comparator.comparingLong((ByteString b) -> witnesses.get(b).getVoteCount())
+        .reversed()
+        .thenComparing(Comparator.comparingInt(ByteString::hashCode).reversed()));
+  }
+
   private void payStandbyWitness(List<ByteString> list) {
     if (manager.getDynamicPropertiesStore().allowChangeDelegation()) {
       return;
@@ -13,6 +13,7 @@ import org.unichain.common.overlay.discover.node.NodeManager;
 import org.unichain.common.overlay.server.ChannelManager;
 import org.unichain.core.Constant;
 import org.unichain.core.capsule.BlockCapsule;
+import org.unichain.core.capsule.TransactionCapsule;
 import org.unichain.core.config.DefaultConfig;
 import org.unichain.core.config.args.Args;
 import org.unichain.core.db.Manager;
@@ -20,6 +21,11 @@ import org.unichain.core.services.RpcApiService;
 import org.unichain.core.services.http.solidity.SolidityNodeHttpApiService;
 import org.unichain.protos.Protocol.Block;
 
+import java.util.LinkedList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -36,7 +42,26 @@ public class SolidityNode {
 
   private AtomicLong remoteBlockNum = new AtomicLong();
 
-  private LinkedBlockingDeque<Block> blockQueue = new LinkedBlockingDeque(100);
+  private LinkedBlockingDeque<BlockCapsule> blockQueue = new LinkedBlockingDeque(100);
+
+  // fetched blocks waiting to be applied may hold at most this many bytes
+  private static final long MAX_QUEUE_BYTES = 128L * 1024 * 1024;
+
+  private static final int REPORT_INTERVAL = 100;
+
+  private AtomicLong queueBytes = new AtomicLong();
+
+  private int fetchWindow = Args.getInstance().getSolidityFetchWindow();
+
+  private ExecutorService fetchService = Executors.newFixedThreadPool(fetchWindow);
+
+  private AtomicLong fetchTime = new AtomicLong();
+
+  private long applyTime = 0;
+
+  private long appliedCount = 0;
+
+  private long reportTime = System.currentTimeMillis();
 
   private int exceptionSleepTime = 1000;
 
@@ -61,18 +86,47 @@ public class SolidityNode {
     }
   }
 
+  /**
+   * keeps up to fetchWindow blocks in flight and hands them to the apply thread in number order.
+   */
   private void getBlock() {
-    long blockNum = ID.incrementAndGet();
+    long blockNum = ID.get() + 1;
+    LinkedList<Future<BlockCapsule>> inFlight = new LinkedList<>();
     while (flag) {
       try {
-        if (blockNum > remoteBlockNum.get()) {
+        while (inFlight.size() < fetchWindow && blockNum <= remoteBlockNum.get()) {
+          long num = blockNum;
+          inFlight.add(fetchService.submit(() -> fetchBlock(num)));
+          blockNum = ID.incrementAndGet() + 1;
+        }
+
+        if (inFlight.isEmpty()) {
           sleep(BLOCK_PRODUCED_INTERVAL);
           remoteBlockNum.set(getLastSolidityBlockNum());
           continue;
         }
-        Block block = getBlockByNum(blockNum);
+
+        BlockCapsule block;
+        try {
+          block = inFlight.getFirst().get();
+        } catch (ExecutionException e) {
+          long num = blockNum - inFlight.size();
+          logger.error("Failed to get block {}, reason: {}.", num, e.getMessage());
+          sleep(exceptionSleepTime);
+          inFlight.set(0, fetchService.submit(() -> fetchBlock(num)));
+          continue;
+        }
+
+        long size = block.getInstance().getSerializedSize();
+        while (flag && !blockQueue.isEmpty() && queueBytes.get() + size > MAX_QUEUE_BYTES) {
+          sleep(10);
+        }
+        queueBytes.addAndGet(size);
         blockQueue.put(block);
-        blockNum = ID.incrementAndGet();
+        inFlight.removeFirst();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
       } catch (Exception e) {
         logger.error("Failed to get block {}, reason: {}.", blockNum, e.getMessage());
         sleep(exceptionSleepTime);
@@ -80,10 +134,23 @@ public class SolidityNode {
     }
   }
 
+  /**
+   * fetch and decode off the apply thread, so it overlaps with applying the blocks before.
+   */
+  private BlockCapsule fetchBlock(long blockNum) {
+    long time = System.currentTimeMillis();
+    BlockCapsule block = new BlockCapsule(getBlockByNum(blockNum));
+    block.getBlockId();
+    block.getTransactions().forEach(TransactionCapsule::getTransactionId);
+    fetchTime.addAndGet(System.currentTimeMillis() - time);
+    return block;
+  }
+
   private void processBlock() {
     while (flag) {
       try {
-        Block block = blockQueue.take();
+        BlockCapsule block = blockQueue.take();
+        queueBytes.addAndGet(-block.getInstance().getSerializedSize());
         loopProcessBlock(block);
       } catch (Exception e) {
         logger.error(e.getMessage());
@@ -92,22 +159,40 @@ public class SolidityNode {
     }
   }
 
-  private void loopProcessBlock(Block block) {
+  private void loopProcessBlock(BlockCapsule block) {
     while (flag) {
-      long blockNum = block.getBlockHeader().getRawData().getNumber();
+      long blockNum = block.getNum();
       try {
-        dbManager.pushVerifiedBlock(new BlockCapsule(block));
+        long time = System.currentTimeMillis();
+        dbManager.pushVerifiedBlock(block);
         dbManager.getDynamicPropertiesStore().saveLatestSolidifiedBlockNum(blockNum);
+        applyTime += System.currentTimeMillis() - time;
         logger.info("Success to process block: {}, blockQueueSize: {}.", blockNum, blockQueue.size());
+        report();
         return;
       } catch (Exception e) {
-        logger.error("Failed to process block {}.", new BlockCapsule(block), e);
+        logger.error("Failed to process block {}.", block, e);
         sleep(exceptionSleepTime);
-        block = getBlockByNum(blockNum);
+        block = new BlockCapsule(getBlockByNum(blockNum));
       }
     }
   }
 
+  private void report() {
+    if (++appliedCount % REPORT_INTERVAL != 0) {
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    logger.info("Solid sync blocks/s: {}, queue: {} blocks {} bytes, in flight window: {}, "
+            + "avg fetch: {}ms, avg apply: {}ms.",
+        REPORT_INTERVAL * 1000L / Math.max(1, now - reportTime), blockQueue.size(),
+        queueBytes.get(), fetchWindow, fetchTime.getAndSet(0) / REPORT_INTERVAL,
+        applyTime / REPORT_INTERVAL);
+    applyTime = 0;
+    reportTime = now;
+  }
+
   private Block getBlockByNum(long blockNum) {
     while (true) {
       try {
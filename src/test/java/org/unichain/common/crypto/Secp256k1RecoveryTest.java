@@ -0,0 +1,171 @@
+package org.unichain.common.crypto;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.asn1.x9.X9IntegerConverter;
+import org.spongycastle.math.ec.ECAlgorithms;
+import org.spongycastle.math.ec.ECCurve;
+import org.spongycastle.math.ec.ECPoint;
+import org.unichain.common.crypto.ECKey.ECDSASignature;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Recovery on the specialised curve against the generic curve recovery it replaced: same keys,
+ * same nulls and the same exceptions, and the batch path against one recovery per signature.
+ */
+public class Secp256k1RecoveryTest {
+
+  private static final BigInteger N = ECKey.CURVE.getN();
+  private static final BigInteger P = ((ECCurve.Fp) ECKey.CURVE.getCurve()).getQ();
+
+  private final Random random = new Random(17);
+
+  @Test
+  public void validSignaturesMatchGenericRecovery() {
+    for (int i = 0; i < 300; i++) {
+      ECKey key = ECKey.fromPrivate(new BigInteger(256, random).mod(N.subtract(BigInteger.ONE))
+          .add(BigInteger.ONE));
+      byte[] hash = randomHash();
+      ECDSASignature sig = key.sign(hash);
+      for (int recId = 0; recId < 4; recId++) {
+        assertSameRecovery(recId, sig, hash);
+      }
+      Assert.assertArrayEquals(key.getPubKey(),
+          ECKey.recoverPubBytesFromSignature(sig.v - 27, sig, hash));
+    }
+  }
+
+  @Test
+  public void randomComponentsMatchGenericRecovery() {
+    for (int i = 0; i < 300; i++) {
+      ECDSASignature sig = new ECDSASignature(new BigInteger(256, random),
+          new BigInteger(256, random));
+      for (int recId = 0; recId < 4; recId++) {
+        assertSameRecovery(recId, sig, randomHash());
+      }
+    }
+  }
+
+  @Test
+  public void edgeComponentsMatchGenericRecovery() {
+    BigInteger[] values = {BigInteger.ZERO, BigInteger.ONE, N.subtract(BigInteger.ONE), N,
+        N.add(BigInteger.ONE), P.subtract(N), P.subtract(N).subtract(BigInteger.ONE),
+        P.subtract(BigInteger.ONE), P, BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE)};
+    for (BigInteger r : values) {
+      for (BigInteger s : values) {
+        for (int recId = 0; recId < 4; recId++) {
+          assertSameRecovery(recId, new ECDSASignature(r, s), randomHash());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void batchMatchesSingleSignatureAddresses() {
+    int len = 400;
+    byte[][] hashes = new byte[len][];
+    ECDSASignature[] sigs = new ECDSASignature[len];
+    for (int i = 0; i < len; i++) {
+      hashes[i] = randomHash();
+      switch (i % 5) {
+        case 0:
+          // random components, mostly no point or a foreign key
+          sigs[i] = new ECDSASignature(new BigInteger(256, random), new BigInteger(256, random));
+          sigs[i].v = (byte) (27 + random.nextInt(8));
+          break;
+        case 1:
+          // header out of range
+          sigs[i] = new ECKey().sign(hashes[i]);
+          sigs[i].v = (byte) (random.nextBoolean() ? 26 : 35);
+          break;
+        case 2:
+          // r that is zero or a multiple of n
+          sigs[i] = new ECDSASignature(random.nextBoolean() ? BigInteger.ZERO : N, BigInteger.ONE);
+          sigs[i].v = 27;
+          break;
+        default:
+          sigs[i] = new ECKey().sign(hashes[i]);
+          if (random.nextBoolean()) {
+            // the compressed key headers recover the same key
+            sigs[i].v += 4;
+          }
+          break;
+      }
+    }
+    // a short hash is rejected by the single path and skipped by the batch
+    hashes[8] = Arrays.copyOf(hashes[8], 31);
+
+    byte[][] addresses = ECKey.signaturesToAddresses(hashes, sigs);
+    Assert.assertEquals(len, addresses.length);
+    for (int i = 0; i < len; i++) {
+      byte[] expected;
+      try {
+        expected = ECKey.signatureToAddress(hashes[i], sigs[i]);
+      } catch (Exception e) {
+        expected = null;
+      }
+      Assert.assertArrayEquals("signature " + i, expected, addresses[i]);
+    }
+  }
+
+  @Test
+  public void batchOfNothing() {
+    Assert.assertEquals(0, ECKey.signaturesToAddresses(new byte[0][], new ECDSASignature[0])
+        .length);
+  }
+
+  private void assertSameRecovery(int recId, ECDSASignature sig, byte[] hash) {
+    byte[] expected = null;
+    Class<?> expectedError = null;
+    try {
+      expected = genericRecover(recId, sig, hash);
+    } catch (RuntimeException e) {
+      expectedError = e.getClass();
+    }
+
+    byte[] actual = null;
+    Class<?> actualError = null;
+    try {
+      actual = ECKey.recoverPubBytesFromSignature(recId, sig, hash);
+    } catch (RuntimeException e) {
+      actualError = e.getClass();
+    }
+
+    String what = "recId " + recId + " r " + sig.r.toString(16) + " s " + sig.s.toString(16);
+    Assert.assertEquals(what, expectedError, actualError);
+    Assert.assertArrayEquals(what, expected, actual);
+  }
+
+  /**
+   * The recovery ECKey did before, on the generic BigInteger curve.
+   */
+  private static byte[] genericRecover(int recId, ECDSASignature sig, byte[] messageHash) {
+    BigInteger x = sig.r.add(BigInteger.valueOf((long) recId / 2).multiply(N));
+    if (x.compareTo(P) >= 0) {
+      return null;
+    }
+    X9IntegerConverter x9 = new X9IntegerConverter();
+    byte[] compEnc = x9.integerToBytes(x, 1 + x9.getByteLength(ECKey.CURVE.getCurve()));
+    compEnc[0] = (byte) ((recId & 1) == 1 ? 0x03 : 0x02);
+    ECPoint R = ECKey.CURVE.getCurve().decodePoint(compEnc);
+    if (!R.multiply(N).isInfinity()) {
+      return null;
+    }
+    BigInteger e = new BigInteger(1, messageHash);
+    BigInteger eInv = BigInteger.ZERO.subtract(e).mod(N);
+    BigInteger rInv = sig.r.modInverse(N);
+    BigInteger srInv = rInv.multiply(sig.s).mod(N);
+    BigInteger eInvrInv = rInv.multiply(eInv).mod(N);
+    return ECAlgorithms.sumOfTwoMultiplies(ECKey.CURVE.getG(), eInvrInv, R, srInv)
+        .getEncoded(false);
+  }
+
+  private byte[] randomHash() {
+    byte[] hash = new byte[32];
+    random.nextBytes(hash);
+    return hash;
+  }
+}
@@ -0,0 +1,213 @@
+package org.unichain.common.runtime.vm;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.unichain.common.utils.ByteUtil;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import static org.unichain.common.runtime.vm.DataWord.MAX_VALUE;
+import static org.unichain.common.runtime.vm.DataWord._2_256;
+
+/**
+ * The four-long and long fast paths of the DataWord arithmetic against the BigInteger formulas
+ * they replaced: same words, same exceptions.
+ */
+public class DataWordTest {
+
+  private static final BigInteger MIN_256 = BigInteger.ONE.shiftLeft(255);
+
+  private final Random random = new Random(13);
+
+  @Test
+  public void mulMatchesBigInteger() {
+    differential(DataWord::mul, (a, b) -> word(a.value().multiply(b.value()).and(MAX_VALUE)));
+  }
+
+  @Test
+  public void subMatchesBigInteger() {
+    differential(DataWord::sub, (a, b) -> word(a.value().subtract(b.value()).and(MAX_VALUE)));
+  }
+
+  @Test
+  public void expMatchesBigInteger() {
+    differential(DataWord::exp, (a, b) -> word(a.value().modPow(b.value(), _2_256)));
+  }
+
+  @Test
+  public void divMatchesBigInteger() {
+    differential(DataWord::div, (a, b) -> b.isZero() ? zeroOf(a)
+        : word(a.value().divide(b.value()).and(MAX_VALUE)));
+  }
+
+  @Test
+  public void modMatchesBigInteger() {
+    differential(DataWord::mod, (a, b) -> b.isZero() ? zeroOf(a)
+        : word(a.value().mod(b.value()).and(MAX_VALUE)));
+  }
+
+  @Test
+  public void sDivMatchesBigInteger() {
+    differential(DataWord::sDiv, (a, b) -> b.isZero() ? zeroOf(a)
+        : word(a.sValue().divide(b.sValue()).and(MAX_VALUE)));
+  }
+
+  @Test
+  public void sModMatchesBigInteger() {
+    differential(DataWord::sMod, (a, b) -> {
+      if (b.isZero()) {
+        return zeroOf(a);
+      }
+      BigInteger result = a.sValue().abs().mod(b.sValue().abs());
+      result = a.sValue().signum() == -1 ? result.negate() : result;
+      return word(result.and(MAX_VALUE));
+    });
+  }
+
+  @Test
+  public void sDivOfLongMinByMinusOneLeavesTheLongRange() {
+    DataWord a = signed(Long.MIN_VALUE);
+    a.sDiv(signed(-1));
+    Assert.assertEquals(BigInteger.ONE.shiftLeft(63), a.sValue());
+
+    DataWord min = new DataWord(ByteUtil.copyToArray(MIN_256));
+    min.sDiv(signed(-1));
+    Assert.assertEquals(MIN_256.negate(), min.sValue());
+  }
+
+  @Test
+  public void signedOpsOfAnEmptyWordStillThrow() {
+    // null data gives an empty word, which has no sign bit for sValue()
+    for (BiConsumer<DataWord, DataWord> op : Arrays.<BiConsumer<DataWord, DataWord>>asList(
+        DataWord::sDiv, DataWord::sMod)) {
+      try {
+        op.accept(new DataWord((byte[]) null), signed(-3));
+        Assert.fail("expected an exception");
+      } catch (NumberFormatException e) {
+        // same as the BigInteger code
+      }
+    }
+  }
+
+  @Test
+  public void expWithSmallExponents() {
+    for (long base : new long[]{0, 1, 2, 3, 255, Long.MAX_VALUE, -1, -2}) {
+      for (int exponent = 0; exponent <= 300; exponent++) {
+        DataWord a = signed(base);
+        a.exp(new DataWord(exponent));
+        Assert.assertEquals(base + "^" + exponent,
+            signed(base).value().modPow(BigInteger.valueOf(exponent), _2_256), a.value());
+      }
+    }
+  }
+
+  @Test
+  public void allOnesOperands() {
+    DataWord ones = new DataWord(ByteUtil.copyToArray(MAX_VALUE));
+
+    DataWord product = ones.clone();
+    product.mul(ones);
+    Assert.assertEquals(BigInteger.ONE, product.value());
+
+    DataWord difference = new DataWord(0);
+    difference.sub(ones);
+    Assert.assertEquals(BigInteger.ONE, difference.value());
+
+    DataWord quotient = ones.clone();
+    quotient.sDiv(ones);
+    Assert.assertEquals(BigInteger.ONE, quotient.value());
+
+    DataWord remainder = ones.clone();
+    remainder.mod(new DataWord(Long.MAX_VALUE));
+    Assert.assertEquals(MAX_VALUE.mod(BigInteger.valueOf(Long.MAX_VALUE)), remainder.value());
+
+    DataWord power = ones.clone();
+    power.exp(ones);
+    Assert.assertEquals(MAX_VALUE, power.value());
+  }
+
+  private void differential(BiConsumer<DataWord, DataWord> op,
+      BiFunction<DataWord, DataWord, byte[]> reference) {
+    for (int i = 0; i < 20_000; i++) {
+      DataWord a = operand();
+      DataWord b = operand();
+
+      byte[] expected = null;
+      Class<?> expectedError = null;
+      try {
+        expected = reference.apply(a, b);
+      } catch (RuntimeException e) {
+        expectedError = e.getClass();
+      }
+
+      DataWord result = copy(a);
+      Class<?> actualError = null;
+      try {
+        op.accept(result, b);
+      } catch (RuntimeException e) {
+        actualError = e.getClass();
+      }
+
+      String what = a + " " + b;
+      Assert.assertEquals(what, expectedError, actualError);
+      if (expectedError == null) {
+        Assert.assertArrayEquals(what, expected, result.getData());
+      }
+    }
+  }
+
+  private DataWord operand() {
+    switch (random.nextInt(9)) {
+      case 0:
+        return new DataWord(random.nextLong());
+      case 1:
+        // small signed values, both signs
+        return signed(random.nextInt(2001) - 1000);
+      case 2:
+        long edge = random.nextBoolean() ? Long.MIN_VALUE : Long.MAX_VALUE;
+        return random.nextBoolean() ? signed(edge) : new DataWord(edge);
+      case 3:
+        // near all ones
+        return new DataWord(ByteUtil.copyToArray(MAX_VALUE.subtract(BigInteger.valueOf(
+            random.nextInt(3)))));
+      case 4:
+        return new DataWord(ByteUtil.copyToArray(random.nextBoolean() ? MIN_256
+            : MIN_256.subtract(BigInteger.ONE)));
+      case 5:
+        return new DataWord(ByteUtil.copyToArray(BigInteger.ONE.shiftLeft(random.nextInt(256))));
+      case 6:
+        // unsigned 64 bit values with the top bit set, and just past 64 bits
+        return new DataWord(ByteUtil.copyToArray(new BigInteger(64 + random.nextInt(2), random)));
+      case 7:
+        return random.nextInt(4) == 0 ? new DataWord((byte[]) null) : new DataWord(0);
+      default:
+        byte[] data = new byte[DataWord.WORD_SIZE];
+        random.nextBytes(data);
+        return new DataWord(data);
+    }
+  }
+
+  // DataWord(long) zero extends, this one sign extends to 256 bits
+  private static DataWord signed(long value) {
+    return new DataWord(ByteUtil.copyToArray(BigInteger.valueOf(value).and(MAX_VALUE)));
+  }
+
+  // clone() widens an empty word to 32 bytes, keep it empty
+  private static DataWord copy(DataWord a) {
+    return a.getData().length == 0 ? new DataWord((byte[]) null)
+        : new DataWord(a.getData().clone());
+  }
+
+  private static byte[] word(BigInteger value) {
+    return ByteUtil.copyToArray(value);
+  }
+
+  // the previous code cleared the word in place with and(ZERO), keeping its length
+  private static byte[] zeroOf(DataWord a) {
+    return new byte[a.getData().length];
+  }
+}
@@ -0,0 +1,317 @@
+package org.unichain.core.db;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.unichain.common.application.UnichainApplicationContext;
+import org.unichain.common.utils.ByteArray;
+import org.unichain.common.utils.FileUtil;
+import org.unichain.core.Wallet;
+import org.unichain.core.capsule.AccountCapsule;
+import org.unichain.core.capsule.BlockCapsule;
+import org.unichain.core.capsule.TokenPoolCapsule;
+import org.unichain.core.capsule.TransactionCapsule;
+import org.unichain.core.config.DefaultConfig;
+import org.unichain.core.config.args.Args;
+import org.unichain.core.db.common.WrappedByteArray;
+import org.unichain.core.db2.core.ISession;
+import org.unichain.core.db2.core.RevokingDBWithCachingNewValue;
+import org.unichain.core.db2.core.SnapshotManager;
+import org.unichain.core.services.http.utils.Util;
+import org.unichain.protos.Contract.CreateTokenContract;
+import org.unichain.protos.Contract.TransferContract;
+import org.unichain.protos.Contract.TransferTokenContract;
+import org.unichain.protos.Protocol.AccountType;
+import org.unichain.protos.Protocol.Block;
+import org.unichain.protos.Protocol.Transaction;
+import org.unichain.protos.Protocol.Transaction.Contract.ContractType;
+import org.unichain.protos.Protocol.TransactionInfo;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.unichain.core.config.Parameter.ChainConstant.BLOCK_VERSION_4;
+
+/**
+ * Replays a range of random transfer blocks through the parallel executor and through serial
+ * apply, and checks the two leave the same transaction infos, transactions and state in every
+ * revoking db. Each block is applied serially in a session that is revoked, then in parallel
+ * in a session that is kept for the next block.
+ */
+public class ParallelTransactionExecutorTest {
+
+  private static final String DB_PATH = "output_parallel_transaction_executor_test";
+  private static final String[] TOKENS = {"PARA", "LLEL"};
+  private static final int ACCOUNTS = 300;
+
+  private static UnichainApplicationContext context;
+  private static Manager dbManager;
+  private static ParallelTransactionExecutor executor;
+  private static List<byte[]> accounts = new ArrayList<>();
+  private static byte[] tokenOwner;
+  private static byte[] burn;
+
+  private final Random random = new Random(4);
+  private long nonce;
+
+  @BeforeClass
+  public static void init() {
+    Args.setParam(new String[]{"--output-directory", DB_PATH}, "config.conf");
+    context = new UnichainApplicationContext(DefaultConfig.class);
+    dbManager = context.getBean(Manager.class);
+    executor = new ParallelTransactionExecutor(dbManager, 4, false);
+    burn = dbManager.getAccountStore().getBurnaccount().createDbKey();
+
+    Random random = new Random(1);
+    tokenOwner = address(random);
+    dbManager.getAccountStore().put(tokenOwner, account(tokenOwner));
+    for (String token : TOKENS) {
+      dbManager.getTokenPoolStore().put(Util.stringAsBytesUppercase(token),
+          new TokenPoolCapsule(CreateTokenContract.newBuilder()
+              .setOwnerAddress(ByteString.copyFrom(tokenOwner))
+              .setName(token)
+              .setMaxSupply(Long.MAX_VALUE / 2)
+              .setTotalSupply(Long.MAX_VALUE / 4)
+              .setStartTime(0)
+              .setEndTime(Long.MAX_VALUE / 2)
+              .setFee(3)
+              .setExtraFeeRate(1)
+              .setFeePool(1_000_000_000_000L)
+              .setLot(1)
+              .build()));
+    }
+    for (int i = 0; i < ACCOUNTS; i++) {
+      byte[] address = address(random);
+      accounts.add(address);
+      dbManager.getAccountStore().put(address, account(address));
+    }
+  }
+
+  @AfterClass
+  public static void destroy() {
+    executor.shutdown();
+    context.destroy();
+    FileUtil.deleteDir(new File(DB_PATH));
+  }
+
+  @Test
+  public void blockRangeReplaysAsSerial() {
+    long before = executor.getParallelApplied();
+    for (int n = 0; n < 20; n++) {
+      List<Transaction> transactions = new ArrayList<>();
+      int count = 1 + random.nextInt(120);
+      for (int i = 0; i < count; i++) {
+        transactions.add(randomTransaction());
+      }
+      assertSameAsSerial("block " + n, transactions);
+    }
+    Assert.assertTrue(executor.getParallelApplied() > before);
+  }
+
+  @Test
+  public void disjointTransfersRunInParallel() {
+    List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i + 1 < 40; i += 2) {
+      transactions.add(transfer(accounts.get(i), accounts.get(i + 1), 1 + i));
+    }
+    long before = executor.getParallelApplied();
+    assertSameAsSerial("disjoint", transactions);
+    Assert.assertEquals(before + transactions.size(), executor.getParallelApplied());
+  }
+
+  @Test
+  public void checkedRunsAgreeWithSerial() {
+    ParallelTransactionExecutor checked = new ParallelTransactionExecutor(dbManager, 4, true);
+    try {
+      // the token transfers share a group, their fees all go to the pool owner
+      List<Transaction> transactions = new ArrayList<>();
+      for (int i = 40; i + 1 < 100; i += 2) {
+        transactions.add(i % 4 == 0
+            ? transfer(accounts.get(i), accounts.get(i + 1), i)
+            : tokenTransfer(accounts.get(i), accounts.get(i + 1), TOKENS[0], i));
+      }
+      assertSameAsSerial("checked", transactions, checked);
+      Assert.assertEquals(transactions.size(), checked.getParallelApplied());
+    } finally {
+      checked.shutdown();
+    }
+  }
+
+  @Test
+  public void groupsTouchingTheSameAccountFallBackToSerial() {
+    // the token fee goes to the pool owner, which the second group transfers from
+    List<Transaction> transactions = new ArrayList<>();
+    transactions.add(tokenTransfer(accounts.get(0), accounts.get(1), TOKENS[0], 500));
+    transactions.add(transfer(tokenOwner, accounts.get(2), 7));
+    long before = executor.getParallelApplied();
+    assertSameAsSerial("conflict", transactions);
+    Assert.assertEquals(before, executor.getParallelApplied());
+  }
+
+  @Test
+  public void transfersToTheBurnAccountSplitTheRun() {
+    List<Transaction> transactions = new ArrayList<>();
+    transactions.add(transfer(accounts.get(10), accounts.get(11), 5));
+    transactions.add(transfer(accounts.get(12), accounts.get(13), 5));
+    transactions.add(transfer(accounts.get(14), burn, 5));
+    transactions.add(transfer(accounts.get(15), accounts.get(16), 5));
+    transactions.add(transfer(accounts.get(17), accounts.get(18), 5));
+    long before = executor.getParallelApplied();
+    assertSameAsSerial("burn", transactions);
+    Assert.assertEquals(before + 4, executor.getParallelApplied());
+  }
+
+  private Transaction randomTransaction() {
+    byte[] owner = accounts.get(random.nextInt(ACCOUNTS));
+    int kind = random.nextInt(20);
+    byte[] to;
+    if (kind == 0) {
+      to = burn;
+    } else if (kind < 3) {
+      to = address(random);
+    } else if (kind == 3) {
+      to = tokenOwner;
+    } else {
+      to = accounts.get(random.nextInt(ACCOUNTS));
+    }
+    if (to == owner) {
+      to = address(random);
+    }
+    if (kind >= 15) {
+      return tokenTransfer(owner, to, TOKENS[random.nextInt(TOKENS.length)],
+          10 + random.nextInt(1000));
+    }
+    return transfer(owner, to, 1 + random.nextInt(1_000_000));
+  }
+
+  private void assertSameAsSerial(String message, List<Transaction> transactions) {
+    assertSameAsSerial(message, transactions, executor);
+  }
+
+  private void assertSameAsSerial(String message, List<Transaction> transactions,
+      ParallelTransactionExecutor executor) {
+    Block block = newBlock(transactions);
+    SnapshotManager revokingStore = (SnapshotManager) dbManager.getRevokingStore();
+
+    List<TransactionInfo> serialInfos;
+    List<Transaction> serialTransactions = new ArrayList<>();
+    Map<String, Map<WrappedByteArray, WrappedByteArray>> serialState;
+    try (ISession session = revokingStore.buildSession()) {
+      BlockCapsule serial = prepare(block);
+      serialInfos = dbManager.applyTransactions(serial, serial.getTransactions());
+      serial.getTransactions().forEach(t -> serialTransactions.add(t.getInstance()));
+      serialState = dump(revokingStore);
+      session.revoke();
+    } catch (Exception e) {
+      throw new AssertionError(message, e);
+    }
+
+    ISession session = revokingStore.buildSession();
+    try {
+      BlockCapsule parallel = prepare(block);
+      List<TransactionInfo> infos = executor.apply(parallel);
+      Assert.assertEquals(message, serialInfos, infos);
+      for (int i = 0; i < transactions.size(); i++) {
+        Assert.assertEquals(message + ", transaction " + i,
+            serialTransactions.get(i), parallel.getTransactions().get(i).getInstance());
+      }
+      Map<String, Map<WrappedByteArray, WrappedByteArray>> state = dump(revokingStore);
+      for (String db : serialState.keySet()) {
+        Assert.assertEquals(message + ", " + db, serialState.get(db), state.get(db));
+      }
+    } catch (Exception e) {
+      throw new AssertionError(message, e);
+    }
+    session.commit();
+  }
+
+  private static BlockCapsule prepare(Block block) {
+    BlockCapsule capsule = new BlockCapsule(block);
+    capsule.getTransactions().forEach(transaction -> {
+      transaction.setBlockNum(capsule.getNum());
+      transaction.setVerified(true);
+    });
+    return capsule;
+  }
+
+  private static Block newBlock(List<Transaction> transactions) {
+    long number = dbManager.getDynamicPropertiesStore().getLatestBlockHeaderNumber() + 1;
+    BlockCapsule block = new BlockCapsule(BLOCK_VERSION_4, number,
+        dbManager.getDynamicPropertiesStore().getLatestBlockHeaderHash(),
+        dbManager.getHeadBlockTimeStamp() + 3000, ByteString.EMPTY);
+    transactions.forEach(transaction -> block.addTransaction(new TransactionCapsule(transaction)));
+    return block.getInstance();
+  }
+
+  private static Map<String, Map<WrappedByteArray, WrappedByteArray>> dump(
+      SnapshotManager revokingStore) {
+    Map<String, Map<WrappedByteArray, WrappedByteArray>> state = new HashMap<>();
+    for (RevokingDBWithCachingNewValue db : revokingStore.getDbs()) {
+      Map<WrappedByteArray, WrappedByteArray> entries = new HashMap<>();
+      Iterator<Map.Entry<byte[], byte[]>> iterator = db.iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<byte[], byte[]> entry = iterator.next();
+        entries.put(WrappedByteArray.copyOf(entry.getKey()),
+            WrappedByteArray.copyOf(entry.getValue()));
+      }
+      state.put(db.getDbName(), entries);
+    }
+    return state;
+  }
+
+  private Transaction transfer(byte[] owner, byte[] to, long amount) {
+    return transaction(ContractType.TransferContract, Any.pack(TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(owner))
+        .setToAddress(ByteString.copyFrom(to))
+        .setAmount(amount)
+        .build()));
+  }
+
+  private Transaction tokenTransfer(byte[] owner, byte[] to, String token, long amount) {
+    return transaction(ContractType.TransferTokenContract, Any.pack(
+        TransferTokenContract.newBuilder()
+            .setOwnerAddress(ByteString.copyFrom(owner))
+            .setToAddress(ByteString.copyFrom(to))
+            .setTokenName(token)
+            .setAmount(amount)
+            .build()));
+  }
+
+  private Transaction transaction(ContractType type, Any parameter) {
+    BlockCapsule genesis = dbManager.getGenesisBlock();
+    Transaction.raw raw = Transaction.raw.newBuilder()
+        .addContract(Transaction.Contract.newBuilder().setType(type).setParameter(parameter))
+        .setRefBlockBytes(ByteString.copyFrom(
+            ByteArray.subArray(ByteArray.fromLong(genesis.getNum()), 6, 8)))
+        .setRefBlockHash(ByteString.copyFrom(
+            ByteArray.subArray(genesis.getBlockId().getBytes(), 8, 16)))
+        .setExpiration(dbManager.getHeadBlockTimeStamp() + 60_000)
+        .setTimestamp(++nonce)
+        .build();
+    return Transaction.newBuilder().setRawData(raw).build();
+  }
+
+  private static AccountCapsule account(byte[] address) {
+    AccountCapsule account = new AccountCapsule(ByteString.EMPTY, ByteString.copyFrom(address),
+        AccountType.Normal, 1_000_000_000_000L);
+    for (String token : TOKENS) {
+      account.addToken(Util.stringAsBytesUppercase(token), 1_000_000_000L);
+    }
+    return account;
+  }
+
+  private static byte[] address(Random random) {
+    byte[] address = new byte[21];
+    random.nextBytes(address);
+    address[0] = Wallet.getAddressPreFixByte();
+    return address;
+  }
+}
@@ -0,0 +1,206 @@
+package org.unichain.core.db;
+
+import com.google.protobuf.ByteString;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.unichain.common.application.UnichainApplicationContext;
+import org.unichain.common.storage.DepositImpl;
+import org.unichain.common.utils.FileUtil;
+import org.unichain.core.capsule.VotesCapsule;
+import org.unichain.core.config.DefaultConfig;
+import org.unichain.core.config.args.Args;
+import org.unichain.protos.Protocol.Vote;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The witness vote deltas kept by VotesStore against the scan and sum of the votes entries that
+ * countVote did before, over random votes, unfreezes and VM deposit commits.
+ */
+public class VotesStoreTest {
+
+  private static final String DB_PATH = "output_votes_store_test";
+  private static final int VOTERS = 60;
+  private static final int WITNESSES = 12;
+
+  private static UnichainApplicationContext context;
+  private static Manager dbManager;
+  private static VotesStore votesStore;
+  private static WitnessVoteDeltaStore witnessVoteDeltaStore;
+
+  private final Random random = new Random(23);
+  // the votes list each voter's account holds, the old votes of its next epoch entry
+  private final Map<ByteString, List<Vote>> accountVotes = new HashMap<>();
+
+  @BeforeClass
+  public static void init() {
+    Args.setParam(new String[]{"--output-directory", DB_PATH}, "config.conf");
+    context = new UnichainApplicationContext(DefaultConfig.class);
+    dbManager = context.getBean(Manager.class);
+    votesStore = dbManager.getVotesStore();
+    witnessVoteDeltaStore = context.getBean(WitnessVoteDeltaStore.class);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    context.destroy();
+    FileUtil.deleteDir(new File(DB_PATH));
+  }
+
+  @Before
+  public void clear() {
+    votesStore.countVote();
+  }
+
+  @Test
+  public void countVoteMatchesTheScanEveryEpoch() {
+    for (int epoch = 0; epoch < 30; epoch++) {
+      randomOperations(1 + random.nextInt(150));
+
+      Map<ByteString, Long> expected = scanAndSum();
+      Map<ByteString, Long> actual = votesStore.countVote();
+      Assert.assertEquals("epoch " + epoch, expected, actual);
+      Assert.assertFalse(votesStore.iterator().hasNext());
+      Assert.assertFalse(witnessVoteDeltaStore.iterator().hasNext());
+    }
+  }
+
+  @Test
+  public void unchangedVotesStillCountTheirWitnesses() {
+    ByteString voter = address(0x41, 0);
+    accountVotes.put(voter, Collections.singletonList(vote(witness(3), 500)));
+    vote(voter, Collections.singletonList(vote(witness(3), 500)));
+    unfreeze(address(0x41, 1));
+
+    Map<ByteString, Long> expected = scanAndSum();
+    Assert.assertEquals(Collections.singletonMap(witness(3), 0L), expected);
+    Assert.assertEquals(expected, votesStore.countVote());
+  }
+
+  @Test
+  public void entriesOfAnEndedEpochReadAsAbsent() {
+    ByteString voter = address(0x41, 2);
+    vote(voter, Collections.singletonList(vote(witness(1), 300)));
+    votesStore.countVote();
+    Assert.assertFalse(votesStore.has(voter.toByteArray()));
+    Assert.assertNull(votesStore.get(voter.toByteArray()));
+    Assert.assertFalse(votesStore.iterator().hasNext());
+
+    // the stale entry is replaced as if it was gone, its old votes come from the account
+    vote(voter, Collections.singletonList(vote(witness(2), 100)));
+    Map<ByteString, Long> expected = new HashMap<>();
+    expected.put(witness(1), -300L);
+    expected.put(witness(2), 100L);
+    Assert.assertEquals(expected, scanAndSum());
+    Assert.assertEquals(expected, votesStore.countVote());
+  }
+
+  @Test
+  public void rebuiltDeltasMatchTheScan() {
+    randomOperations(200);
+    Map<ByteString, Long> expected = scanAndSum();
+    votesStore.rebuildDelta();
+    Assert.assertEquals(expected, votesStore.countVote());
+  }
+
+  private void randomOperations(int count) {
+    for (int i = 0; i < count; i++) {
+      ByteString voter = address(0x41, random.nextInt(VOTERS));
+      switch (random.nextInt(4)) {
+        case 0:
+          unfreeze(voter);
+          break;
+        case 1:
+          depositVote(voter, randomVotes());
+          break;
+        default:
+          vote(voter, randomVotes());
+          break;
+      }
+    }
+  }
+
+  /**
+   * as VoteWitnessActuator does without a deposit.
+   */
+  private void vote(ByteString voter, List<Vote> votes) {
+    VotesCapsule votesCapsule = votesStore.has(voter.toByteArray())
+        ? votesStore.get(voter.toByteArray())
+        : new VotesCapsule(voter, accountVotes.getOrDefault(voter, Collections.emptyList()));
+    votesCapsule.clearNewVotes();
+    votes.forEach(vote -> votesCapsule.addNewVotes(vote.getVoteAddress(), vote.getVoteCount()));
+    accountVotes.put(voter, votes);
+    votesStore.put(voter.toByteArray(), votesCapsule);
+  }
+
+  /**
+   * as UnfreezeBalanceActuator does, the account's votes are cleared.
+   */
+  private void unfreeze(ByteString voter) {
+    vote(voter, Collections.emptyList());
+  }
+
+  /**
+   * as VoteWitnessActuator does in the VM, written to the store by the root deposit commit.
+   */
+  private void depositVote(ByteString voter, List<Vote> votes) {
+    DepositImpl deposit = DepositImpl.createRoot(dbManager);
+    VotesCapsule found = deposit.getVotesCapsule(voter.toByteArray());
+    VotesCapsule votesCapsule = found != null ? found
+        : new VotesCapsule(voter, accountVotes.getOrDefault(voter, Collections.emptyList()));
+    votesCapsule.clearNewVotes();
+    votes.forEach(vote -> votesCapsule.addNewVotes(vote.getVoteAddress(), vote.getVoteCount()));
+    accountVotes.put(voter, votes);
+    deposit.putVoteValue(voter.toByteArray(), votesCapsule);
+    deposit.commit();
+  }
+
+  private List<Vote> randomVotes() {
+    List<Vote> votes = new ArrayList<>();
+    int count = random.nextInt(5);
+    for (int i = 0; i < count; i++) {
+      // the same witness may come twice, and now and then with as many votes as before
+      votes.add(vote(witness(random.nextInt(WITNESSES)), random.nextInt(4) == 0
+          ? 100 : 1 + random.nextInt(1_000_000)));
+    }
+    return votes;
+  }
+
+  /**
+   * The tally countVote made before the deltas, new minus old votes summed over every entry.
+   */
+  private static Map<ByteString, Long> scanAndSum() {
+    Map<ByteString, Long> countWitness = new HashMap<>();
+    Iterator<Map.Entry<byte[], VotesCapsule>> dbIterator = votesStore.iterator();
+    while (dbIterator.hasNext()) {
+      VotesCapsule votes = dbIterator.next().getValue();
+      votes.getOldVotes().forEach(vote -> countWitness.put(vote.getVoteAddress(),
+          countWitness.getOrDefault(vote.getVoteAddress(), 0L) - vote.getVoteCount()));
+      votes.getNewVotes().forEach(vote -> countWitness.put(vote.getVoteAddress(),
+          countWitness.getOrDefault(vote.getVoteAddress(), 0L) + vote.getVoteCount()));
+    }
+    return countWitness;
+  }
+
+  private static Vote vote(ByteString witness, long count) {
+    return Vote.newBuilder().setVoteAddress(witness).setVoteCount(count).build();
+  }
+
+  private static ByteString witness(int i) {
+    return address(0x57, i);
+  }
+
+  private static ByteString address(int prefix, int i) {
+    return ByteString.copyFrom(new byte[]{0x44, (byte) prefix, (byte) i});
+  }
+}
@@ -0,0 +1,291 @@
+package org.unichain.core.db2.common;
+
+import com.google.common.primitives.Longs;
+import org.junit.Assert;
+import org.junit.Test;
+import org.unichain.core.db.common.WrappedByteArray;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The open addressing table and block ring of TxCacheDB against a HashMap of id -> block number
+ * that expires a whole block when a newer one takes its ring bucket.
+ */
+public class TxCacheDBTest {
+
+  private static final int BLOCK_COUNT = 70_000;
+  private static final int INITIAL_CAPACITY = 1 << 16;
+  // folds to 0x7FFFFFFF, the last slot of any table, so its probe chain wraps to slot 0
+  private static final long LAST_SLOT = 0x7FFFFFFFL;
+
+  private final Random random = new Random(3);
+
+  @Test
+  public void randomOperationsMatchTheModel() {
+    TxCacheDB db = new TxCacheDB();
+    Model model = new Model();
+    List<byte[]> ids = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      // half of the ids share a few first words, those chains run over the end of the table
+      ids.add(i % 2 == 0 ? id(LAST_SLOT - random.nextInt(3), random.nextLong()) : randomId());
+    }
+
+    long head = 1;
+    for (int op = 1; op <= 40_000; op++) {
+      if (random.nextInt(20) == 0) {
+        head += random.nextInt(20_000);
+      }
+      byte[] key = ids.get(random.nextInt(ids.size()));
+      // now and then a block the ring has moved past
+      long blockNum = random.nextInt(10) == 0
+          ? Math.max(0, head - BLOCK_COUNT - random.nextInt(100)) : head - random.nextInt(50);
+      switch (random.nextInt(8)) {
+        case 0:
+          db.remove(key);
+          model.remove(key);
+          break;
+        case 1:
+          Map<WrappedByteArray, WrappedByteArray> batch = new LinkedHashMap<>();
+          for (int i = 0; i < 5; i++) {
+            byte[] batchKey = ids.get(random.nextInt(ids.size()));
+            batch.put(WrappedByteArray.of(batchKey), WrappedByteArray.of(Longs.toByteArray(head)));
+            model.put(batchKey, head);
+          }
+          db.flush(batch);
+          break;
+        default:
+          db.put(key, Longs.toByteArray(blockNum));
+          model.put(key, blockNum);
+          break;
+      }
+
+      Assert.assertEquals("op " + op, model.get(key), blockNum(db.get(key)));
+      Assert.assertEquals("op " + op, model.size(), db.size());
+      if (op % 1000 == 0) {
+        assertSameContent(model, db, ids);
+      }
+    }
+  }
+
+  @Test
+  public void deleteShiftsTheProbeChainBack() {
+    TxCacheDB db = new TxCacheDB();
+    Model model = new Model();
+    // one chain running from the last slot over slot 0, with ids of slot 0 and 1 mixed in
+    List<byte[]> chain = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      long first = i % 3 == 0 ? LAST_SLOT : i % 3 - 1;
+      chain.add(id(first, i));
+    }
+    chain.forEach(key -> {
+      db.put(key, Longs.toByteArray(7));
+      model.put(key, 7);
+    });
+
+    while (!chain.isEmpty()) {
+      byte[] key = chain.remove(random.nextInt(chain.size()));
+      db.remove(key);
+      model.remove(key);
+      Assert.assertNull(db.get(key));
+      assertSameContent(model, db, chain);
+    }
+    Assert.assertTrue(db.isEmpty());
+  }
+
+  @Test
+  public void resizesAtThreeQuartersLoad() throws Exception {
+    TxCacheDB db = new TxCacheDB();
+    List<byte[]> ids = new ArrayList<>();
+    int threshold = INITIAL_CAPACITY / 4 * 3;
+    for (int i = 0; i < threshold; i++) {
+      byte[] key = i % 64 == 0 ? id(LAST_SLOT, i) : randomId();
+      ids.add(key);
+      db.put(key, Longs.toByteArray(i % 1000));
+    }
+    Assert.assertEquals(INITIAL_CAPACITY, capacity(db));
+
+    byte[] next = randomId();
+    ids.add(next);
+    db.put(next, Longs.toByteArray(1));
+    Assert.assertEquals(INITIAL_CAPACITY * 2, capacity(db));
+    Assert.assertEquals(threshold + 1, db.size());
+    for (int i = 0; i < threshold; i++) {
+      Assert.assertEquals(i % 1000, blockNum(db.get(ids.get(i))).longValue());
+    }
+    Assert.assertEquals(1L, blockNum(db.get(next)).longValue());
+  }
+
+  @Test
+  public void expireKeepsIdsPutAgainForANewerBlock() {
+    TxCacheDB db = new TxCacheDB();
+    byte[] moved = randomId();
+    byte[] movedBack = randomId();
+    byte[] stays = randomId();
+    db.put(moved, Longs.toByteArray(10));
+    db.put(moved, Longs.toByteArray(11));
+    db.put(movedBack, Longs.toByteArray(10));
+    db.put(movedBack, Longs.toByteArray(11));
+    db.put(movedBack, Longs.toByteArray(10));
+    db.put(stays, Longs.toByteArray(10));
+
+    db.put(randomId(), Longs.toByteArray(10 + BLOCK_COUNT));
+    Assert.assertEquals(11L, blockNum(db.get(moved)).longValue());
+    Assert.assertNull(db.get(movedBack));
+    Assert.assertNull(db.get(stays));
+    Assert.assertEquals(2, db.size());
+
+    db.put(randomId(), Longs.toByteArray(11 + BLOCK_COUNT));
+    Assert.assertNull(db.get(moved));
+    Assert.assertEquals(2, db.size());
+  }
+
+  @Test
+  public void dropsPutsOlderThanTheBucketOwner() {
+    TxCacheDB db = new TxCacheDB();
+    byte[] newer = randomId();
+    byte[] older = randomId();
+    db.put(newer, Longs.toByteArray(5 + BLOCK_COUNT));
+    db.put(older, Longs.toByteArray(5));
+    Assert.assertNull(db.get(older));
+    Assert.assertEquals(5L + BLOCK_COUNT, blockNum(db.get(newer)).longValue());
+    Assert.assertEquals(1, db.size());
+
+    // an older put of a cached id must not move it back either
+    db.put(newer, Longs.toByteArray(5));
+    Assert.assertEquals(5L + BLOCK_COUNT, blockNum(db.get(newer)).longValue());
+  }
+
+  @Test
+  public void readersSeeStableIdsWhileWritersMoveTheTable() throws Exception {
+    TxCacheDB db = new TxCacheDB();
+    List<byte[]> stable = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      byte[] key = i % 2 == 0 ? id(LAST_SLOT, -i) : randomId();
+      stable.add(key);
+      db.put(key, Longs.toByteArray(50_000));
+    }
+
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicReference<String> failure = new AtomicReference<>();
+    List<Thread> readers = new ArrayList<>();
+    for (int r = 0; r < 3; r++) {
+      Thread reader = new Thread(() -> {
+        int i = 0;
+        while (!done.get() && failure.get() == null) {
+          byte[] key = stable.get(i++ % stable.size());
+          Long blockNum = blockNum(db.get(key));
+          if (blockNum == null || blockNum != 50_000) {
+            failure.set("stable id read as " + blockNum);
+          }
+        }
+      });
+      reader.start();
+      readers.add(reader);
+    }
+
+    // every round fills the first blocks with ids on the stable chains, which resizes the
+    // table, and the next round expires them, which shifts the chains back
+    Random writerRandom = new Random(7);
+    for (int round = 0; round < 4 && failure.get() == null; round++) {
+      for (int block = 1; block <= 2_000; block++) {
+        for (int i = 0; i < 40; i++) {
+          long first = i == 0 ? LAST_SLOT : writerRandom.nextLong();
+          db.put(id(first, writerRandom.nextLong()),
+              Longs.toByteArray(round * (long) BLOCK_COUNT + block));
+        }
+      }
+    }
+    done.set(true);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+
+    Assert.assertNull(failure.get());
+    for (byte[] key : stable) {
+      Assert.assertEquals(50_000L, blockNum(db.get(key)).longValue());
+    }
+  }
+
+  private static void assertSameContent(Model model, TxCacheDB db, List<byte[]> ids) {
+    for (byte[] key : ids) {
+      Assert.assertEquals(model.get(key), blockNum(db.get(key)));
+    }
+    Map<WrappedByteArray, Long> content = new HashMap<>();
+    Iterator<Map.Entry<byte[], byte[]>> iterator = db.iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<byte[], byte[]> entry = iterator.next();
+      content.put(WrappedByteArray.of(entry.getKey()), blockNum(entry.getValue()));
+    }
+    Assert.assertEquals(model.blockNums, content);
+  }
+
+  private static int capacity(TxCacheDB db) throws Exception {
+    Field tableField = TxCacheDB.class.getDeclaredField("table");
+    tableField.setAccessible(true);
+    Object table = tableField.get(db);
+    Field maskField = table.getClass().getDeclaredField("mask");
+    maskField.setAccessible(true);
+    return maskField.getInt(table) + 1;
+  }
+
+  private static Long blockNum(byte[] value) {
+    return value == null ? null : Longs.fromByteArray(value);
+  }
+
+  private byte[] randomId() {
+    return id(random.nextLong(), random.nextLong());
+  }
+
+  private static byte[] id(long first, long rest) {
+    byte[] key = new byte[32];
+    System.arraycopy(Longs.toByteArray(first), 0, key, 0, 8);
+    System.arraycopy(Longs.toByteArray(rest), 0, key, 8, 8);
+    System.arraycopy(Longs.toByteArray(~rest), 0, key, 16, 8);
+    System.arraycopy(Longs.toByteArray(rest * 31), 0, key, 24, 8);
+    return key;
+  }
+
+  /**
+   * What TxCacheDB keeps: a bucket belongs to the newest block put in it, taking it over drops
+   * every id still cached for the block before, and puts older than the owner are ignored.
+   */
+  private static final class Model {
+
+    private final Map<WrappedByteArray, Long> blockNums = new HashMap<>();
+    private final Map<Long, Long> owners = new HashMap<>();
+
+    void put(byte[] key, long blockNum) {
+      long bucket = blockNum % BLOCK_COUNT;
+      Long owner = owners.get(bucket);
+      if (owner != null && owner > blockNum) {
+        return;
+      }
+      if (owner != null && owner != blockNum) {
+        blockNums.values().removeIf(cached -> cached.longValue() == owner);
+      }
+      owners.put(bucket, blockNum);
+      blockNums.put(WrappedByteArray.of(key), blockNum);
+    }
+
+    void remove(byte[] key) {
+      blockNums.remove(WrappedByteArray.of(key));
+    }
+
+    Long get(byte[] key) {
+      return blockNums.get(WrappedByteArray.of(key));
+    }
+
+    long size() {
+      return blockNums.size();
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package org.unichain.core.db2.core;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.rocksdb.RocksDB;
+import org.unichain.common.utils.FileUtil;
+import org.unichain.core.config.args.Args;
+import org.unichain.core.db2.common.Key;
+import org.unichain.core.db2.common.LevelDB;
+import org.unichain.core.db2.common.Value;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Snapshot reads resolved through the KeyVersionIndex against the walk down the previous chain
+ * they replaced, as layers are put to, deleted from, merged, retreated and flushed into the root,
+ * read from the head and from every older layer pinned like a solidified head.
+ */
+public class KeyVersionIndexTest {
+
+  private static final String DB_PATH = "output_key_version_index_test";
+  private static final int KEYS = 24;
+
+  static {
+    // the write options of LevelDB come from the rocksdb jni, DefaultConfig loads it otherwise
+    RocksDB.loadLibrary();
+  }
+
+  private final Random random = new Random(1);
+
+  private SnapshotRoot root;
+  private Snapshot head;
+  // unflushed layers, oldest first, the last one is the head
+  private final List<SnapshotImpl> chain = new ArrayList<>();
+  // layers up to here may be flushed but not merged into or retreated, -1 pins the root
+  private int solid = -1;
+  // the last layer flushed while solidified, still read by whoever pinned it
+  private SnapshotImpl flushedPin;
+
+  @Before
+  public void init() {
+    Args.setParam(new String[]{"--output-directory", DB_PATH}, "config.conf");
+    root = new SnapshotRoot(DB_PATH, "key-version-index", LevelDB.class);
+    head = root;
+    for (int i = 0; i < KEYS; i += 2) {
+      root.put(key(i), value());
+    }
+  }
+
+  @After
+  public void destroy() {
+    root.close();
+    FileUtil.deleteDir(new File(DB_PATH));
+  }
+
+  @Test
+  public void readsMatchThePreviousChainWalk() {
+    for (int step = 0; step < 5_000; step++) {
+      switch (random.nextInt(10)) {
+        case 0:
+        case 1:
+          advance();
+          break;
+        case 2:
+          merge();
+          break;
+        case 3:
+          retreat();
+          break;
+        case 4:
+          solidify();
+          break;
+        case 5:
+          flush();
+          break;
+        default:
+          write();
+          break;
+      }
+      assertReads("step " + step);
+    }
+  }
+
+  @Test
+  public void pinnedHeadDoesNotSeeNewerLayers() {
+    advance();
+    head.put(key(1), new byte[]{1});
+    advance();
+    SnapshotImpl pinned = (SnapshotImpl) head;
+    advance();
+    head.put(key(1), new byte[]{2});
+    head.remove(key(0));
+    advance();
+    head.put(key(3), new byte[]{3});
+
+    Assert.assertArrayEquals(new byte[]{1}, pinned.get(key(1)));
+    Assert.assertNotNull(pinned.get(key(0)));
+    Assert.assertNull(pinned.get(key(3)));
+    Assert.assertArrayEquals(new byte[]{2}, head.get(key(1)));
+    Assert.assertNull(head.get(key(0)));
+    assertReads("pinned");
+
+    // flushed up to the pinned layer, the root stands for it
+    solid = 1;
+    flush(2);
+    Assert.assertArrayEquals(new byte[]{1}, pinned.get(key(1)));
+    Assert.assertNotNull(pinned.get(key(0)));
+    Assert.assertNull(pinned.get(key(3)));
+    assertReads("flushed");
+  }
+
+  private void advance() {
+    head = head.advance();
+    chain.add((SnapshotImpl) head);
+  }
+
+  private void write() {
+    if (chain.isEmpty()) {
+      advance();
+    }
+    byte[] key = key(random.nextInt(KEYS));
+    if (random.nextInt(4) == 0) {
+      head.remove(key);
+    } else {
+      head.put(key, value());
+    }
+  }
+
+  /**
+   * as SnapshotManager.merge does, the head goes into its previous and then retreats.
+   */
+  private void merge() {
+    if (chain.size() - 2 <= solid) {
+      return;
+    }
+    head.getPrevious().merge(head);
+    retreat();
+  }
+
+  private void retreat() {
+    if (chain.size() - 1 <= solid) {
+      return;
+    }
+    head = head.retreat();
+    chain.remove(chain.size() - 1);
+  }
+
+  private void solidify() {
+    if (solid < chain.size() - 1) {
+      solid += 1 + random.nextInt(chain.size() - 1 - solid);
+      flushedPin = null;
+    }
+  }
+
+  private void flush() {
+    if (solid >= 0) {
+      flush(1 + random.nextInt(solid + 1));
+    }
+  }
+
+  /**
+   * as SnapshotManager.refreshOne does, the oldest layers go into the root in one batch.
+   */
+  private void flush(int count) {
+    List<Snapshot> snapshots = new ArrayList<>();
+    Snapshot next = root;
+    for (int i = 0; i < count; ++i) {
+      next = next.getNext();
+      snapshots.add(next);
+    }
+
+    root.merge(snapshots);
+    if (head == next) {
+      head = root;
+    } else {
+      next.getNext().setPrevious(root);
+      root.setNext(next.getNext());
+    }
+
+    if (count == solid + 1) {
+      flushedPin = chain.get(solid);
+    }
+    chain.subList(0, count).clear();
+    solid -= count;
+  }
+
+  private void assertReads(String message) {
+    List<SnapshotImpl> heads = new ArrayList<>(chain);
+    if (flushedPin != null) {
+      heads.add(flushedPin);
+    }
+    for (int i = 0; i < KEYS; i++) {
+      byte[] key = key(i);
+      for (SnapshotImpl layer : heads) {
+        Assert.assertArrayEquals(message + ", layer " + layer.getSeq() + ", key " + i,
+            walk(layer, key), layer.get(key));
+      }
+      // flushed, retreated and merged away layers leave the index
+      if (!chain.isEmpty()) {
+        SnapshotImpl latest = root.getVersionIndex()
+            .latest(Key.of(key), chain.get(chain.size() - 1));
+        Assert.assertTrue(message + ", key " + i, latest == null || chain.contains(latest));
+      }
+    }
+  }
+
+  /**
+   * The read SnapshotImpl did before the index, the first layer down the chain holding the key.
+   */
+  private static byte[] walk(Snapshot head, byte[] key) {
+    Snapshot snapshot = head;
+    Value value;
+    while (Snapshot.isImpl(snapshot)) {
+      if ((value = ((SnapshotImpl) snapshot).getDb().get(Key.of(key))) != null) {
+        return value.getBytes();
+      }
+
+      snapshot = snapshot.getPrevious();
+    }
+
+    return snapshot == null ? null : snapshot.get(key);
+  }
+
+  private byte[] value() {
+    byte[] value = new byte[1 + random.nextInt(8)];
+    random.nextBytes(value);
+    return value;
+  }
+
+  private static byte[] key(int i) {
+    byte[] key = new byte[4];
+    Arrays.fill(key, (byte) i);
+    return key;
+  }
+}
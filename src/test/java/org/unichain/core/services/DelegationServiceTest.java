@@ -0,0 +1,126 @@
+package org.unichain.core.services;
+
+import com.google.protobuf.ByteString;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.unichain.common.application.UnichainApplicationContext;
+import org.unichain.common.utils.FileUtil;
+import org.unichain.core.capsule.AccountCapsule;
+import org.unichain.core.config.DefaultConfig;
+import org.unichain.core.config.args.Args;
+import org.unichain.core.db.DelegationStore;
+import org.unichain.core.db.Manager;
+import org.unichain.protos.Protocol.AccountType;
+
+import java.io.File;
+import java.util.Random;
+
+/**
+ * The range reward read off the witness reward-per-vote index against the per cycle loop it
+ * replaces, which truncates every cycle's share.
+ */
+public class DelegationServiceTest {
+
+  private static final String DB_PATH = "output_delegation_service_test";
+  private static final int WITNESS_COUNT = 5;
+  private static final long CYCLES = 400;
+  private static final long EFFECTIVE_CYCLE = 101;
+
+  private static UnichainApplicationContext context;
+  private static Manager dbManager;
+  private static DelegationService delegationService;
+  private static byte[][] witnesses = new byte[WITNESS_COUNT][];
+
+  @BeforeClass
+  public static void init() {
+    Args.setParam(new String[]{"--output-directory", DB_PATH}, "config.conf");
+    context = new UnichainApplicationContext(DefaultConfig.class);
+    dbManager = context.getBean(Manager.class);
+    delegationService = context.getBean(DelegationService.class);
+
+    // the new algorithm takes effect in the cycle after the one it is approved in
+    dbManager.getDynamicPropertiesStore().saveCurrentCycleNumber(EFFECTIVE_CYCLE - 1);
+    dbManager.getDynamicPropertiesStore().saveNewRewardAlgorithmEffectiveCycle();
+
+    Random random = new Random(22);
+    DelegationStore delegationStore = dbManager.getDelegationStore();
+    for (int i = 0; i < WITNESS_COUNT; i++) {
+      witnesses[i] = new byte[]{0x44, (byte) i, 0x22};
+    }
+    for (long cycle = 0; cycle < CYCLES; cycle++) {
+      for (byte[] witness : witnesses) {
+        // some cycles without reward or without votes, the rest mainnet sized
+        if (random.nextInt(10) > 0) {
+          delegationStore.setWitnessVote(cycle, witness, 1 + (long) (random.nextDouble() * 5e10));
+          if (random.nextInt(10) > 0) {
+            delegationStore.addReward(cycle, witness, (long) (random.nextDouble() * 2e11));
+          }
+        }
+        delegationStore.accumulateWitnessVi(cycle, witness);
+      }
+    }
+  }
+
+  @AfterClass
+  public static void destroy() {
+    context.destroy();
+    FileUtil.deleteDir(new File(DB_PATH));
+  }
+
+  @Test
+  public void rangeRewardBeforeEffectiveCycleIsUnchanged() {
+    AccountCapsule account = voter(new Random(1));
+    Assert.assertEquals(perCycleReward(3, EFFECTIVE_CYCLE, account),
+        delegationService.computeReward(3, EFFECTIVE_CYCLE, account));
+  }
+
+  @Test
+  public void rangeRewardStaysWithinOneUnitPerCycleAndVote() {
+    Random random = new Random(7);
+    for (int i = 0; i < 200; i++) {
+      AccountCapsule account = voter(random);
+      long begin = random.nextInt((int) CYCLES);
+      long end = begin + 1 + random.nextInt((int) (CYCLES - begin));
+      long expected = perCycleReward(begin, end, account);
+      long actual = delegationService.computeReward(begin, end, account);
+
+      long indexedCycles = Math.max(0, end - Math.max(begin, EFFECTIVE_CYCLE));
+      long bound = indexedCycles * account.getVotesList().size();
+      Assert.assertTrue("range [" + begin + ", " + end + ") " + expected + " vs " + actual,
+          Math.abs(actual - expected) <= bound);
+    }
+  }
+
+  @Test
+  public void singleCycleRewardStaysWithinOneUnitPerVote() {
+    Random random = new Random(11);
+    for (long cycle = EFFECTIVE_CYCLE; cycle < CYCLES; cycle++) {
+      AccountCapsule account = voter(random);
+      long expected = delegationService.computeReward(cycle, account);
+      long actual = delegationService.computeReward(cycle, cycle + 1, account);
+      Assert.assertTrue("cycle " + cycle + " " + expected + " vs " + actual,
+          Math.abs(actual - expected) <= account.getVotesList().size());
+    }
+  }
+
+  private static long perCycleReward(long begin, long end, AccountCapsule account) {
+    long reward = 0;
+    for (long cycle = begin; cycle < end; cycle++) {
+      reward += delegationService.computeReward(cycle, account);
+    }
+    return reward;
+  }
+
+  private static AccountCapsule voter(Random random) {
+    AccountCapsule account = new AccountCapsule(ByteString.copyFromUtf8("voter"),
+        ByteString.copyFrom(new byte[]{0x44, 0x7f}), AccountType.Normal, 0);
+    for (byte[] witness : witnesses) {
+      if (random.nextBoolean()) {
+        account.addVotes(ByteString.copyFrom(witness), 1 + random.nextInt(10_000_000));
+      }
+    }
+    return account;
+  }
+}